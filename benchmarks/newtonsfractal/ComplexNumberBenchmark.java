@@ -0,0 +1,34 @@
+package newtonsfractal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the complex division, which every step of {@code Newton.newtonComplex} does once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexNumberBenchmark {
+
+    private final ComplexNumber dividend = new ComplexNumber(1.5, -0.25);
+    private final ComplexNumber divisor = new ComplexNumber(-0.75, 2);
+
+
+    @Benchmark
+    public ComplexNumber divide() {
+        return ComplexNumber.divide(dividend, divisor);
+    }
+}
@@ -0,0 +1,56 @@
+package newtonsfractal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures evaluating a random polynomial, alone and with its slope, and finding its roots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexPolynomialBenchmark {
+
+    @Param({"3", "5", "10", "20"})
+    public int degree;
+
+    private ComplexPolynomial polynomial;
+    private final ComplexNumber z = new ComplexNumber(0.3, 0.7);
+    private final ComplexNumber slope = new ComplexNumber();
+
+
+    @Setup
+    public void setUp() {
+        polynomial = ComplexPolynomial.GENERATE_RANDOM(degree);
+    }
+
+
+    @Benchmark
+    public ComplexNumber eval() {
+        return polynomial.eval(z);
+    }
+
+    @Benchmark
+    public double evalWithSlope() {
+        return polynomial.evalWithSlope(z, slope).real() + slope.real();
+    }
+
+    @Benchmark
+    public int findRoots() {
+        return RootFinder.findRoots(polynomial).size();
+    }
+}
@@ -0,0 +1,80 @@
+package newtonsfractal;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares solving a point of {@code 1 - x + x^2 + x^5} in doubles with the precisions a deep zoom switches to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExtendedNewtonKernelBenchmark {
+
+    /**
+     * The number of decimal digits of the {@code BigDecimal} kernel, a zoom of about 10^30.
+     */
+    public static final int DIGITS = 45;
+
+    @Param({"5", "25", "100"})
+    public int maxSteps;
+
+    private NewtonSolver doubles;
+    private NewtonSolver doubleDouble;
+    private NewtonSolver bigDecimal;
+    private final double[] real = new double[1], imaginary = new double[1];
+    private final int[] results = new int[1];
+
+
+    @Setup
+    public void setUp() {
+        ComplexPolynomial polynomial = new ComplexPolynomial(1, -1, 1, 0, 0, 1);
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        doubles = new NewtonKernel(polynomial, roots);
+        // The extended kernels solve offsets from their center, which is the point
+        doubleDouble = new ExtendedNewtonKernel<>(polynomial, roots,
+                                                  new ExtendedComplex<>(DoubleDouble.valueOf(0.3), DoubleDouble.valueOf(0.7)));
+        bigDecimal = new ExtendedNewtonKernel<>(polynomial, roots,
+                                                new ExtendedComplex<>(new BigReal(new BigDecimal("0.3"), DIGITS),
+                                                                      new BigReal(new BigDecimal("0.7"), DIGITS)));
+    }
+
+
+    @Benchmark
+    public int doubles() {
+        return solve(doubles, 0.3, 0.7);
+    }
+
+    @Benchmark
+    public int doubleDouble() {
+        return solve(doubleDouble, 0, 0);
+    }
+
+    @Benchmark
+    public int bigDecimal() {
+        return solve(bigDecimal, 0, 0);
+    }
+
+    private int solve(NewtonSolver solver, double re, double im) {
+        real[0] = re;
+        imaginary[0] = im;
+        solver.solve(real, imaginary, 1, maxSteps, NewtonKernel.Convergence.FIXED_STEPS, results);
+        return results[0];
+    }
+}
@@ -0,0 +1,63 @@
+package newtonsfractal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering a tile of a polynomial of degree 20 with the newton's method, Halley's and Schroeder's method.
+ * Halley's method needs fewer steps per pixel, each evaluating the second derivative as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IterationMapBenchmark {
+
+    public static final int TILE_SIZE = 64;
+
+    @Param({"NEWTON", "HALLEY", "SCHROEDER"})
+    public IterationMap.Method method;
+
+    private ComplexPolynomial polynomial;
+    private List<ComplexNumber> roots;
+    private TileRenderer tileRenderer;
+    private Viewport viewport;
+    private RootMap rootMap;
+
+
+    @Setup
+    public void setUp() {
+        polynomial = ComplexPolynomial.GENERATE_RANDOM(20);
+        roots = RootFinder.findRoots(polynomial);
+        tileRenderer = new TileRenderer(TILE_SIZE, 1).withIterationMap(new IterationMap(method));
+        viewport = new Viewport(TILE_SIZE, TILE_SIZE);
+        rootMap = new RootMap(TILE_SIZE, TILE_SIZE, roots.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        tileRenderer.shutdown();
+    }
+
+
+    @Benchmark
+    public int renderRows() {
+        tileRenderer.renderRows(polynomial, roots, 100, viewport, rootMap, 0);
+        return rootMap.rootIndex(TILE_SIZE / 2, TILE_SIZE / 2);
+    }
+}
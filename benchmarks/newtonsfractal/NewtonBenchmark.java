@@ -0,0 +1,70 @@
+package newtonsfractal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures applying the newton's method to a single point, with {@code Newton.newtonComplex} on {@code ComplexNumber}s
+ * and with the {@code NewtonKernel} on plain doubles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NewtonBenchmark {
+
+    @Param({"3", "5", "10", "20"})
+    public int degree;
+
+    @Param({"5", "25", "100"})
+    public int maxSteps;
+
+    private ComplexPolynomial polynomial;
+    private NewtonKernel kernel;
+    private final ComplexNumber startPoint = new ComplexNumber();
+    private final double[] point = new double[2];
+
+
+    @Setup
+    public void setUp() {
+        polynomial = ComplexPolynomial.GENERATE_RANDOM(degree);
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        kernel = new NewtonKernel(polynomial, roots);
+    }
+
+
+    @Benchmark
+    public ComplexNumber newtonComplex() {
+        startPoint.setReal(0.3);
+        startPoint.setImaginary(0.7);
+        return Newton.newtonComplex(polynomial, startPoint, maxSteps);
+    }
+
+    @Benchmark
+    public double kernelNewton() {
+        point[0] = 0.3;
+        point[1] = 0.7;
+        return kernel.newton(point, maxSteps) + point[0];
+    }
+
+    @Benchmark
+    public int kernelFindRoot() {
+        point[0] = 0.3;
+        point[1] = 0.7;
+        return kernel.findRoot(point, maxSteps);
+    }
+}
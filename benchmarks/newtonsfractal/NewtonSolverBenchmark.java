@@ -0,0 +1,77 @@
+package newtonsfractal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the backends solving a tile of the default viewport row by row, the way the {@code TileRenderer} calls them.
+ * The solver is created once, so the time to compile the generated class is not part of it.
+ * The forks get the vector module, without it the vector and float backends would fall back to the scalar one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class NewtonSolverBenchmark {
+
+    /**
+     * The width and height of the solved tile.
+     */
+    public static final int TILE_SIZE = 64;
+
+    @Param({"SCALAR", "VECTOR", "FLOAT", "GENERATED"})
+    public NewtonSolver.Backend backend;
+
+    @Param({"3", "5", "10", "20", "30"})
+    public int degree;
+
+    @Param({"EARLY_EXIT", "FIXED_STEPS"})
+    public NewtonKernel.Convergence convergence;
+
+    private NewtonSolver solver;
+    private final double[][] tileReal = new double[TILE_SIZE][TILE_SIZE], tileImaginary = new double[TILE_SIZE][TILE_SIZE];
+    private final double[] real = new double[TILE_SIZE], imaginary = new double[TILE_SIZE];
+    private final int[] results = new int[TILE_SIZE];
+
+
+    @Setup
+    public void setUp() {
+        ComplexPolynomial polynomial = ComplexPolynomial.GENERATE_RANDOM(degree);
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        Viewport viewport = new Viewport(TILE_SIZE, TILE_SIZE);
+        solver = backend.create(new NewtonKernel(polynomial, roots));
+        for (int y = 0; y < TILE_SIZE; y++) {
+            for (int x = 0; x < TILE_SIZE; x++) {
+                tileReal[y][x] = viewport.real(x);
+                tileImaginary[y][x] = viewport.imaginary(y);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public int solveTile() {
+        int sum = 0;
+        for (int y = 0; y < TILE_SIZE; y++) {
+            System.arraycopy(tileReal[y], 0, real, 0, TILE_SIZE);
+            System.arraycopy(tileImaginary[y], 0, imaginary, 0, TILE_SIZE);
+            solver.solve(real, imaginary, TILE_SIZE, 25, convergence, results);
+            sum += results[TILE_SIZE / 2];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,47 @@
+package newtonsfractal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@code RootFinder} with the grid search of {@code Newton.newtonComplex} on a polynomial of degree 50.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RootFinderBenchmark {
+
+    public static final int DEGREE = 50;
+
+    private ComplexPolynomial polynomial;
+
+
+    @Setup
+    public void setUp() {
+        polynomial = ComplexPolynomial.GENERATE_RANDOM(DEGREE);
+    }
+
+
+    @Benchmark
+    public int findRoots() {
+        return RootFinder.findRoots(polynomial).size();
+    }
+
+    @Benchmark
+    public int gridSearch() {
+        return Newton.newtonComplex(polynomial, 500).size();
+    }
+}
@@ -0,0 +1,97 @@
+package newtonsfractal;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares classifying points by looking at every root with the {@code RootGrid}.
+ * Points on the way to a root are tested for capture, the end points of the newton's method are classified by the nearest root.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RootGridBenchmark {
+
+    /**
+     * The number of points classified in turn, a power of two.
+     */
+    public static final int POINTS = 1024;
+
+    @Param({"5", "20", "100"})
+    public int degree;
+
+    private NewtonKernel kernel;
+    private RootGrid grid;
+    private final double[] real = new double[POINTS], imaginary = new double[POINTS];
+    private final double[] endReal = new double[POINTS], endImaginary = new double[POINTS];
+    private int next;
+
+
+    @Setup
+    public void setUp() {
+        ComplexPolynomial polynomial = ComplexPolynomial.GENERATE_RANDOM(degree);
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        kernel = new NewtonKernel(polynomial, roots);
+        double[] rootsReal = new double[roots.size()], rootsImaginary = new double[roots.size()];
+        double[] captureRadiiSquared = new double[roots.size()];
+        for (int i = 0; i < roots.size(); i++) {
+            rootsReal[i] = kernel.rootReal(i);
+            rootsImaginary[i] = kernel.rootImaginary(i);
+            captureRadiiSquared[i] = kernel.captureRadiusSquared(i);
+        }
+        grid = new RootGrid(rootsReal, rootsImaginary, captureRadiiSquared);
+
+        Random random = new Random(degree);
+        double[] z = new double[2];
+        for (int i = 0; i < POINTS; i++) {
+            real[i] = (2 * random.nextDouble() - 1) * Renderer.RANGE;
+            imaginary[i] = (2 * random.nextDouble() - 1) * Renderer.RANGE;
+            z[0] = real[i];
+            z[1] = imaginary[i];
+            kernel.newton(z, 25);
+            endReal[i] = z[0];
+            endImaginary[i] = z[1];
+        }
+    }
+
+
+    @Benchmark
+    public int scanNearestRoot() {
+        int i = next++ & (POINTS - 1);
+        return kernel.scanNearestRoot(endReal[i], endImaginary[i]);
+    }
+
+    @Benchmark
+    public int gridNearestRoot() {
+        int i = next++ & (POINTS - 1);
+        return grid.nearestRoot(endReal[i], endImaginary[i]);
+    }
+
+    @Benchmark
+    public int scanCapturingRoot() {
+        int i = next++ & (POINTS - 1);
+        return kernel.scanCapturingRoot(real[i], imaginary[i]);
+    }
+
+    @Benchmark
+    public int gridCapturingRoot() {
+        int i = next++ & (POINTS - 1);
+        return grid.capturingRoot(real[i], imaginary[i]);
+    }
+}
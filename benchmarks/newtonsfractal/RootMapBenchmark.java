@@ -0,0 +1,49 @@
+package newtonsfractal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures coloring a rendered 2000x2000 image, which is all a cached fractal needs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RootMapBenchmark {
+
+    public static final int SIZE = 2000;
+
+    private final RootMap rootMap = new RootMap(SIZE, SIZE, 5);
+    private final Shading shading = Renderer.generateShading(5, 25);
+    private final int[] pixels = new int[SIZE * SIZE];
+
+
+    @Setup
+    public void setUp() {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                rootMap.set(x, y, (x / 7 + y / 13) % 5, (x ^ y) % 26);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public int colorize() {
+        rootMap.colorize(shading, pixels);
+        return pixels[SIZE / 2];
+    }
+}
@@ -0,0 +1,65 @@
+package newtonsfractal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering a whole tile of the default viewport on one thread, the per-pixel loop of every render.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TileRendererBenchmark {
+
+    /**
+     * The width and height of the rendered tile.
+     */
+    public static final int TILE_SIZE = 64;
+
+    @Param({"3", "5", "10", "20"})
+    public int degree;
+
+    private ComplexPolynomial polynomial;
+    private List<ComplexNumber> roots;
+    private TileRenderer tileRenderer;
+    private Viewport viewport;
+    private RootMap rootMap;
+
+
+    @Setup
+    public void setUp() {
+        polynomial = ComplexPolynomial.GENERATE_RANDOM(degree);
+        roots = RootFinder.findRoots(polynomial);
+        tileRenderer = new TileRenderer(TILE_SIZE, 1);
+        viewport = new Viewport(TILE_SIZE, TILE_SIZE);
+        rootMap = new RootMap(TILE_SIZE, TILE_SIZE, roots.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        tileRenderer.shutdown();
+    }
+
+
+    @Benchmark
+    public int renderRows() {
+        tileRenderer.renderRows(polynomial, roots, 25, viewport, rootMap, 0);
+        return rootMap.rootIndex(TILE_SIZE / 2, TILE_SIZE / 2);
+    }
+}
@@ -0,0 +1,370 @@
+package newtonsfractal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Applies the newton's method to several start points at once in floats, which fit twice as many points into a SIMD register
+ * as the doubles of {@link VectorNewtonKernel}.
+ * <p>
+ * Along with every point it tracks a bound of how far the float point may be from the double point of {@link NewtonKernel}:
+ * the rounding errors of every step, estimated from the horner scheme on the absolute values of the coefficients,
+ * plus the error of the previous step multiplied with the derivative of the newton map {@code |p(z)p''(z)/p'(z)^2|}.
+ * A point whose capture radius, stopping threshold or nearest root lies within this bound is uncertain, it stops in floats
+ * and is solved again in doubles, as is every point that does not converge. These are mostly the points near the boundaries
+ * of the basins, where the newton map spreads neighbouring points apart. All other points get the same root and number of
+ * iterations as in doubles, as far as the bound, which is an estimate of the first order, holds.
+ * {@code VectorFloatNewtonKernelTest} checks that no pixel of the polynomials of {@code Renderer.render} differs. The end points of the points finished in floats are only as precise as floats.
+ * <p>
+ * Needs the {@code jdk.incubator.vector} module, see {@link VectorNewtonKernel}.
+ * {@link NewtonSolver.Backend#FLOAT} loads this class by name.
+ */
+public class VectorFloatNewtonKernel implements NewtonSolver {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * The relative error of rounding to a float.
+     */
+    private static final float UNIT_ROUNDOFF = 0x1p-24f;
+
+    /**
+     * The factor the estimated rounding errors of a step are multiplied with.
+     */
+    private static final float ERROR_SAFETY = 4;
+
+    /**
+     * The largest error bound relative to the smallest capture radius up to which a point is solved in floats,
+     * beyond it the bound of the first order is not reliable any more.
+     */
+    private static final float MAX_ERROR_FACTOR = 0.1f;
+
+    /**
+     * The largest {@code |p'(z)|^2} at which a step is solved again in doubles, as it may round to 0 in floats.
+     */
+    private static final float MIN_DENOMINATOR = 1e-30f;
+
+    /**
+     * The root of a lane that has to be solved again in doubles.
+     */
+    private static final int UNCERTAIN = -2;
+
+
+    private final NewtonKernel kernel;
+    private final NewtonSolver fallback;
+
+    private final float[] coefficients;
+    private final float[] absoluteCoefficients;
+    private final float[] rootsReal;
+    private final float[] rootsImaginary;
+    private final float[] captureRadii;
+    private final float[] captureRadiiSquared;
+
+    /**
+     * The rounding error of a horner scheme relative to the horner scheme on the absolute values.
+     */
+    private final float hornerError;
+    /**
+     * The rounding error of the distance between a point and a root, without the part of the point.
+     */
+    private final float rootError;
+    private final float maxError;
+
+    private final LongAdder solvedPoints = new LongAdder();
+    private final LongAdder recomputedPoints = new LongAdder();
+
+
+    /**
+     * Constructs a {@code VectorFloatNewtonKernel}.
+     * @param kernel the scalar kernel of the polynomial, which has to apply the plain newton's method to real coefficients
+     * @throws IllegalArgumentException if the kernel applies another map or has complex coefficients
+     */
+    public VectorFloatNewtonKernel(NewtonKernel kernel) {
+        if(!kernel.isPlainNewton()) {
+            throw new IllegalArgumentException("only the plain newton's method on real coefficients can be solved in floats");
+        }
+        this.kernel = kernel;
+        this.fallback = new VectorNewtonKernel(kernel);
+
+        double[] coefficients = kernel.coefficients();
+        this.coefficients = new float[coefficients.length];
+        this.absoluteCoefficients = new float[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            this.coefficients[i] = (float) coefficients[i];
+            absoluteCoefficients[i] = Math.abs(this.coefficients[i]);
+        }
+
+        int rootCount = kernel.rootCount();
+        this.rootsReal = new float[rootCount];
+        this.rootsImaginary = new float[rootCount];
+        this.captureRadii = new float[rootCount];
+        this.captureRadiiSquared = new float[rootCount];
+        double largestRoot = 0, largestRadius = 0, smallestRadius = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < rootCount; i++) {
+            rootsReal[i] = (float) kernel.rootReal(i);
+            rootsImaginary[i] = (float) kernel.rootImaginary(i);
+            captureRadiiSquared[i] = (float) kernel.captureRadiusSquared(i);
+            captureRadii[i] = (float) Math.sqrt(kernel.captureRadiusSquared(i));
+            largestRoot = Math.max(largestRoot, Math.hypot(kernel.rootReal(i), kernel.rootImaginary(i)));
+            largestRadius = Math.max(largestRadius, captureRadii[i]);
+            smallestRadius = Math.min(smallestRadius, captureRadii[i]);
+        }
+
+        // Every coefficient adds a multiplication and an addition, and the coefficients were rounded to floats
+        this.hornerError = ERROR_SAFETY * (2 * coefficients.length + 1) * UNIT_ROUNDOFF;
+        this.rootError = ERROR_SAFETY * UNIT_ROUNDOFF * (float) (largestRoot + largestRadius);
+        this.maxError = MAX_ERROR_FACTOR * (float) smallestRadius;
+    }
+
+
+    /**
+     * @return the number of points solved at once
+     */
+    public static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * @return the number of points this kernel has solved so far
+     */
+    public long solvedPoints() {
+        return solvedPoints.sum();
+    }
+
+    /**
+     * @return the number of points this kernel has solved again in doubles so far
+     */
+    public long recomputedPoints() {
+        return recomputedPoints.sum();
+    }
+
+
+    @Override
+    public void solve(double[] real, double[] imaginary, int count, int maxIterations, NewtonKernel.Convergence convergence, int[] results) {
+        int lanes = SPECIES.length();
+        int vectorCount = SPECIES.loopBound(count);
+
+        float[] laneReal = new float[lanes], laneImaginary = new float[lanes];
+        float[] iterations = new float[lanes], roots = new float[lanes], errors = new float[lanes];
+
+        // The uncertain points and those that do not fill a whole register are solved again in doubles
+        int[] recompute = new int[count];
+        int recomputeCount = 0;
+
+        for (int offset = 0; offset < vectorCount; offset += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                laneReal[lane] = (float) real[offset + lane];
+                laneImaginary[lane] = (float) imaginary[offset + lane];
+            }
+            solveLanes(laneReal, laneImaginary, maxIterations, convergence == NewtonKernel.Convergence.EARLY_EXIT,
+                       iterations, roots, errors);
+
+            for (int lane = 0; lane < lanes; lane++) {
+                int root = (int) roots[lane];
+                if(root == TileRenderer.NO_ROOT) {
+                    root = certainNearestRoot(laneReal[lane], laneImaginary[lane], errors[lane]);
+                }
+                if(root == UNCERTAIN) {
+                    recompute[recomputeCount++] = offset + lane;
+                    continue;
+                }
+                real[offset + lane] = laneReal[lane];
+                imaginary[offset + lane] = laneImaginary[lane];
+                results[offset + lane] = NewtonKernel.result(root, (int) iterations[lane]);
+            }
+        }
+        for (int i = vectorCount; i < count; i++) {
+            recompute[recomputeCount++] = i;
+        }
+
+        if(recomputeCount > 0) {
+            double[] recomputeReal = new double[recomputeCount], recomputeImaginary = new double[recomputeCount];
+            int[] recomputeResults = new int[recomputeCount];
+            for (int i = 0; i < recomputeCount; i++) {
+                recomputeReal[i] = real[recompute[i]];
+                recomputeImaginary[i] = imaginary[recompute[i]];
+            }
+            fallback.solve(recomputeReal, recomputeImaginary, recomputeCount, maxIterations, convergence, recomputeResults);
+            for (int i = 0; i < recomputeCount; i++) {
+                real[recompute[i]] = recomputeReal[i];
+                imaginary[recompute[i]] = recomputeImaginary[i];
+                results[recompute[i]] = recomputeResults[i];
+            }
+        }
+        solvedPoints.add(count);
+        recomputedPoints.add(recomputeCount);
+    }
+
+
+    /**
+     * Applies the newton's method to the points of one register in floats, stopping like {@link VectorNewtonKernel}.
+     * Lanes become uncertain and stop as soon as a decision of the double kernel might go the other way.
+     * @param real the real parts of the start points, overwritten with the end points
+     * @param imaginary the imaginary parts of the start points, overwritten with the end points
+     * @param earlyExit whether to stop like {@link NewtonKernel#findRoot(double[], int)} or like {@link NewtonKernel#newton(double[], int)}
+     * @param iterations receives the number of iterations of every lane
+     * @param roots receives the index of the capturing root of every lane, {@link TileRenderer#NO_ROOT}
+     *              or {@link #UNCERTAIN} if the lane has to be solved again in doubles
+     * @param errors receives the bound of the distance between the end point of every lane and the end point in doubles
+     */
+    private void solveLanes(float[] real, float[] imaginary, int maxIterations, boolean earlyExit,
+                            float[] iterations, float[] roots, float[] errors) {
+        FloatVector re = FloatVector.fromArray(SPECIES, real, 0);
+        FloatVector im = FloatVector.fromArray(SPECIES, imaginary, 0);
+        FloatVector iteration = FloatVector.zero(SPECIES);
+        FloatVector root = FloatVector.broadcast(SPECIES, TileRenderer.NO_ROOT);
+        // The bounds of the errors take |re| + |im| for most absolute values, which saves square roots and is at most sqrt(2) too large,
+        // but not for |z|, whose powers the horner scheme on the absolute values would raise too
+        FloatVector absoluteZ = re.mul(re).add(im.mul(im)).lanewise(VectorOperators.SQRT);
+        // Rounding the start points to floats
+        FloatVector error = absoluteZ.mul(UNIT_ROUNDOFF);
+
+        float epsilon = (float) Newton.EPSILON;
+        float epsilonSquared = epsilon * epsilon;
+        VectorMask<Float> active = SPECIES.maskAll(true);
+
+        for (int step = 0; step < maxIterations && active.anyTrue(); step++) {
+            // How far the distances computed in floats may be from those in doubles
+            FloatVector margin = error.add(absoluteZ.mul(ERROR_SAFETY * UNIT_ROUNDOFF)).add(rootError);
+
+            if(earlyExit) {
+                FloatVector marginSquared = margin.mul(margin);
+                for (int i = 0; i < rootsReal.length; i++) {
+                    FloatVector dRe = FloatVector.broadcast(SPECIES, rootsReal[i]).sub(re);
+                    FloatVector dIm = FloatVector.broadcast(SPECIES, rootsImaginary[i]).sub(im);
+                    FloatVector distanceSquared = dRe.mul(dRe).add(dIm.mul(dIm));
+                    // |d - r| < margin implies |d^2 - r^2| < margin * (2r + margin)
+                    VectorMask<Float> near = distanceSquared.sub(captureRadiiSquared[i]).abs()
+                                                            .lt(margin.mul(2 * captureRadii[i]).add(marginSquared)).and(active);
+                    root = root.blend(UNCERTAIN, near);
+                    active = active.andNot(near);
+
+                    VectorMask<Float> captured = distanceSquared.lt(captureRadiiSquared[i]).and(active);
+                    root = root.blend(i, captured);
+                    active = active.andNot(captured);
+                }
+                if(!active.anyTrue()) {
+                    break;
+                }
+            }
+
+            // p(z), p'(z) and p''(z) / 2 in a single pass of the horner scheme, and p and p' on |z| and |a_i| for their rounding errors
+            FloatVector valueRe = FloatVector.zero(SPECIES), valueIm = FloatVector.zero(SPECIES);
+            FloatVector slopeRe = FloatVector.zero(SPECIES), slopeIm = FloatVector.zero(SPECIES);
+            FloatVector curvatureRe = FloatVector.zero(SPECIES), curvatureIm = FloatVector.zero(SPECIES);
+            FloatVector absoluteValue = FloatVector.zero(SPECIES), absoluteSlope = FloatVector.zero(SPECIES);
+            for (int i = coefficients.length - 1; i >= 0; i--) {
+                FloatVector tempRe = curvatureRe.mul(re).sub(curvatureIm.mul(im)).add(slopeRe);
+                curvatureIm = curvatureRe.mul(im).add(curvatureIm.mul(re)).add(slopeIm);
+                curvatureRe = tempRe;
+
+                tempRe = slopeRe.mul(re).sub(slopeIm.mul(im)).add(valueRe);
+                slopeIm = slopeRe.mul(im).add(slopeIm.mul(re)).add(valueIm);
+                slopeRe = tempRe;
+
+                tempRe = valueRe.mul(re).sub(valueIm.mul(im)).add(coefficients[i]);
+                valueIm = valueRe.mul(im).add(valueIm.mul(re));
+                valueRe = tempRe;
+
+                absoluteSlope = absoluteSlope.mul(absoluteZ).add(absoluteValue);
+                absoluteValue = absoluteValue.mul(absoluteZ).add(absoluteCoefficients[i]);
+            }
+
+            FloatVector valueSquared = valueRe.mul(valueRe).add(valueIm.mul(valueIm));
+            FloatVector denominator = slopeRe.mul(slopeRe).add(slopeIm.mul(slopeIm));
+            FloatVector inverseDenominator = FloatVector.broadcast(SPECIES, 1).div(denominator);
+            FloatVector absoluteSlopeP = slopeRe.abs().add(slopeIm.abs());
+            // 1/|p'(z)| = |p'(z)|/|p'(z)|^2
+            FloatVector inverseSlope = absoluteSlopeP.mul(inverseDenominator);
+            FloatVector valueError = absoluteValue.mul(hornerError);
+
+            if(earlyExit) {
+                VectorMask<Float> near = near(valueSquared, epsilon, valueError.add(absoluteSlopeP.mul(error))).and(active);
+                root = root.blend(UNCERTAIN, near);
+                active = active.andNot(near.or(valueSquared.lt(epsilonSquared)));
+            }
+
+            FloatVector quotientRe = valueRe.mul(slopeRe).add(valueIm.mul(slopeIm)).mul(inverseDenominator);
+            FloatVector quotientIm = valueIm.mul(slopeRe).sub(valueRe.mul(slopeIm)).mul(inverseDenominator);
+            FloatVector absoluteQuotient = quotientRe.abs().add(quotientIm.abs());
+
+            // |N'(z)| = |p(z)p''(z)| / |p'(z)|^2, how much the step spreads the points in floats and doubles apart.
+            // Multiplied with the error in every step, it has to be exact
+            FloatVector curvatureSquared = curvatureRe.mul(curvatureRe).add(curvatureIm.mul(curvatureIm));
+            FloatVector growth = valueSquared.mul(curvatureSquared).lanewise(VectorOperators.SQRT).mul(inverseDenominator).mul(2);
+            FloatVector stepError = valueError.add(absoluteQuotient.mul(absoluteSlope).mul(hornerError)).mul(inverseSlope)
+                                              .add(absoluteQuotient.add(absoluteZ).mul(ERROR_SAFETY * UNIT_ROUNDOFF));
+
+            re = re.blend(re.sub(quotientRe), active);
+            im = im.blend(im.sub(quotientIm), active);
+            iteration = iteration.blend(iteration.add(1), active);
+            absoluteZ = re.mul(re).add(im.mul(im)).lanewise(VectorOperators.SQRT);
+            FloatVector nextError = growth.mul(error).add(stepError);
+
+            VectorMask<Float> near;
+            VectorMask<Float> stopped;
+            if(earlyExit) {
+                // The step itself differs by the errors of both points
+                FloatVector quotientSquared = quotientRe.mul(quotientRe).add(quotientIm.mul(quotientIm));
+                near = near(quotientSquared, epsilon, error.add(nextError));
+                stopped = quotientSquared.lt(epsilonSquared);
+            }else {
+                FloatVector squared = re.mul(re).add(im.mul(im));
+                near = near(squared, epsilon, nextError.add(absoluteZ.mul(ERROR_SAFETY * UNIT_ROUNDOFF)));
+                stopped = squared.lt(epsilonSquared);
+            }
+            error = error.blend(nextError, active);
+            // Where p'(z) is about 0 the double kernel takes a huge step or nudges the slope, the comparison also catches NaN
+            near = near.or(denominator.lt(MIN_DENOMINATOR)).or(error.lt(maxError).not()).and(active);
+            root = root.blend(UNCERTAIN, near);
+            active = active.andNot(near.or(stopped));
+        }
+
+        re.intoArray(real, 0);
+        im.intoArray(imaginary, 0);
+        iteration.intoArray(iterations, 0);
+        root.intoArray(roots, 0);
+        error.intoArray(errors, 0);
+    }
+
+
+    /**
+     * @param squared the squares of the absolute values of some numbers in floats
+     * @param threshold the value they are compared with
+     * @param margin the bounds of the distances between the absolute values in floats and in doubles
+     * @return whether the absolute value in doubles might lie on the other side of the threshold than in floats
+     */
+    private static VectorMask<Float> near(FloatVector squared, float threshold, FloatVector margin) {
+        FloatVector below = margin.neg().add(threshold).max(0);
+        FloatVector above = margin.add(threshold);
+        return squared.compare(VectorOperators.GT, below.mul(below)).and(squared.lt(above.mul(above)));
+    }
+
+
+    /**
+     * Finds the root that is closest to an end point in floats, if the end point in doubles is certainly closest to it too.
+     * @param error the bound of the distance between both end points
+     * @return the index of the nearest root, or {@link #UNCERTAIN} if the second nearest root might be nearer in doubles
+     */
+    private int certainNearestRoot(float re, float im, float error) {
+        int nearest = TileRenderer.NO_ROOT;
+        double nearestDistance = Double.POSITIVE_INFINITY, secondDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < rootsReal.length; i++) {
+            double dRe = kernel.rootReal(i) - re;
+            double dIm = kernel.rootImaginary(i) - im;
+            double distance = dRe * dRe + dIm * dIm;
+            if(distance < nearestDistance) {
+                secondDistance = nearestDistance;
+                nearest = i;
+                nearestDistance = distance;
+            }else if(distance < secondDistance) {
+                secondDistance = distance;
+            }
+        }
+        return Math.sqrt(secondDistance) - Math.sqrt(nearestDistance) > 2 * error ? nearest : UNCERTAIN;
+    }
+}
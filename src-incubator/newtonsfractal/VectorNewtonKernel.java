@@ -0,0 +1,162 @@
+package newtonsfractal;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Applies the newton's method to several start points at once, one point per lane of a SIMD register.
+ * Every lane computes exactly the same steps as {@link NewtonKernel#solve(double[], int, NewtonKernel.Convergence)},
+ * lanes that have stopped are masked out until all lanes of the register have stopped.
+ * <p>
+ * Needs the {@code jdk.incubator.vector} module, compile and run with {@code --add-modules jdk.incubator.vector}.
+ * {@link NewtonSolver.Backend#VECTOR} loads this class by name, so the rest of the renderer builds without the module.
+ */
+public class VectorNewtonKernel implements NewtonSolver {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+
+    private final NewtonKernel kernel;
+
+    private final double[] coefficients;
+    private final double[] rootsReal;
+    private final double[] rootsImaginary;
+    private final double[] captureRadiiSquared;
+
+
+    /**
+     * Constructs a {@code VectorNewtonKernel}.
+     * @param kernel the scalar kernel of the polynomial, used for the points that do not fill a whole register
+     */
+    public VectorNewtonKernel(NewtonKernel kernel) {
+        this.kernel = kernel;
+        this.coefficients = kernel.coefficients();
+
+        int rootCount = kernel.rootCount();
+        this.rootsReal = new double[rootCount];
+        this.rootsImaginary = new double[rootCount];
+        this.captureRadiiSquared = new double[rootCount];
+        for (int i = 0; i < rootCount; i++) {
+            rootsReal[i] = kernel.rootReal(i);
+            rootsImaginary[i] = kernel.rootImaginary(i);
+            captureRadiiSquared[i] = kernel.captureRadiusSquared(i);
+        }
+    }
+
+
+    /**
+     * @return the number of points solved at once
+     */
+    public static int lanes() {
+        return SPECIES.length();
+    }
+
+
+    @Override
+    public void solve(double[] real, double[] imaginary, int count, int maxIterations, NewtonKernel.Convergence convergence, int[] results) {
+        int lanes = SPECIES.length();
+        int vectorCount = SPECIES.loopBound(count);
+
+        double[] iterations = new double[lanes];
+        double[] roots = new double[lanes];
+
+        for (int offset = 0; offset < vectorCount; offset += lanes) {
+            solveLanes(real, imaginary, offset, maxIterations, convergence == NewtonKernel.Convergence.EARLY_EXIT, iterations, roots);
+
+            for (int lane = 0; lane < lanes; lane++) {
+                int root = (int) roots[lane];
+                if(root == TileRenderer.NO_ROOT) {
+                    root = kernel.nearestRoot(real[offset + lane], imaginary[offset + lane]);
+                }
+                results[offset + lane] = NewtonKernel.result(root, (int) iterations[lane]);
+            }
+        }
+
+        // The points that do not fill a whole register
+        double[] z = new double[2];
+        for (int i = vectorCount; i < count; i++) {
+            z[0] = real[i];
+            z[1] = imaginary[i];
+            results[i] = kernel.solve(z, maxIterations, convergence);
+            real[i] = z[0];
+            imaginary[i] = z[1];
+        }
+    }
+
+
+    /**
+     * Applies the newton's method to the points of one register.
+     * @param earlyExit whether to stop like {@link NewtonKernel#findRoot(double[], int)} or like {@link NewtonKernel#newton(double[], int)}
+     * @param iterations receives the number of iterations of every lane
+     * @param roots receives the index of the capturing root of every lane, or {@link TileRenderer#NO_ROOT}
+     */
+    private void solveLanes(double[] real, double[] imaginary, int offset, int maxIterations, boolean earlyExit,
+                            double[] iterations, double[] roots) {
+        DoubleVector re = DoubleVector.fromArray(SPECIES, real, offset);
+        DoubleVector im = DoubleVector.fromArray(SPECIES, imaginary, offset);
+        DoubleVector iteration = DoubleVector.zero(SPECIES);
+        DoubleVector root = DoubleVector.broadcast(SPECIES, TileRenderer.NO_ROOT);
+
+        double epsilonSquared = Newton.EPSILON * Newton.EPSILON;
+        VectorMask<Double> active = SPECIES.maskAll(true);
+
+        for (int step = 0; step < maxIterations && active.anyTrue(); step++) {
+            if(earlyExit) {
+                for (int i = 0; i < rootsReal.length; i++) {
+                    DoubleVector dRe = DoubleVector.broadcast(SPECIES, rootsReal[i]).sub(re);
+                    DoubleVector dIm = DoubleVector.broadcast(SPECIES, rootsImaginary[i]).sub(im);
+                    VectorMask<Double> captured = dRe.mul(dRe).add(dIm.mul(dIm)).lt(captureRadiiSquared[i]).and(active);
+                    root = root.blend(i, captured);
+                    active = active.andNot(captured);
+                }
+                if(!active.anyTrue()) {
+                    break;
+                }
+            }
+
+            // p(z) and p'(z) in a single pass of the horner scheme
+            DoubleVector valueRe = DoubleVector.zero(SPECIES), valueIm = DoubleVector.zero(SPECIES);
+            DoubleVector slopeRe = DoubleVector.zero(SPECIES), slopeIm = DoubleVector.zero(SPECIES);
+            for (int i = coefficients.length - 1; i >= 0; i--) {
+                DoubleVector tempRe = slopeRe.mul(re).sub(slopeIm.mul(im)).add(valueRe);
+                slopeIm = slopeRe.mul(im).add(slopeIm.mul(re)).add(valueIm);
+                slopeRe = tempRe;
+
+                tempRe = valueRe.mul(re).sub(valueIm.mul(im)).add(coefficients[i]);
+                valueIm = valueRe.mul(im).add(valueIm.mul(re));
+                valueRe = tempRe;
+            }
+
+            if(earlyExit) {
+                active = active.andNot(valueRe.mul(valueRe).add(valueIm.mul(valueIm)).lt(epsilonSquared));
+            }
+
+            // Fixing the issue when the slope at a given point is 0 and therefore would lead to a division by zero
+            VectorMask<Double> zeroSlope = slopeRe.eq(0).and(slopeIm.eq(0));
+            slopeRe = slopeRe.blend(Double.MIN_VALUE, zeroSlope);
+            slopeIm = slopeIm.blend(Double.MIN_VALUE, zeroSlope);
+
+            DoubleVector conjIm = slopeIm.neg();
+            DoubleVector denominator = slopeRe.mul(slopeRe).sub(slopeIm.mul(conjIm));
+            DoubleVector quotientRe = valueRe.mul(slopeRe).sub(valueIm.mul(conjIm)).div(denominator);
+            DoubleVector quotientIm = valueIm.mul(slopeRe).add(valueRe.mul(conjIm)).div(denominator);
+
+            re = re.blend(re.sub(quotientRe), active);
+            im = im.blend(im.sub(quotientIm), active);
+            iteration = iteration.blend(iteration.add(1), active);
+
+            if(earlyExit) {
+                active = active.andNot(quotientRe.mul(quotientRe).add(quotientIm.mul(quotientIm)).lt(epsilonSquared));
+            }else {
+                active = active.andNot(re.mul(re).add(im.mul(im)).lanewise(VectorOperators.SQRT).lt(Newton.EPSILON));
+            }
+        }
+
+        re.intoArray(real, offset);
+        im.intoArray(imaginary, offset);
+        iteration.intoArray(iterations, 0);
+        root.intoArray(roots, 0);
+    }
+}
@@ -0,0 +1,437 @@
+package newtonsfractal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Renders a list of fractals into PNG files from the command line, without opening a window.
+ * <p>
+ * Usage: {@code java newtonsfractal.BatchRenderer [options] <job file>}
+ * <p>
+ * Every non-empty line of the job file which does not start with {@code #} describes one image
+ * with space separated {@code key=value} pairs:
+ * <pre>
+ * polynomial=1,-1,1,0,0,1 size=2000x2000 iterations=25 center=0,0 range=2.5 output=images/fractal.png
+ * </pre>
+ * The coefficients of {@code polynomial} start at x^0 and may be complex like {@code 1-2i}, {@code random=<degree>} can be used instead.
+ * {@code center} and {@code range} are optional, as are {@code method=newton|halley|schroeder}, {@code relaxation=<re>,<im>}
+ * and {@code nova=<re>,<im>}, the start point of a nova map, which together give the {@link IterationMap} of the image.
+ * <p>
+ * Options:
+ * <pre>
+ * --jobs &lt;n&gt;          number of images rendered at the same time (default 2)
+ * --threads &lt;n&gt;       number of threads rendering tiles (default all processors)
+ * --tile-size &lt;n&gt;     width and height of a tile in pixels (default 64)
+ * --band-height &lt;n&gt;   number of rows held in memory per image (default 256)
+ * --memory &lt;MB&gt;       memory the images rendered at the same time may use together (default half the heap)
+ * --backend &lt;name&gt;    scalar, vector, float or generated (default scalar)
+ * --convergence &lt;name&gt; early_exit or fixed_steps (default early_exit)
+ * --mode &lt;name&gt;       full or adaptive (default full)
+ * --antialias          smooth the boundaries between the basins of the roots
+ * --shading &lt;name&gt;    flat or iterations, which darkens pixels the more iterations they needed (default flat)
+ * --metrics            write the metrics of every image next to it, into {@code <output>.metrics.json}
+ * </pre>
+ * The metrics of all images together can be watched over JMX as {@code NewtonsFractal:type=RenderMetrics,name=BatchRenderer}.
+ */
+public class BatchRenderer {
+
+    public static final int DEFAULT_JOBS = 2;
+    public static final int DEFAULT_BAND_HEIGHT = 256;
+
+
+    private final TileRenderer tileRenderer;
+    private final int bandHeight;
+    private final int jobs;
+    private final long memoryBudget;
+    private final boolean antialias;
+    private final Shading.Style shading;
+    private final boolean writeMetrics;
+
+
+    /**
+     * Constructs a {@code BatchRenderer}.
+     * @param tileRenderer the {@code TileRenderer} shared by all jobs
+     * @param bandHeight the number of rows of an image held in memory at once
+     * @param jobs the number of images rendered at the same time
+     * @param memoryBudget the number of bytes the images rendered at the same time may use together
+     */
+    public BatchRenderer(TileRenderer tileRenderer, int bandHeight, int jobs, long memoryBudget) {
+        this(tileRenderer, bandHeight, jobs, memoryBudget, false);
+    }
+
+    /**
+     * Constructs a {@code BatchRenderer}.
+     * @param tileRenderer the {@code TileRenderer} shared by all jobs
+     * @param bandHeight the number of rows of an image held in memory at once
+     * @param jobs the number of images rendered at the same time
+     * @param memoryBudget the number of bytes the images rendered at the same time may use together
+     * @param antialias whether the boundaries between the basins of the roots are smoothed
+     */
+    public BatchRenderer(TileRenderer tileRenderer, int bandHeight, int jobs, long memoryBudget, boolean antialias) {
+        this(tileRenderer, bandHeight, jobs, memoryBudget, antialias, Shading.Style.FLAT);
+    }
+
+    /**
+     * Constructs a {@code BatchRenderer}.
+     * @param tileRenderer the {@code TileRenderer} shared by all jobs
+     * @param bandHeight the number of rows of an image held in memory at once
+     * @param jobs the number of images rendered at the same time
+     * @param memoryBudget the number of bytes the images rendered at the same time may use together
+     * @param antialias whether the boundaries between the basins of the roots are smoothed
+     * @param shading whether the pixels are darkened by the number of iterations they needed
+     */
+    public BatchRenderer(TileRenderer tileRenderer, int bandHeight, int jobs, long memoryBudget, boolean antialias, Shading.Style shading) {
+        this(tileRenderer, bandHeight, jobs, memoryBudget, antialias, shading, false);
+    }
+
+    /**
+     * Constructs a {@code BatchRenderer}.
+     * @param tileRenderer the {@code TileRenderer} shared by all jobs
+     * @param bandHeight the number of rows of an image held in memory at once
+     * @param jobs the number of images rendered at the same time
+     * @param memoryBudget the number of bytes the images rendered at the same time may use together
+     * @param antialias whether the boundaries between the basins of the roots are smoothed
+     * @param shading whether the pixels are darkened by the number of iterations they needed
+     * @param writeMetrics whether the {@link RenderMetrics} of every image are written next to it as JSON,
+     *                     see {@link #metricsPath(Path)}
+     */
+    public BatchRenderer(TileRenderer tileRenderer, int bandHeight, int jobs, long memoryBudget, boolean antialias, Shading.Style shading,
+                         boolean writeMetrics) {
+        if(bandHeight < 1 || jobs < 1 || memoryBudget < 1) {
+            throw new IllegalArgumentException("bandHeight, jobs and memoryBudget must be positive");
+        }
+        this.tileRenderer = tileRenderer;
+        this.bandHeight = bandHeight;
+        this.jobs = jobs;
+        this.memoryBudget = memoryBudget;
+        this.antialias = antialias;
+        this.shading = shading;
+        this.writeMetrics = writeMetrics;
+    }
+
+
+    /**
+     * Renders all jobs.
+     * A job only starts once the memory it needs fits into the budget next to the jobs already running,
+     * a job needing more than the whole budget runs alone.
+     * @param jobList the jobs to render
+     * @return the number of jobs that failed
+     * @throws InterruptedException if the thread is interrupted while waiting for the jobs
+     */
+    public int render(List<Job> jobList) throws InterruptedException {
+        // Memory is counted in kilobytes, so that the permits fit into an int
+        int budget = (int) Math.min(memoryBudget / 1024, Integer.MAX_VALUE);
+        Semaphore memory = new Semaphore(budget);
+
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Job job : jobList) {
+                int permits = (int) Math.min(Math.max(job.memory(bandHeight) / 1024, 1), budget);
+                memory.acquire(permits);
+                futures.add(executor.submit(() -> {
+                    try {
+                        long start = System.nanoTime();
+                        // Every job gets its own metrics, which also count into those of the shared renderer
+                        RenderMetrics metrics = new RenderMetrics(tileRenderer.metrics());
+                        Renderer.writeNewtonsFractal(job.output, job.polynomial, job.iterations, job.viewport, bandHeight,
+                                                     tileRenderer.withMetrics(metrics).withIterationMap(job.iterationMap), antialias, shading);
+                        System.out.printf("%s finished in %.1f s%n", job.output, (System.nanoTime() - start) / 1e9);
+                        if(writeMetrics) {
+                            Files.write(metricsPath(job.output), metrics.toJson().getBytes(StandardCharsets.UTF_8));
+                        }
+                    } finally {
+                        memory.release(permits);
+                    }
+                    return null;
+                }));
+            }
+
+            int failed = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (Exception e) {
+                    System.err.println("Job " + (i + 1) + " (" + jobList.get(i).output + ") failed:");
+                    e.printStackTrace();
+                    failed++;
+                }
+            }
+            return failed;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    /**
+     * @param output the PNG file of a job
+     * @return the file the metrics of the job are written to, the name of the PNG file followed by {@code .metrics.json}
+     */
+    public static Path metricsPath(Path output) {
+        return output.resolveSibling(output.getFileName() + ".metrics.json");
+    }
+
+
+    /**
+     * Reads a job file.
+     * @param path the job file
+     * @return the jobs in the order of the file
+     * @throws IOException if the file can not be read
+     * @throws IllegalArgumentException if a line is not a valid job
+     */
+    public static List<Job> readJobs(Path path) throws IOException {
+        List<Job> jobList = new ArrayList<>();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if(line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                jobList.add(Job.parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(path + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return jobList;
+    }
+
+
+
+    /**
+     * One image to render.
+     */
+    public static class Job {
+        private final ComplexPolynomial polynomial;
+        private final int iterations;
+        private final Viewport viewport;
+        private final Path output;
+        private final IterationMap iterationMap;
+
+        /**
+         * Constructs a {@code Job} rendered with the plain newton's method.
+         * @param polynomial the polynomial the fractal will be based on
+         * @param iterations the maximum number that the newton's method will be applied to a pixel
+         * @param viewport the part of the complex plane the image shows
+         * @param output the PNG file to write
+         */
+        public Job(ComplexPolynomial polynomial, int iterations, Viewport viewport, Path output) {
+            this(polynomial, iterations, viewport, output, IterationMap.NEWTON);
+        }
+
+        /**
+         * Constructs a {@code Job}.
+         * @param polynomial the polynomial the fractal will be based on
+         * @param iterations the maximum number that the map will be applied to a pixel
+         * @param viewport the part of the complex plane the image shows
+         * @param output the PNG file to write
+         * @param iterationMap the map applied to a pixel in every step
+         */
+        public Job(ComplexPolynomial polynomial, int iterations, Viewport viewport, Path output, IterationMap iterationMap) {
+            this.polynomial = polynomial;
+            this.iterations = iterations;
+            this.viewport = viewport;
+            this.output = output;
+            this.iterationMap = iterationMap;
+        }
+
+
+        /**
+         * @return the polynomial the fractal will be based on
+         */
+        public ComplexPolynomial polynomial() {
+            return polynomial;
+        }
+
+        /**
+         * @return the maximum number that the map will be applied to a pixel
+         */
+        public int iterations() {
+            return iterations;
+        }
+
+        /**
+         * @return the part of the complex plane the image shows
+         */
+        public Viewport viewport() {
+            return viewport;
+        }
+
+        /**
+         * @return the PNG file to write
+         */
+        public Path output() {
+            return output;
+        }
+
+        /**
+         * @return the map applied to a pixel in every step
+         */
+        public IterationMap iterationMap() {
+            return iterationMap;
+        }
+
+
+        /**
+         * Parses one line of a job file.
+         * @param line the space separated {@code key=value} pairs
+         * @return the described job
+         * @throws IllegalArgumentException if a value is missing or invalid
+         */
+        public static Job parse(String line) {
+            ComplexPolynomial polynomial = null;
+            int iterations = -1, width = -1, height = -1;
+            BigDecimal centerReal = BigDecimal.ZERO, centerImaginary = BigDecimal.ZERO;
+            double range = Renderer.RANGE;
+            Path output = null;
+            IterationMap.Method method = IterationMap.Method.NEWTON;
+            double[] relaxation = {1, 0};
+            double[] nova = null;
+
+            for (String pair : line.trim().split("\\s+")) {
+                int separator = pair.indexOf('=');
+                if(separator < 0) {
+                    throw new IllegalArgumentException("expected key=value, found '" + pair + "'");
+                }
+                String key = pair.substring(0, separator);
+                String value = pair.substring(separator + 1);
+
+                try {
+                    switch (key) {
+                        case "polynomial":
+                            polynomial = ComplexPolynomial.parse(value);
+                            break;
+                        case "random":
+                            polynomial = ComplexPolynomial.GENERATE_RANDOM(Integer.parseInt(value));
+                            break;
+                        case "size":
+                            String[] size = value.split("x");
+                            width = Integer.parseInt(size[0]);
+                            height = Integer.parseInt(size[size.length - 1]);
+                            break;
+                        case "iterations":
+                            iterations = Integer.parseInt(value);
+                            break;
+                        case "center":
+                            String[] center = value.split(",");
+                            // Kept exactly, deep zooms need more digits than a double holds
+                            centerReal = new BigDecimal(center[0]);
+                            centerImaginary = center.length > 1 ? new BigDecimal(center[1]) : BigDecimal.ZERO;
+                            break;
+                        case "range":
+                            range = Double.parseDouble(value);
+                            break;
+                        case "output":
+                            output = Paths.get(value);
+                            break;
+                        case "method":
+                            method = IterationMap.Method.valueOf(value.toUpperCase());
+                            break;
+                        case "relaxation":
+                            relaxation = parseComplex(value);
+                            break;
+                        case "nova":
+                            nova = parseComplex(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("unknown key '" + key + "'");
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("invalid value for " + key + ": '" + value + "'");
+                }
+            }
+
+            if(polynomial == null || iterations < 0 || width < 0 || output == null) {
+                throw new IllegalArgumentException("polynomial (or random), size, iterations and output are required");
+            }
+
+            IterationMap iterationMap = new IterationMap(method, relaxation[0], relaxation[1], nova != null,
+                                                         nova != null ? nova[0] : 0, nova != null ? nova[1] : 0);
+            return new Job(polynomial, iterations, new Viewport(centerReal, centerImaginary, range, width, height), output, iterationMap);
+        }
+
+        /**
+         * @return the real and imaginary part of a complex number given as {@code re,im}, the imaginary part being optional
+         */
+        private static double[] parseComplex(String value) {
+            String[] parts = value.split(",");
+            return new double[] {Double.parseDouble(parts[0]), parts.length > 1 ? Double.parseDouble(parts[1]) : 0};
+        }
+
+
+        /**
+         * Estimates the memory needed to render this job in bands.
+         * @param bandHeight the number of rows rendered at once
+         * @return the estimated number of bytes
+         */
+        public long memory(int bandHeight) {
+            long bandPixels = (long) viewport.width() * Math.min(bandHeight, viewport.height());
+            // two bands of root indices and iterations, one band of colors
+            return bandPixels * (2 * RootMap.BYTES_PER_PIXEL + Integer.BYTES);
+        }
+    }
+
+
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int jobs = DEFAULT_JOBS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tileSize = TileRenderer.DEFAULT_TILE_SIZE;
+        int bandHeight = DEFAULT_BAND_HEIGHT;
+        long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        NewtonSolver.Backend backend = NewtonSolver.Backend.SCALAR;
+        NewtonKernel.Convergence convergence = NewtonKernel.Convergence.EARLY_EXIT;
+        TileRenderer.Mode mode = TileRenderer.Mode.FULL;
+        boolean antialias = false;
+        Shading.Style shading = Shading.Style.FLAT;
+        boolean writeMetrics = false;
+        Path jobFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jobs":        jobs = Integer.parseInt(args[++i]); break;
+                case "--threads":     threads = Integer.parseInt(args[++i]); break;
+                case "--tile-size":   tileSize = Integer.parseInt(args[++i]); break;
+                case "--band-height": bandHeight = Integer.parseInt(args[++i]); break;
+                case "--memory":      memoryBudget = Long.parseLong(args[++i]) * 1024 * 1024; break;
+                case "--backend":     backend = NewtonSolver.Backend.valueOf(args[++i].toUpperCase()); break;
+                case "--convergence": convergence = NewtonKernel.Convergence.valueOf(args[++i].toUpperCase()); break;
+                case "--mode":        mode = TileRenderer.Mode.valueOf(args[++i].toUpperCase()); break;
+                case "--antialias":   antialias = true; break;
+                case "--shading":     shading = Shading.Style.valueOf(args[++i].toUpperCase()); break;
+                case "--metrics":     writeMetrics = true; break;
+                default:              jobFile = Paths.get(args[i]);
+            }
+        }
+
+        if(jobFile == null) {
+            System.err.println("Usage: java newtonsfractal.BatchRenderer [--jobs n] [--threads n] [--tile-size n] [--band-height n] [--memory MB]"
+                               + " [--backend scalar|vector|float|generated] [--convergence early_exit|fixed_steps] [--mode full|adaptive]"
+                               + " [--antialias] [--shading flat|iterations] [--metrics] <job file>");
+            System.exit(2);
+        }
+
+        TileRenderer tileRenderer = new TileRenderer(tileSize, threads, convergence, backend, mode);
+        tileRenderer.metrics().register("BatchRenderer");
+        int failed;
+        try {
+            failed = new BatchRenderer(tileRenderer, bandHeight, jobs, memoryBudget, antialias, shading, writeMetrics).render(readJobs(jobFile));
+        } finally {
+            tileRenderer.shutdown();
+        }
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
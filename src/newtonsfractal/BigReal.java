@@ -0,0 +1,107 @@
+package newtonsfractal;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * A real number with any number of decimal digits, backed by a {@link BigDecimal}.
+ * The fallback for zooms too deep for {@link DoubleDouble}, and by far the slowest precision.
+ * Every operation rounds to the same number of significant digits.
+ */
+public final class BigReal implements ExtendedReal<BigReal> {
+
+    private final BigDecimal value;
+    private final MathContext context;
+
+
+    /**
+     * Constructs a {@code BigReal}.
+     * @param value the value, rounded to {@code digits}
+     * @param digits the number of significant decimal digits this number and all results computed from it keep
+     */
+    public BigReal(BigDecimal value, int digits) {
+        this(value, new MathContext(digits, RoundingMode.HALF_EVEN));
+    }
+
+    private BigReal(BigDecimal value, MathContext context) {
+        this.value = value.round(context);
+        this.context = context;
+    }
+
+
+    @Override
+    public BigReal of(double value) {
+        return new BigReal(new BigDecimal(value), context);
+    }
+
+    @Override
+    public BigReal of(BigDecimal value) {
+        return new BigReal(value, context);
+    }
+
+
+    @Override
+    public BigReal add(BigReal other) {
+        return new BigReal(value.add(other.value, context), context);
+    }
+
+    @Override
+    public BigReal subtract(BigReal other) {
+        return new BigReal(value.subtract(other.value, context), context);
+    }
+
+    @Override
+    public BigReal multiply(BigReal other) {
+        return new BigReal(value.multiply(other.value, context), context);
+    }
+
+    @Override
+    public BigReal divide(BigReal other) {
+        return new BigReal(value.divide(other.value, context), context);
+    }
+
+    @Override
+    public boolean isZero() {
+        return value.signum() == 0;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value.doubleValue();
+    }
+
+    /**
+     * @return the value
+     */
+    public BigDecimal toBigDecimal() {
+        return value;
+    }
+
+    /**
+     * @return the number of significant decimal digits
+     */
+    public int digits() {
+        return context.getPrecision();
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof BigReal){
+            BigReal other = (BigReal) obj;
+            return value.compareTo(other.value) == 0 && context.equals(other.context);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * value.stripTrailingZeros().hashCode() + context.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+}
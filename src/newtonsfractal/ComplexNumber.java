@@ -1,3 +1,5 @@
+package newtonsfractal;
+
 
 public class ComplexNumber {
 
@@ -284,6 +286,13 @@ public class ComplexNumber {
     }
 
 
+    @Override
+    public int hashCode() {
+        // Adding 0.0 turns -0.0 into 0.0, which equals treats as the same value
+        return 31 * Double.hashCode(realPart + 0.0) + Double.hashCode(imaginaryPart + 0.0);
+    }
+
+
     @Override
     protected Object clone() {
         return new ComplexNumber(this.realPart, this.imaginaryPart);
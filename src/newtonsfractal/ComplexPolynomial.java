@@ -0,0 +1,335 @@
+package newtonsfractal;
+
+import java.util.Arrays;
+
+public class ComplexPolynomial {
+
+    private final double[] coefficients;
+    private final double[] imaginaryCoefficients;
+    private final int degree;
+
+    private ComplexPolynomial derivative;
+
+
+    /**
+     * Takes in the coefficients of the polynomial.
+     * The first parameter takes place at x^0 the second at x^1 and so forth.
+     * Invalid values (NaN and Infinity) are mapped to 0.
+     * @param coefficients of the polynomial
+     */
+    public ComplexPolynomial(double... coefficients) {
+        this(coefficients, new double[coefficients.length]);
+    }
+
+    /**
+     * Takes in the complex coefficients of the polynomial as real and imaginary parts.
+     * The first entries take place at x^0 the second at x^1 and so forth, a missing imaginary part is 0.
+     * Invalid values (NaN and Infinity) are mapped to 0.
+     * @param coefficients the real parts of the coefficients
+     * @param imaginaryCoefficients the imaginary parts of the coefficients
+     */
+    public ComplexPolynomial(double[] coefficients, double[] imaginaryCoefficients) {
+        int length = Math.max(coefficients.length, imaginaryCoefficients.length);
+        double[] real = Arrays.copyOf(coefficients, length);
+        double[] imaginary = Arrays.copyOf(imaginaryCoefficients, length);
+
+        boolean foundNonZeroCoeff = false;
+        int zeroCoeffCount = 0;
+        for (int i = length-1; i >= 0; i--) {
+            if(!Double.isFinite(real[i])){
+                real[i] = 0;
+            }
+            if(!Double.isFinite(imaginary[i])){
+                imaginary[i] = 0;
+            }
+
+            if(!foundNonZeroCoeff && real[i] == 0 && imaginary[i] == 0) {
+                zeroCoeffCount++;
+            }else {
+                foundNonZeroCoeff = true;
+            }
+        }
+
+        this.coefficients = Arrays.copyOfRange(real, 0, length-zeroCoeffCount);
+        this.imaginaryCoefficients = Arrays.copyOfRange(imaginary, 0, length-zeroCoeffCount);
+
+        this.degree = this.coefficients.length-1;
+    }
+
+
+    /**
+     * Parses a polynomial from its comma separated coefficients, starting at x^0.
+     * A coefficient is a real number like {@code -1.5}, an imaginary number like {@code 2i} or {@code -i},
+     * or both like {@code 1-2.5i}.
+     * @param coefficients the comma separated coefficients
+     * @return the polynomial
+     * @throws NumberFormatException if a coefficient is not a number
+     */
+    public static ComplexPolynomial parse(String coefficients) {
+        String[] parts = coefficients.split(",");
+        double[] real = new double[parts.length];
+        double[] imaginary = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if(!part.endsWith("i")) {
+                real[i] = Double.parseDouble(part);
+                continue;
+            }
+
+            part = part.substring(0, part.length() - 1);
+            // The sign between real and imaginary part, not the sign of an exponent
+            int split = Math.max(part.lastIndexOf('+'), part.lastIndexOf('-'));
+            while (split > 0 && (part.charAt(split - 1) == 'e' || part.charAt(split - 1) == 'E')) {
+                split = Math.max(part.lastIndexOf('+', split - 1), part.lastIndexOf('-', split - 1));
+            }
+            String imaginaryPart = part;
+            if(split > 0) {
+                real[i] = Double.parseDouble(part.substring(0, split));
+                imaginaryPart = part.substring(split);
+            }
+            if(imaginaryPart.isEmpty() || imaginaryPart.equals("+") || imaginaryPart.equals("-")) {
+                imaginaryPart += "1";
+            }
+            imaginary[i] = Double.parseDouble(imaginaryPart);
+        }
+        return new ComplexPolynomial(real, imaginary);
+    }
+
+
+    /**
+     * @return the degree of the polynomial
+     */
+    public int degree() {
+        return degree;
+    }
+
+
+    /**
+     * @return a copy of the real parts of the coefficients, the first one belonging to x^0 the second to x^1 and so forth
+     */
+    public double[] coefficients() {
+        return coefficients.clone();
+    }
+
+
+    /**
+     * @return a copy of the imaginary parts of the coefficients, as many as {@link #coefficients()}
+     */
+    public double[] imaginaryCoefficients() {
+        return imaginaryCoefficients.clone();
+    }
+
+
+    /**
+     * @return whether all coefficients are real
+     */
+    public boolean isReal() {
+        for (double coefficient : imaginaryCoefficients) {
+            if(coefficient != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Evaluates the polynomial at a point z using the horner scheme.
+     * @param z Evaluation value
+     * @return Evaluated value of the polynomial at a point z
+     */
+    public ComplexNumber eval(ComplexNumber z) {
+        ComplexNumber y = new ComplexNumber();
+        for(int i = coefficients.length-1; i >= 0; i--) {
+            y.multiply(z);
+            y.setReal(y.real() + coefficients[i]);
+            y.setImaginary(y.imaginary() + imaginaryCoefficients[i]);
+        }
+        return y;
+    }
+
+
+    /**
+     * Evaluates the polynomial at a point z of extended precision using the horner scheme.
+     * @param z Evaluation value
+     * @param <T> the precision of the point
+     * @return Evaluated value of the polynomial at a point z, in the precision of z
+     */
+    public <T extends ExtendedReal<T>> ExtendedComplex<T> eval(ExtendedComplex<T> z) {
+        T zero = z.real().of(0);
+        ExtendedComplex<T> y = new ExtendedComplex<>(zero, zero);
+        for(int i = coefficients.length-1; i >= 0; i--) {
+            y = y.multiply(z);
+            y = new ExtendedComplex<>(y.real().add(zero.of(coefficients[i])), y.imaginary().add(zero.of(imaginaryCoefficients[i])));
+        }
+        return y;
+    }
+
+
+    /**
+     * Evaluates the polynomial and its slope at a point z in a single pass of the horner scheme.
+     * @param z Evaluation value
+     * @param slope receives the slope at the point z
+     * @return Evaluated value of the polynomial at a point z
+     */
+    public ComplexNumber evalWithSlope(ComplexNumber z, ComplexNumber slope) {
+        ComplexNumber y = new ComplexNumber();
+        slope.set(ComplexNumber.ZERO);
+        for(int i = coefficients.length-1; i >= 0; i--) {
+            slope.multiply(z).add(y);
+            y.multiply(z);
+            y.setReal(y.real() + coefficients[i]);
+            y.setImaginary(y.imaginary() + imaginaryCoefficients[i]);
+        }
+        return y;
+    }
+
+
+    /**
+     * Returns the slope at a given point z.
+     * @param z the point where to return the slope
+     * @return the slope at the point z
+     */
+    public ComplexNumber slope(ComplexNumber z) {
+        return this.derive().eval(z);
+    }
+
+
+    /**
+     * Calculates the derivative of the polynomial.
+     * @return the derivative of the polynomial
+     */
+    public ComplexPolynomial derive() {
+        if(derivative != null) {
+            return derivative;
+        }
+
+        if(coefficients.length == 1) {
+            derivative = new ComplexPolynomial(0);
+            return derivative;
+        }
+
+        double[] deriveCoeff = new double[coefficients.length-1];
+        double[] deriveImaginaryCoeff = new double[coefficients.length-1];
+
+        for (int i = 1; i < coefficients.length; i++) {
+            deriveCoeff[i-1] = i * coefficients[i];
+            deriveImaginaryCoeff[i-1] = i * imaginaryCoefficients[i];
+        }
+
+        derivative = new ComplexPolynomial(deriveCoeff, deriveImaginaryCoeff);
+
+        return derivative;
+    }
+
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof ComplexPolynomial){
+            ComplexPolynomial polynomial = (ComplexPolynomial) obj;
+            return Arrays.equals(polynomial.coefficients, this.coefficients)
+                && Arrays.equals(polynomial.imaginaryCoefficients, this.imaginaryCoefficients);
+        }
+        return false;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(coefficients) + Arrays.hashCode(imaginaryCoefficients);
+    }
+
+
+    @Override
+    protected Object clone() {
+        return new ComplexPolynomial(this.coefficients, this.imaginaryCoefficients);
+    }
+
+
+    @Override
+    public String toString() {
+        if(!isReal()) {
+            return toComplexString();
+        }
+
+        StringBuilder asStr = new StringBuilder();
+
+        if(coefficients[0] != 0) {
+            asStr.append(coefficients[0]);
+        }
+
+        if(coefficients.length > 1) {
+            if(coefficients[1] == 0) {
+                // do nothing
+            } else if(coefficients[1] == 1 || coefficients[1] == -1) {
+                asStr.append(coefficients[1] < 0 ? "-" : "+").append("x");
+            }else {
+                asStr.append(coefficients[1] < 0 ? "" : "+").append(coefficients[1]).append("x");
+            }
+        }
+
+        for (int i = 2; i < coefficients.length; i++) {
+            if(coefficients[i] == 0) {
+                // do nothing
+            } else if(coefficients[i] == 1 || coefficients[i] == -1) {
+                asStr.append(coefficients[i] < 0 ? "-" : "+").append("x^").append(i);
+            }else {
+                asStr.append(coefficients[i] < 0 ? "" : "+").append(coefficients[i]).append("x^").append(i);
+            }
+        }
+        return asStr.toString();
+    }
+
+
+    /**
+     * @return the polynomial with every complex coefficient in parentheses, like {@code (1.0 +2.0i)x^2}
+     */
+    private String toComplexString() {
+        StringBuilder asStr = new StringBuilder();
+        for (int i = 0; i < coefficients.length; i++) {
+            if(coefficients[i] == 0 && imaginaryCoefficients[i] == 0) {
+                continue;
+            }
+            if(asStr.length() > 0) {
+                asStr.append("+");
+            }
+            asStr.append("(").append(new ComplexNumber(coefficients[i], imaginaryCoefficients[i])).append(")");
+            if(i > 0) {
+                asStr.append("x");
+            }
+            if(i > 1) {
+                asStr.append("^").append(i);
+            }
+        }
+        return asStr.toString();
+    }
+
+
+    /**
+     * Generates a random polynomial with a given degree.
+     * @param degree the desired degree of the polynomial
+     * @return the generated polynomial
+     */
+    public static ComplexPolynomial GENERATE_RANDOM(int degree) {
+        double[] coeff = new double[degree+1];
+
+        coeff[0] = Renderer.POLYNOMIAL_RANDOM.nextDouble();
+
+        for (int i = 1; i <= degree; i++) {
+            coeff[i] = Renderer.POLYNOMIAL_RANDOM.nextDouble() * 4.5;
+        }
+
+        return new ComplexPolynomial(coeff);
+    }
+
+
+    /**
+     * Converts a {@code ComplexPolynomial} to a {@code Polynomial}, dropping the imaginary parts of the coefficients.
+     * @param polynomial the {@code ComplexPolynomial} to convert
+     * @return the converted {@code ComplexPolynomial}
+     */
+    public static Polynomial convertToPolynomial(ComplexPolynomial polynomial) {
+        return new Polynomial(polynomial.coefficients);
+    }
+}
@@ -0,0 +1,175 @@
+package newtonsfractal;
+
+import java.math.BigDecimal;
+
+/**
+ * A real number stored as the unevaluated sum of two doubles, which gives about 106 bits or 32 decimal digits of precision.
+ * The arithmetic follows the error-free transformations of Dekker and Knuth as used by the QD library,
+ * and is about an order of magnitude slower than plain doubles but much faster than {@link BigDecimal}.
+ */
+public final class DoubleDouble implements ExtendedReal<DoubleDouble> {
+
+    public static final DoubleDouble ZERO = new DoubleDouble(0, 0);
+
+
+    private final double high;
+    private final double low;
+
+
+    /**
+     * Constructs a {@code DoubleDouble}.
+     * @param high the leading part
+     * @param low the trailing part, at most half an ulp of {@code high}
+     */
+    private DoubleDouble(double high, double low) {
+        this.high = high;
+        this.low = low;
+    }
+
+
+    /**
+     * @param value a double
+     * @return the double as a {@code DoubleDouble}
+     */
+    public static DoubleDouble valueOf(double value) {
+        return new DoubleDouble(value, 0);
+    }
+
+    /**
+     * @param value a decimal number
+     * @return the decimal number rounded to about 32 digits
+     */
+    public static DoubleDouble valueOf(BigDecimal value) {
+        double high = value.doubleValue();
+        if(!Double.isFinite(high)) {
+            return new DoubleDouble(high, 0);
+        }
+        return new DoubleDouble(high, value.subtract(new BigDecimal(high)).doubleValue());
+    }
+
+
+    @Override
+    public DoubleDouble of(double value) {
+        return valueOf(value);
+    }
+
+    @Override
+    public DoubleDouble of(BigDecimal value) {
+        return valueOf(value);
+    }
+
+
+    @Override
+    public DoubleDouble add(DoubleDouble other) {
+        double sum = high + other.high;
+        double error = twoSumError(high, other.high, sum);
+        double lowSum = low + other.low;
+        double lowError = twoSumError(low, other.low, lowSum);
+
+        error += lowSum;
+        double head = sum + error;
+        error = error - (head - sum);
+        error += lowError;
+        return normalize(head, error);
+    }
+
+    @Override
+    public DoubleDouble subtract(DoubleDouble other) {
+        return add(other.negate());
+    }
+
+    @Override
+    public DoubleDouble multiply(DoubleDouble other) {
+        double product = high * other.high;
+        double error = Math.fma(high, other.high, -product);
+        error += high * other.low + low * other.high;
+        return normalize(product, error);
+    }
+
+    @Override
+    public DoubleDouble divide(DoubleDouble other) {
+        // Long division, every step gains about 53 bits
+        double first = high / other.high;
+        DoubleDouble remainder = subtract(other.multiply(first));
+        double second = remainder.high / other.high;
+        remainder = remainder.subtract(other.multiply(second));
+        double third = remainder.high / other.high;
+
+        return normalize(first, second).add(valueOf(third));
+    }
+
+    /**
+     * @return the negated number
+     */
+    public DoubleDouble negate() {
+        return new DoubleDouble(-high, -low);
+    }
+
+    @Override
+    public boolean isZero() {
+        return high == 0;
+    }
+
+    @Override
+    public double doubleValue() {
+        return high;
+    }
+
+    /**
+     * @return the exact value of this number
+     * @throws NumberFormatException if this number is not finite
+     */
+    public BigDecimal toBigDecimal() {
+        return new BigDecimal(high).add(new BigDecimal(low));
+    }
+
+
+    /**
+     * Multiplies with a double, cheaper than multiplying with a {@code DoubleDouble}.
+     */
+    private DoubleDouble multiply(double factor) {
+        double product = high * factor;
+        double error = Math.fma(high, factor, -product);
+        error += low * factor;
+        return normalize(product, error);
+    }
+
+    /**
+     * @return the rounding error of {@code sum = a + b}
+     */
+    private static double twoSumError(double a, double b, double sum) {
+        double bVirtual = sum - a;
+        return (a - (sum - bVirtual)) + (b - bVirtual);
+    }
+
+    /**
+     * @return {@code high + low} as a {@code DoubleDouble}, {@code |low|} must not be larger than {@code |high|}
+     */
+    private static DoubleDouble normalize(double high, double low) {
+        double sum = high + low;
+        if(!Double.isFinite(sum)) {
+            return new DoubleDouble(sum, 0);
+        }
+        return new DoubleDouble(sum, low - (sum - high));
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof DoubleDouble){
+            DoubleDouble other = (DoubleDouble) obj;
+            return Double.compare(high, other.high) == 0 && Double.compare(low, other.low) == 0;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(high) + Double.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return Double.isFinite(high) ? toBigDecimal().round(new java.math.MathContext(32)).toString() : Double.toString(high);
+    }
+}
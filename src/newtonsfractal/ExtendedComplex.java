@@ -0,0 +1,106 @@
+package newtonsfractal;
+
+/**
+ * A complex number whose real and imaginary part are {@link ExtendedReal}s, the counterpart of {@link ComplexNumber}
+ * for deep zooms. Unlike {@code ComplexNumber} it is immutable.
+ * @param <T> the precision of the real and imaginary part
+ */
+public final class ExtendedComplex<T extends ExtendedReal<T>> {
+
+    private final T real;
+    private final T imaginary;
+
+
+    /**
+     * Constructs an {@code ExtendedComplex}.
+     * @param real the real part
+     * @param imaginary the imaginary part
+     */
+    public ExtendedComplex(T real, T imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+
+    /**
+     * @return the real part
+     */
+    public T real() {
+        return real;
+    }
+
+    /**
+     * @return the imaginary part
+     */
+    public T imaginary() {
+        return imaginary;
+    }
+
+
+    public ExtendedComplex<T> add(ExtendedComplex<T> other) {
+        return new ExtendedComplex<>(real.add(other.real), imaginary.add(other.imaginary));
+    }
+
+    public ExtendedComplex<T> subtract(ExtendedComplex<T> other) {
+        return new ExtendedComplex<>(real.subtract(other.real), imaginary.subtract(other.imaginary));
+    }
+
+    public ExtendedComplex<T> multiply(ExtendedComplex<T> other) {
+        return new ExtendedComplex<>(real.multiply(other.real).subtract(imaginary.multiply(other.imaginary)),
+                                     real.multiply(other.imaginary).add(imaginary.multiply(other.real)));
+    }
+
+    /**
+     * Divides like {@link ComplexNumber#divide(ComplexNumber, ComplexNumber)}, by multiplying with the conjugate of the divisor.
+     * @param divisor the divisor, not zero
+     * @return the quotient
+     */
+    public ExtendedComplex<T> divide(ExtendedComplex<T> divisor) {
+        T denominator = divisor.real.multiply(divisor.real).add(divisor.imaginary.multiply(divisor.imaginary));
+        T quotientReal = real.multiply(divisor.real).add(imaginary.multiply(divisor.imaginary));
+        T quotientImaginary = imaginary.multiply(divisor.real).subtract(real.multiply(divisor.imaginary));
+        return new ExtendedComplex<>(quotientReal.divide(denominator), quotientImaginary.divide(denominator));
+    }
+
+    /**
+     * @return whether real and imaginary part are both zero
+     */
+    public boolean isZero() {
+        return real.isZero() && imaginary.isZero();
+    }
+
+    /**
+     * @return the square of the absolute value, rounded to a double
+     */
+    public double absSquared() {
+        double re = real.doubleValue(), im = imaginary.doubleValue();
+        return re * re + im * im;
+    }
+
+    /**
+     * @return this number rounded to doubles
+     */
+    public ComplexNumber toComplexNumber() {
+        return new ComplexNumber(real.doubleValue(), imaginary.doubleValue());
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof ExtendedComplex){
+            ExtendedComplex<?> other = (ExtendedComplex<?>) obj;
+            return real.equals(other.real) && imaginary.equals(other.imaginary);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * real.hashCode() + imaginary.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return real + " + " + imaginary + "i";
+    }
+}
@@ -0,0 +1,205 @@
+package newtonsfractal;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Applies the newton's method in extended precision, for viewports whose pixels are too close together for doubles.
+ * The start points are given as doubles relative to a reference point held in extended precision,
+ * like {@link Viewport#real(int)} gives them, the end points are written back relative to it as well.
+ * Follows the same steps of the same {@link IterationMap} and stops under the same conditions as {@link NewtonKernel},
+ * only the end points are classified in doubles,
+ * which is precise enough as the roots lie far apart compared to the resolution of doubles.
+ * An {@code ExtendedNewtonKernel} is immutable and can be shared between threads.
+ * @param <T> the precision
+ */
+public class ExtendedNewtonKernel<T extends ExtendedReal<T>> implements NewtonSolver {
+
+    private final NewtonKernel kernel;
+    private final ComplexPolynomial polynomial;
+    private final ComplexPolynomial derivative;
+    private final ComplexPolynomial secondDerivative;
+    private final IterationMap map;
+    private final T curvatureWeight;
+    private final ExtendedComplex<T> relaxation;
+    private final ExtendedComplex<T> start;
+    private final ExtendedComplex<T> reference;
+    private final ExtendedComplex<T> practicallyZero;
+
+
+    /**
+     * Constructs an {@code ExtendedNewtonKernel}.
+     * @param polynomial the polynomial to apply the newton's method to
+     * @param roots the roots of the polynomial, used to classify end points
+     * @param reference the point the start points are relative to, in the precision to compute in
+     */
+    public ExtendedNewtonKernel(ComplexPolynomial polynomial, List<ComplexNumber> roots, ExtendedComplex<T> reference) {
+        this(polynomial, roots, IterationMap.NEWTON, reference);
+    }
+
+    /**
+     * Constructs an {@code ExtendedNewtonKernel} which applies another map than the plain newton's method.
+     * @param polynomial the polynomial to apply the map to
+     * @param roots the roots of the polynomial, used to classify end points
+     * @param map the map applied in every step
+     * @param reference the point the start points are relative to, in the precision to compute in
+     */
+    public ExtendedNewtonKernel(ComplexPolynomial polynomial, List<ComplexNumber> roots, IterationMap map, ExtendedComplex<T> reference) {
+        this.kernel = new NewtonKernel(polynomial, roots, map);
+        this.polynomial = polynomial;
+        this.derivative = polynomial.derive();
+        this.secondDerivative = derivative.derive();
+        this.map = map;
+        T zero = reference.real();
+        this.curvatureWeight = zero.of(map.method().secondDerivativeWeight());
+        this.relaxation = new ExtendedComplex<>(zero.of(map.relaxationReal()), zero.of(map.relaxationImaginary()));
+        this.start = new ExtendedComplex<>(zero.of(map.startReal()), zero.of(map.startImaginary()));
+        this.reference = reference;
+        T minValue = zero.of(Double.MIN_VALUE);
+        this.practicallyZero = new ExtendedComplex<>(minValue, minValue);
+    }
+
+
+    /**
+     * Creates the solver for the precision a viewport needs, see {@link Viewport#precision(List)}.
+     * @param polynomial the polynomial to apply the newton's method to
+     * @param roots the roots of the polynomial, used to classify end points
+     * @param map the map applied in every step
+     * @param viewport the viewport whose points will be solved
+     * @param backend the backend used if doubles are precise enough
+     * @return the solver, taking the points as given by {@link Viewport#real(int)} and {@link Viewport#imaginary(int)}
+     */
+    public static NewtonSolver create(ComplexPolynomial polynomial, List<ComplexNumber> roots, IterationMap map, Viewport viewport,
+                                      NewtonSolver.Backend backend) {
+        // Pixels that doubles can tell apart are given as they are, even if the roots need more precision
+        boolean relative = viewport.precision() != Viewport.Precision.DOUBLE;
+        BigDecimal referenceReal = relative ? viewport.exactCenterReal() : BigDecimal.ZERO;
+        BigDecimal referenceImaginary = relative ? viewport.exactCenterImaginary() : BigDecimal.ZERO;
+        switch (viewport.precision(roots)) {
+            case DOUBLE_DOUBLE:
+                return new ExtendedNewtonKernel<>(polynomial, roots, map,
+                                                  new ExtendedComplex<>(DoubleDouble.valueOf(referenceReal), DoubleDouble.valueOf(referenceImaginary)));
+            case BIG_DECIMAL:
+                int digits = viewport.precisionDigits(roots);
+                return new ExtendedNewtonKernel<>(polynomial, roots, map,
+                                                  new ExtendedComplex<>(new BigReal(referenceReal, digits), new BigReal(referenceImaginary, digits)));
+            default:
+                // Nearly all pixels of a zoom too deep for floats would be solved again in doubles
+                if(backend == NewtonSolver.Backend.FLOAT && !viewport.isFloatPrecise(roots)) {
+                    backend = NewtonSolver.Backend.VECTOR;
+                }
+                return backend.create(new NewtonKernel(polynomial, roots, map));
+        }
+    }
+
+
+    @Override
+    public void solve(double[] real, double[] imaginary, int count, int maxIterations, NewtonKernel.Convergence convergence, int[] results) {
+        T zero = reference.real();
+        for (int i = 0; i < count; i++) {
+            ExtendedComplex<T> z = reference.add(new ExtendedComplex<>(zero.of(real[i]), zero.of(imaginary[i])));
+            // A nova map starts every pixel at the same point and adds the pixel in every step
+            ExtendedComplex<T> pixel = z;
+            if(map.isNova()) {
+                z = start;
+            }
+            if(convergence == NewtonKernel.Convergence.FIXED_STEPS) {
+                z = newton(z, pixel, maxIterations, results, i);
+            }else {
+                z = findRoot(z, pixel, maxIterations, results, i);
+            }
+
+            ExtendedComplex<T> end = z.subtract(reference);
+            real[i] = end.real().doubleValue();
+            imaginary[i] = end.imaginary().doubleValue();
+        }
+    }
+
+
+    /**
+     * Applies the newton's method like {@link NewtonKernel#newton(double[], int)} and classifies the end point by the nearest root.
+     * @return the end point, the result is stored in {@code results[index]}
+     */
+    private ExtendedComplex<T> newton(ExtendedComplex<T> z, ExtendedComplex<T> pixel, int maxIterations, int[] results, int index) {
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            z = z.subtract(step(z, polynomial.eval(z), pixel));
+            iteration++;
+
+            if(Math.sqrt(z.absSquared()) < Newton.EPSILON) {
+                break;
+            }
+        }
+
+        results[index] = NewtonKernel.result(kernel.nearestRoot(z.real().doubleValue(), z.imaginary().doubleValue()), iteration);
+        return z;
+    }
+
+    /**
+     * Approximates one root like {@link NewtonKernel#findRoot(double[], int)}.
+     * @return the end point, the result is stored in {@code results[index]}
+     */
+    private ExtendedComplex<T> findRoot(ExtendedComplex<T> z, ExtendedComplex<T> pixel, int maxIterations, int[] results, int index) {
+        double epsilonSquared = Newton.EPSILON * Newton.EPSILON;
+        int iteration = 0;
+        int root = TileRenderer.NO_ROOT;
+
+        while (iteration < maxIterations) {
+            if(!map.isNova()) {
+                root = kernel.capturingRoot(z.real().doubleValue(), z.imaginary().doubleValue());
+                if(root != TileRenderer.NO_ROOT) {
+                    break;
+                }
+            }
+
+            ExtendedComplex<T> value = polynomial.eval(z);
+            if(!map.isNova() && value.absSquared() < epsilonSquared) {
+                break;
+            }
+
+            ExtendedComplex<T> quotient = step(z, value, pixel);
+            z = z.subtract(quotient);
+            iteration++;
+
+            if(quotient.absSquared() < epsilonSquared) {
+                break;
+            }
+        }
+
+        if(root == TileRenderer.NO_ROOT) {
+            root = kernel.nearestRoot(z.real().doubleValue(), z.imaginary().doubleValue());
+        }
+        results[index] = NewtonKernel.result(root, iteration);
+        return z;
+    }
+
+    /**
+     * @return the distance the map moves {@code z} back by, for plain newton the value of the polynomial divided by its slope
+     */
+    private ExtendedComplex<T> step(ExtendedComplex<T> z, ExtendedComplex<T> value, ExtendedComplex<T> pixel) {
+        ExtendedComplex<T> slope = derivative.eval(z);
+        // Like NewtonKernel, a slope of 0 would lead to a division by zero
+        if(slope.isZero()) {
+            slope = practicallyZero;
+        }
+        ExtendedComplex<T> quotient = value.divide(slope);
+
+        if(map.method() != IterationMap.Method.NEWTON) {
+            ExtendedComplex<T> ratio = secondDerivative.eval(z).divide(slope);
+            ExtendedComplex<T> t = quotient.multiply(ratio);
+            // 1 - k * p(z)/p'(z) * p''(z)/p'(z), like NewtonKernel
+            ExtendedComplex<T> correction = new ExtendedComplex<>(curvatureWeight.of(1).subtract(curvatureWeight.multiply(t.real())),
+                                                                  curvatureWeight.of(0).subtract(curvatureWeight.multiply(t.imaginary())));
+            if(!correction.isZero()) {
+                quotient = quotient.divide(correction);
+            }
+        }
+        if(map.isRelaxed()) {
+            quotient = relaxation.multiply(quotient);
+        }
+        if(map.isNova()) {
+            quotient = quotient.subtract(pixel);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,46 @@
+package newtonsfractal;
+
+import java.math.BigDecimal;
+
+/**
+ * A real number with more precision than a {@code double}, used to render deep zooms
+ * in which neighbouring pixels are closer together than doubles can tell apart.
+ * Implementations are immutable, every operation returns a new number of the same precision.
+ * @param <T> the implementing type
+ */
+public interface ExtendedReal<T extends ExtendedReal<T>> {
+
+    /**
+     * @param value a double
+     * @return the double as a number of the precision of this number
+     */
+    T of(double value);
+
+    /**
+     * @param value a decimal number
+     * @return the decimal number rounded to the precision of this number
+     */
+    T of(BigDecimal value);
+
+    T add(T other);
+
+    T subtract(T other);
+
+    T multiply(T other);
+
+    /**
+     * @param other the divisor, not zero
+     * @return the quotient
+     */
+    T divide(T other);
+
+    /**
+     * @return whether this number is exactly zero
+     */
+    boolean isZero();
+
+    /**
+     * @return this number rounded to the nearest double
+     */
+    double doubleValue();
+}
@@ -0,0 +1,226 @@
+package newtonsfractal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores rendered {@code RootMap}s in memory-mapped files, so that a fractal that has already been rendered
+ * can be colored again without applying the newton's method to any pixel.
+ * Every file belongs to a key which describes everything the result of the newton's method depends on.
+ */
+public class FractalCache {
+
+    private static final int MAGIC = 0x4E46524D;
+
+    /**
+     * The version of the file format and of everything else the stored pixels depend on besides the key,
+     * raised whenever a file written before would be read wrongly or hold other pixels than a new render.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * The planes start at a multiple of this offset, so that the shorts in them are aligned.
+     */
+    private static final int PLANE_ALIGNMENT = 64;
+
+
+    private final Path directory;
+
+    /**
+     * The files of the {@code RootMap}s created but not committed yet.
+     */
+    private final Map<RootMap, Path> pendingFiles = Collections.synchronizedMap(new IdentityHashMap<>());
+
+
+    /**
+     * Constructs a {@code FractalCache}.
+     * @param directory the directory the files are stored in, created when the first file is stored
+     */
+    public FractalCache(Path directory) {
+        this.directory = directory;
+    }
+
+
+    /**
+     * Describes a rendered fractal.
+     * @param polynomial the polynomial the fractal is based on
+     * @param maxSteps the maximum number that the newton's method was applied to a pixel
+     * @param viewport the part of the complex plane the image shows
+     * @param convergence when the newton's method stopped for a pixel
+     * @param mode which pixels the newton's method was applied to
+     * @param iterationMap the map applied to a pixel in every step
+     * @param backend the backend that applied the newton's method
+     * @return the key of the fractal
+     */
+    public static String key(ComplexPolynomial polynomial, int maxSteps, Viewport viewport, NewtonKernel.Convergence convergence,
+                             TileRenderer.Mode mode, IterationMap iterationMap, NewtonSolver.Backend backend) {
+        // Real polynomials, the plain newton's method and the scalar backend keep the keys they had before
+        // complex coefficients, other maps and other backends
+        return "version=" + FORMAT_VERSION
+             + ";coefficients=" + Arrays.toString(polynomial.coefficients())
+             + (polynomial.isReal() ? "" : ";imaginary=" + Arrays.toString(polynomial.imaginaryCoefficients()))
+             + ";" + viewport
+             + ";maxSteps=" + maxSteps
+             + ";convergence=" + convergence
+             + ";mode=" + mode
+             + (iterationMap.isNewton() ? "" : ";map=" + iterationMap)
+             + (backend == NewtonSolver.Backend.SCALAR ? "" : ";backend=" + backend);
+    }
+
+
+    /**
+     * Maps the file of a key.
+     * @param key the key of the fractal
+     * @return the stored {@code RootMap}, or {@code null} if nothing is stored for the key
+     * @throws IOException if the file exists but can not be read
+     */
+    public RootMap load(String key) throws IOException {
+        Path file = file(key);
+        if(!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int headerSize = headerSize(keyBytes);
+            if(channel.size() < headerSize) {
+                return null;
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize);
+            if(header.getInt() != MAGIC) {
+                return null;
+            }
+            int width = header.getInt();
+            int height = header.getInt();
+            int rootCount = header.getInt();
+            byte[] storedKey = new byte[header.getInt()];
+            if(storedKey.length != keyBytes.length) {
+                return null;
+            }
+            header.get(storedKey);
+            if(!Arrays.equals(storedKey, keyBytes)) {
+                return null;
+            }
+
+            int planeSize = RootMap.planeSize(width, height);
+            if(channel.size() < (long) headerSize + 2L * planeSize) {
+                return null;
+            }
+            return new RootMap(width, height, rootCount,
+                               channel.map(FileChannel.MapMode.READ_ONLY, headerSize, planeSize),
+                               channel.map(FileChannel.MapMode.READ_ONLY, headerSize + (long) planeSize, planeSize));
+        }
+    }
+
+
+    /**
+     * Creates a new writable {@code RootMap} for a key.
+     * It only becomes visible to {@link #load(String)} after {@link #commit(String, RootMap)} has been called.
+     * Until then it is stored in a file of its own, so that several processes may create the same key at once.
+     * @param key the key of the fractal
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @param rootCount the number of roots the root indices refer to
+     * @return the memory-mapped {@code RootMap}
+     * @throws IOException if the file can not be created
+     */
+    public RootMap create(String key, int width, int height, int rootCount) throws IOException {
+        Files.createDirectories(directory);
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int headerSize = headerSize(keyBytes);
+        int planeSize = RootMap.planeSize(width, height);
+
+        Path pendingFile = Files.createTempFile(directory, fileName(key), ".roots.pending");
+        try (FileChannel channel = FileChannel.open(pendingFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
+            header.putInt(MAGIC);
+            header.putInt(width);
+            header.putInt(height);
+            header.putInt(rootCount);
+            header.putInt(keyBytes.length);
+            header.put(keyBytes);
+            header.force();
+
+            RootMap rootMap = new RootMap(width, height, rootCount,
+                                          channel.map(FileChannel.MapMode.READ_WRITE, headerSize, planeSize),
+                                          channel.map(FileChannel.MapMode.READ_WRITE, headerSize + (long) planeSize, planeSize));
+            pendingFiles.put(rootMap, pendingFile);
+            return rootMap;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(pendingFile);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Writes a {@code RootMap} created by {@link #create(String, int, int, int)} to the storage device
+     * and makes it available to {@link #load(String)}.
+     * @param key the key the {@code RootMap} was created for
+     * @param rootMap the completely rendered {@code RootMap}
+     * @throws IOException if the file can not be moved into place
+     * @throws IllegalArgumentException if the {@code RootMap} was not created by this cache or has already been committed
+     */
+    public void commit(String key, RootMap rootMap) throws IOException {
+        Path pendingFile = pendingFiles.remove(rootMap);
+        if(pendingFile == null) {
+            throw new IllegalArgumentException("the RootMap was not created by this cache or has already been committed");
+        }
+        rootMap.force();
+        // Of several processes committing the same key, the last one wins with a complete file
+        try {
+            Files.move(pendingFile, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(pendingFile);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Discards a {@code RootMap} created by {@link #create(String, int, int, int)} whose render failed and deletes its file.
+     * The cache lets go of the mapping, which the JVM unmaps once the {@code RootMap} is unreachable.
+     * It is not unmapped at once, as tiles of the failed render may still be writing into it.
+     * @param key the key the {@code RootMap} was created for
+     * @param rootMap the {@code RootMap}, which must not be used any more
+     * @throws IOException if the file can not be deleted
+     * @throws IllegalArgumentException if the {@code RootMap} was not created by this cache for the key,
+     *                                  or has already been committed or discarded
+     */
+    public void abort(String key, RootMap rootMap) throws IOException {
+        Path pendingFile = pendingFiles.get(rootMap);
+        if(pendingFile == null || !pendingFile.getFileName().toString().startsWith(fileName(key))) {
+            throw new IllegalArgumentException("the RootMap was not created by this cache for the key or has already been committed");
+        }
+        pendingFiles.remove(rootMap);
+        Files.deleteIfExists(pendingFile);
+    }
+
+
+    private static int headerSize(byte[] keyBytes) {
+        int size = 5 * Integer.BYTES + keyBytes.length;
+        return (size + PLANE_ALIGNMENT - 1) / PLANE_ALIGNMENT * PLANE_ALIGNMENT;
+    }
+
+    private Path file(String key) {
+        return directory.resolve(fileName(key) + ".roots");
+    }
+
+    private static String fileName(String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -0,0 +1,195 @@
+package newtonsfractal;
+
+/**
+ * The map applied to a point in every step of the iteration, a generalization of the newton's method.
+ * <p>
+ * All maps are written as {@code z - a * p(z)/p'(z) / (1 - k * p(z)p''(z)/p'(z)^2) + c}, where the {@link Method} gives {@code k},
+ * {@code a} is the relaxation and {@code c} is 0, or the pixel for a nova map. Plain newton is {@code k = 0, a = 1, c = 0}.
+ * <p>
+ * Nova maps start every pixel at the same point and add the pixel itself in every step,
+ * so the image shows how the fixed points and their basins change over the plane instead of the basins of the roots.
+ * The end points are still classified by the nearest root, and the iterations tell the pixels apart.
+ * <p>
+ * An {@code IterationMap} is a final class of plain numbers rather than an interface with one class per map,
+ * so the kernels apply every map in the same loop without a virtual call. It is immutable.
+ */
+public final class IterationMap {
+
+    /**
+     * The correction of the newton step by the second derivative.
+     */
+    public enum Method {
+        /**
+         * The newton's method, which converges quadratically to simple roots.
+         */
+        NEWTON(0),
+        /**
+         * Halley's method, which converges cubically to simple roots and needs fewer steps per pixel, each a bit more expensive.
+         */
+        HALLEY(0.5),
+        /**
+         * Schroeder's method, the newton's method applied to {@code p/p'}, which also converges quadratically to multiple roots.
+         */
+        SCHROEDER(1);
+
+        private final double secondDerivativeWeight;
+
+        Method(double secondDerivativeWeight) {
+            this.secondDerivativeWeight = secondDerivativeWeight;
+        }
+
+        /**
+         * @return the weight {@code k} of {@code p(z)p''(z)/p'(z)^2} in the correction of the step
+         */
+        public double secondDerivativeWeight() {
+            return secondDerivativeWeight;
+        }
+    }
+
+    /**
+     * The plain newton's method.
+     */
+    public static final IterationMap NEWTON = new IterationMap(Method.NEWTON);
+
+
+    private final Method method;
+    private final double relaxationReal;
+    private final double relaxationImaginary;
+    private final boolean nova;
+    private final double startReal;
+    private final double startImaginary;
+
+
+    /**
+     * Constructs an {@code IterationMap} without relaxation.
+     * @param method the correction of the newton step
+     */
+    public IterationMap(Method method) {
+        this(method, 1, 0);
+    }
+
+    /**
+     * Constructs a relaxed {@code IterationMap}.
+     * @param method the correction of the newton step
+     * @param relaxationReal the real part of the factor {@code a} of the step
+     * @param relaxationImaginary the imaginary part of the factor {@code a} of the step
+     */
+    public IterationMap(Method method, double relaxationReal, double relaxationImaginary) {
+        this(method, relaxationReal, relaxationImaginary, false, 0, 0);
+    }
+
+    /**
+     * Constructs an {@code IterationMap}.
+     * @param method the correction of the newton step
+     * @param relaxationReal the real part of the factor {@code a} of the step
+     * @param relaxationImaginary the imaginary part of the factor {@code a} of the step
+     * @param nova whether every pixel starts at the same point and is added in every step
+     * @param startReal the real part of the point every pixel starts at, only used if {@code nova}
+     * @param startImaginary the imaginary part of the point every pixel starts at, only used if {@code nova}
+     */
+    public IterationMap(Method method, double relaxationReal, double relaxationImaginary, boolean nova,
+                        double startReal, double startImaginary) {
+        if(!Double.isFinite(relaxationReal) || !Double.isFinite(relaxationImaginary) || (relaxationReal == 0 && relaxationImaginary == 0)) {
+            throw new IllegalArgumentException("the relaxation must be finite and not 0, was " + relaxationReal + "," + relaxationImaginary);
+        }
+        if(nova && (!Double.isFinite(startReal) || !Double.isFinite(startImaginary))) {
+            throw new IllegalArgumentException("the start point must be finite, was " + startReal + "," + startImaginary);
+        }
+        this.method = method;
+        this.relaxationReal = relaxationReal;
+        this.relaxationImaginary = relaxationImaginary;
+        this.nova = nova;
+        this.startReal = nova ? startReal : 0;
+        this.startImaginary = nova ? startImaginary : 0;
+    }
+
+
+    /**
+     * @return the correction of the newton step
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * @return the real part of the factor {@code a} of the step
+     */
+    public double relaxationReal() {
+        return relaxationReal;
+    }
+
+    /**
+     * @return the imaginary part of the factor {@code a} of the step
+     */
+    public double relaxationImaginary() {
+        return relaxationImaginary;
+    }
+
+    /**
+     * @return whether the step is multiplied with a factor other than 1
+     */
+    public boolean isRelaxed() {
+        return relaxationReal != 1 || relaxationImaginary != 0;
+    }
+
+    /**
+     * @return whether every pixel starts at the same point and is added in every step
+     */
+    public boolean isNova() {
+        return nova;
+    }
+
+    /**
+     * @return the real part of the point every pixel of a nova map starts at
+     */
+    public double startReal() {
+        return startReal;
+    }
+
+    /**
+     * @return the imaginary part of the point every pixel of a nova map starts at
+     */
+    public double startImaginary() {
+        return startImaginary;
+    }
+
+    /**
+     * @return whether this is the plain newton's method
+     */
+    public boolean isNewton() {
+        return method == Method.NEWTON && !isRelaxed() && !nova;
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof IterationMap){
+            IterationMap map = (IterationMap) obj;
+            return method == map.method && relaxationReal == map.relaxationReal && relaxationImaginary == map.relaxationImaginary
+                && nova == map.nova && startReal == map.startReal && startImaginary == map.startImaginary;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = method.hashCode();
+        hash = 31 * hash + Double.hashCode(relaxationReal);
+        hash = 31 * hash + Double.hashCode(relaxationImaginary);
+        hash = 31 * hash + Boolean.hashCode(nova);
+        hash = 31 * hash + Double.hashCode(startReal);
+        return 31 * hash + Double.hashCode(startImaginary);
+    }
+
+    @Override
+    public String toString() {
+        String map = method.toString().toLowerCase();
+        if(isRelaxed()) {
+            map += ";relaxation=" + relaxationReal + "," + relaxationImaginary;
+        }
+        if(nova) {
+            map += ";nova=" + startReal + "," + startImaginary;
+        }
+        return map;
+    }
+}
@@ -1,3 +1,5 @@
+package newtonsfractal;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -106,17 +108,17 @@ public class Newton {
      * @return a root of the polynomial
      */
     public static ComplexNumber newtonComplex(ComplexPolynomial polynomial, ComplexNumber startPoint, int maxIterations) {
-        ComplexNumber slope = new ComplexNumber(), last = startPoint, x = null;
+        ComplexNumber slope = new ComplexNumber(), value, last = startPoint, x = null;
         int iteration = 0;
 
         while (iteration < maxIterations) {
-            slope.set(polynomial.slope(last));
+            value = polynomial.evalWithSlope(last, slope);
             // Fixing the issue when the slope at a given point is 0 and therefore would lead to a division by zero
             if(slope.equals(ComplexNumber.ZERO)) {
                 slope.add(ComplexNumber.PRACTICALLY_ZERO);
             }
 
-            x = last.subtract(polynomial.eval(last).divide((slope)));
+            x = last.subtract(value.divide((slope)));
             last = x;
             iteration++;
 
@@ -0,0 +1,542 @@
+package newtonsfractal;
+
+import java.util.List;
+
+/**
+ * Applies the newton's method, or another {@link IterationMap}, to one polynomial on primitive doubles.
+ * Unlike {@link Newton#newtonComplex(ComplexPolynomial, ComplexNumber, int)} no objects are allocated per call,
+ * which makes it the kernel used to render fractals.
+ * A {@code NewtonKernel} is immutable and can be shared between threads.
+ */
+public class NewtonKernel implements NewtonSolver {
+
+    /**
+     * When the newton's method stops for a pixel.
+     */
+    public enum Convergence {
+        /**
+         * Applies the newton's method {@code maxSteps} times like {@link Newton#newtonComplex(ComplexPolynomial, ComplexNumber, int)},
+         * only stopping early at the origin.
+         */
+        FIXED_STEPS,
+        /**
+         * Stops as soon as the step or the value of the polynomial drops below {@link Newton#EPSILON}
+         * or the point comes close enough to a root to be captured by it.
+         */
+        EARLY_EXIT
+    }
+
+    /**
+     * The capture radius of a root relative to the distance to its closest neighbour.
+     */
+    public static final double CAPTURE_FACTOR = 0.1;
+
+    /**
+     * The capture radius of the root of a polynomial that has only one.
+     */
+    public static final double SINGLE_ROOT_CAPTURE_RADIUS = 1;
+
+    /**
+     * The number of roots from which on end points are classified with a {@link RootGrid} instead of looking at every root.
+     */
+    public static final int GRID_MIN_ROOTS = 8;
+
+    /**
+     * Marks a result of {@link #findRoot(double[], int, int)} whose point will not change any more.
+     */
+    private static final long STOPPED = 1L << 32;
+
+    /**
+     * The position of the index of the capturing root in the result of {@link #iterate}.
+     */
+    private static final int CAPTURED_ROOT_SHIFT = 40;
+
+
+    private final double[] coefficients;
+    private final double[] imaginaryCoefficients;
+    private final boolean complexCoefficients;
+
+    private final IterationMap map;
+    // The map unpacked for the loop of iterate
+    private final boolean secondDerivative;
+    private final double curvatureWeight;
+    private final boolean relaxed;
+    private final double relaxationReal;
+    private final double relaxationImaginary;
+    private final boolean nova;
+
+    private final double[] rootsReal;
+    private final double[] rootsImaginary;
+    private final double[] captureRadiiSquared;
+
+    /**
+     * The grid over the roots, or null if there are too few roots for it to pay off.
+     */
+    private final RootGrid grid;
+
+
+    /**
+     * Constructs a {@code NewtonKernel}.
+     * @param polynomial the polynomial to apply the newton's method to
+     * @param roots the roots of the polynomial, used to classify end points
+     */
+    public NewtonKernel(ComplexPolynomial polynomial, List<ComplexNumber> roots) {
+        this(polynomial, roots, IterationMap.NEWTON);
+    }
+
+    /**
+     * Constructs a {@code NewtonKernel} which applies another map than the plain newton's method.
+     * @param polynomial the polynomial to apply the map to
+     * @param roots the roots of the polynomial, used to classify end points
+     * @param map the map applied in every step
+     */
+    public NewtonKernel(ComplexPolynomial polynomial, List<ComplexNumber> roots, IterationMap map) {
+        this.coefficients = polynomial.coefficients();
+        this.imaginaryCoefficients = polynomial.imaginaryCoefficients();
+        this.complexCoefficients = !polynomial.isReal();
+
+        this.map = map;
+        this.secondDerivative = map.method() != IterationMap.Method.NEWTON;
+        // p'' is twice the curvature computed by the horner scheme
+        this.curvatureWeight = 2 * map.method().secondDerivativeWeight();
+        this.relaxed = map.isRelaxed();
+        this.relaxationReal = map.relaxationReal();
+        this.relaxationImaginary = map.relaxationImaginary();
+        this.nova = map.isNova();
+
+        this.rootsReal = new double[roots.size()];
+        this.rootsImaginary = new double[roots.size()];
+        for (int i = 0; i < roots.size(); i++) {
+            rootsReal[i] = roots.get(i).real();
+            rootsImaginary[i] = roots.get(i).imaginary();
+        }
+
+        this.captureRadiiSquared = new double[roots.size()];
+        for (int i = 0; i < roots.size(); i++) {
+            double closest = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < roots.size(); j++) {
+                if(i != j) {
+                    double dRe = rootsReal[i] - rootsReal[j];
+                    double dIm = rootsImaginary[i] - rootsImaginary[j];
+                    closest = Math.min(closest, dRe * dRe + dIm * dIm);
+                }
+            }
+            captureRadiiSquared[i] = roots.size() == 1 ? SINGLE_ROOT_CAPTURE_RADIUS * SINGLE_ROOT_CAPTURE_RADIUS
+                                                       : CAPTURE_FACTOR * CAPTURE_FACTOR * closest;
+        }
+
+        boolean finite = true;
+        for (int i = 0; i < roots.size(); i++) {
+            finite &= Double.isFinite(rootsReal[i]) && Double.isFinite(rootsImaginary[i]);
+        }
+        this.grid = finite && roots.size() >= GRID_MIN_ROOTS ? new RootGrid(rootsReal, rootsImaginary, captureRadiiSquared) : null;
+    }
+
+
+    /**
+     * Packs the outcome of the newton's method for one pixel into an int.
+     * @param rootIndex the index of the root, or {@link TileRenderer#NO_ROOT}
+     * @param iterations the number of times the newton's method was applied, clamped to 65535
+     * @return the packed result
+     */
+    public static int result(int rootIndex, int iterations) {
+        return (Math.min(iterations, 0xFFFF) << 16) | (rootIndex & 0xFFFF);
+    }
+
+    /**
+     * @param result a result packed by {@link #result(int, int)}
+     * @return the index of the root, or {@link TileRenderer#NO_ROOT}
+     */
+    public static int rootIndex(int result) {
+        return (short) result;
+    }
+
+    /**
+     * @param result a result packed by {@link #result(int, int)}
+     * @return the number of times the newton's method was applied
+     */
+    public static int iterations(int result) {
+        return result >>> 16;
+    }
+
+
+    /**
+     * @return a copy of the real parts of the coefficients of the polynomial, the first one belonging to x^0
+     */
+    public double[] coefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * @return a copy of the imaginary parts of the coefficients of the polynomial, the first one belonging to x^0
+     */
+    public double[] imaginaryCoefficients() {
+        return imaginaryCoefficients.clone();
+    }
+
+    /**
+     * @return the map applied in every step
+     */
+    public IterationMap iterationMap() {
+        return map;
+    }
+
+    /**
+     * @return whether this kernel applies the plain newton's method to a polynomial with real coefficients
+     */
+    public boolean isPlainNewton() {
+        return map.isNewton() && !complexCoefficients;
+    }
+
+    /**
+     * @return the number of roots end points are classified against
+     */
+    public int rootCount() {
+        return rootsReal.length;
+    }
+
+    /**
+     * @param rootIndex the index of a root
+     * @return the real part of the root
+     */
+    public double rootReal(int rootIndex) {
+        return rootsReal[rootIndex];
+    }
+
+    /**
+     * @param rootIndex the index of a root
+     * @return the imaginary part of the root
+     */
+    public double rootImaginary(int rootIndex) {
+        return rootsImaginary[rootIndex];
+    }
+
+    /**
+     * @param rootIndex the index of a root
+     * @return the square of the radius in which points are captured by the root
+     */
+    public double captureRadiusSquared(int rootIndex) {
+        return captureRadiiSquared[rootIndex];
+    }
+
+
+    /**
+     * Approximates one root of the polynomial.
+     * With the plain newton's method it computes the same steps as {@link Newton#newtonComplex(ComplexPolynomial, ComplexNumber, int)},
+     * evaluating the polynomial and its slope with the horner scheme, other maps take their own steps.
+     * @param z the start point as {real, imaginary}, or the pixel of a nova map, overwritten with the end point
+     * @param maxIterations the maximal number of times the newton method will be applied
+     * @return the number of times the newton method was applied
+     */
+    public int newton(double[] z, int maxIterations) {
+        double cRe = z[0], cIm = z[1];
+        if(nova) {
+            z[0] = map.startReal();
+            z[1] = map.startImaginary();
+        }
+        return (int) iterate(z, cRe, cIm, 0, maxIterations, false);
+    }
+
+
+    /**
+     * Applies the newton's method to a point and determines the root it converges to.
+     * @param z the start point as {real, imaginary}, overwritten with the end point
+     * @param maxIterations the maximal number of times the newton method will be applied
+     * @param convergence when to stop applying the newton's method
+     * @return the root index and the number of iterations, packed by {@link #result(int, int)}
+     */
+    public int solve(double[] z, int maxIterations, Convergence convergence) {
+        if(convergence == Convergence.FIXED_STEPS) {
+            int iterations = newton(z, maxIterations);
+            return result(nearestRoot(z[0], z[1]), iterations);
+        }
+        return findRoot(z, maxIterations);
+    }
+
+
+    @Override
+    public void solve(double[] real, double[] imaginary, int count, int maxIterations, Convergence convergence, int[] results) {
+        double[] z = new double[2];
+        for (int i = 0; i < count; i++) {
+            z[0] = real[i];
+            z[1] = imaginary[i];
+            results[i] = solve(z, maxIterations, convergence);
+            real[i] = z[0];
+            imaginary[i] = z[1];
+        }
+    }
+
+
+    /**
+     * Approximates one root of the polynomial, stopping as soon as the result is certain.
+     * This is the case when the step or the value of the polynomial drops below {@link Newton#EPSILON},
+     * or when the point comes within the capture radius of a root.
+     * @param z the start point as {real, imaginary}, overwritten with the end point
+     * @param maxIterations the maximal number of times the newton method will be applied
+     * @return the root index and the number of iterations, packed by {@link #result(int, int)}
+     */
+    public int findRoot(double[] z, int maxIterations) {
+        return (int) findRoot(z, 0, maxIterations);
+    }
+
+
+    /**
+     * Continues the newton's method for a point it has been applied to before, giving the same result as
+     * applying it to the start point again with the higher maximum.
+     * Raising the maximum one by one therefore costs one step per point instead of all steps again.
+     * @param z the end point of the earlier call, or the start point if {@code iterations} is 0, as {real, imaginary},
+     *          overwritten with the new end point
+     * @param iterations the number of iterations of the earlier call
+     * @param maxIterations the maximal number of times the newton method will be applied in total, at most {@code Short.MAX_VALUE}
+     * @param convergence when to stop applying the newton's method
+     * @return the root index and the number of iterations packed by {@link #result(int, int)} like {@link #solve(double[], int, Convergence)};
+     *         its bitwise complement, a negative number, once the point stopped for another reason than the maximum,
+     *         then the result will not change for any higher maximum
+     * @throws IllegalStateException if this kernel applies a nova map, whose pixel is not known any more after the first step
+     */
+    public int resume(double[] z, int iterations, int maxIterations, Convergence convergence) {
+        if(maxIterations > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("at most " + Short.MAX_VALUE + " iterations can be resumed, were " + maxIterations);
+        }
+        if(nova) {
+            throw new IllegalStateException("a nova map can not be resumed");
+        }
+        if(convergence == Convergence.FIXED_STEPS) {
+            if(!stoppedAtOrigin(z, iterations)) {
+                iterations += newton(z, maxIterations - iterations);
+            }
+            int result = result(nearestRoot(z[0], z[1]), iterations);
+            return stoppedAtOrigin(z, iterations) ? ~result : result;
+        }
+        long result = findRoot(z, iterations, maxIterations);
+        return (result & STOPPED) != 0 ? ~(int) result : (int) result;
+    }
+
+    /**
+     * @return whether {@link #newton(double[], int)} stopped early at the origin
+     */
+    private static boolean stoppedAtOrigin(double[] z, int iterations) {
+        return iterations > 0 && Math.sqrt(z[0] * z[0] + z[1] * z[1]) < Newton.EPSILON;
+    }
+
+
+    /**
+     * Continues {@link #findRoot(double[], int)} after {@code iteration} iterations.
+     * @return the result, with {@link #STOPPED} set if the point stopped for another reason than the maximum
+     */
+    private long findRoot(double[] z, int iteration, int maxIterations) {
+        double cRe = z[0], cIm = z[1];
+        if(nova) {
+            z[0] = map.startReal();
+            z[1] = map.startImaginary();
+        }
+
+        long iterated = iterate(z, cRe, cIm, iteration, maxIterations, true);
+
+        int root = (short) (iterated >>> CAPTURED_ROOT_SHIFT);
+        if(root == TileRenderer.NO_ROOT) {
+            root = nearestRoot(z[0], z[1]);
+        }
+        long result = result(root, (int) iterated) & 0xFFFFFFFFL;
+        return result | (iterated & STOPPED);
+    }
+
+
+    /**
+     * Applies the map to a point until {@code maxIterations} is reached or, in the early exit mode, the point has converged:
+     * its step or the value of the polynomial dropped below {@link Newton#EPSILON} or it came close enough to a root to be captured.
+     * Without early exit it only stops at the origin, like {@link Newton#newtonComplex(ComplexPolynomial, ComplexNumber, int)}.
+     * Nova maps are never captured by a root and do not stop on the value of the polynomial, as the roots are not their fixed points.
+     * @param z the current point as {real, imaginary}, overwritten with the end point
+     * @param cRe the real part of the pixel added in every step of a nova map
+     * @param cIm the imaginary part of the pixel added in every step of a nova map
+     * @param iteration the number of iterations applied so far
+     * @param earlyExit whether to stop as soon as the point has converged
+     * @return the number of iterations in the lower 32 bits, {@link #STOPPED} if the point converged early,
+     *         and the index of the capturing root or {@link TileRenderer#NO_ROOT} at {@link #CAPTURED_ROOT_SHIFT}
+     */
+    private long iterate(double[] z, double cRe, double cIm, int iteration, int maxIterations, boolean earlyExit) {
+        double re = z[0], im = z[1];
+        int root = TileRenderer.NO_ROOT;
+        boolean stopped = false;
+        double epsilonSquared = Newton.EPSILON * Newton.EPSILON;
+
+        while (iteration < maxIterations) {
+            if(earlyExit && !nova) {
+                root = capturingRoot(re, im);
+                if(root != TileRenderer.NO_ROOT) {
+                    stopped = true;
+                    break;
+                }
+            }
+
+            // p(z) and p'(z), and p''(z) / 2 if the map needs it, in a single pass of the horner scheme
+            double valueRe = 0, valueIm = 0, slopeRe = 0, slopeIm = 0, curvatureRe = 0, curvatureIm = 0;
+            if(secondDerivative) {
+                for (int i = coefficients.length - 1; i >= 0; i--) {
+                    double tempRe = (curvatureRe * re) - (curvatureIm * im) + slopeRe;
+                    curvatureIm = (curvatureRe * im) + (curvatureIm * re) + slopeIm;
+                    curvatureRe = tempRe;
+
+                    tempRe = (slopeRe * re) - (slopeIm * im) + valueRe;
+                    slopeIm = (slopeRe * im) + (slopeIm * re) + valueIm;
+                    slopeRe = tempRe;
+
+                    tempRe = (valueRe * re) - (valueIm * im) + coefficients[i];
+                    valueIm = (valueRe * im) + (valueIm * re) + imaginaryCoefficients[i];
+                    valueRe = tempRe;
+                }
+            }else if(complexCoefficients) {
+                for (int i = coefficients.length - 1; i >= 0; i--) {
+                    double tempRe = (slopeRe * re) - (slopeIm * im) + valueRe;
+                    slopeIm = (slopeRe * im) + (slopeIm * re) + valueIm;
+                    slopeRe = tempRe;
+
+                    tempRe = (valueRe * re) - (valueIm * im) + coefficients[i];
+                    valueIm = (valueRe * im) + (valueIm * re) + imaginaryCoefficients[i];
+                    valueRe = tempRe;
+                }
+            }else {
+                for (int i = coefficients.length - 1; i >= 0; i--) {
+                    double tempRe = (slopeRe * re) - (slopeIm * im) + valueRe;
+                    slopeIm = (slopeRe * im) + (slopeIm * re) + valueIm;
+                    slopeRe = tempRe;
+
+                    tempRe = (valueRe * re) - (valueIm * im) + coefficients[i];
+                    valueIm = (valueRe * im) + (valueIm * re);
+                    valueRe = tempRe;
+                }
+            }
+
+            if(earlyExit && !nova && valueRe * valueRe + valueIm * valueIm < epsilonSquared) {
+                stopped = true;
+                break;
+            }
+
+            // Fixing the issue when the slope at a given point is 0 and therefore would lead to a division by zero
+            if(slopeRe == 0 && slopeIm == 0) {
+                slopeRe = Double.MIN_VALUE;
+                slopeIm = Double.MIN_VALUE;
+            }
+
+            // p(z) / p'(z), multiplied with the conjugate of p'(z) like ComplexNumber.divide
+            double conjIm = -slopeIm;
+            double denominator = (slopeRe * slopeRe) - (slopeIm * conjIm);
+            double quotientRe = ((valueRe * slopeRe) - (valueIm * conjIm)) / denominator;
+            double quotientIm = ((valueIm * slopeRe) + (valueRe * conjIm)) / denominator;
+
+            if(secondDerivative) {
+                // t = k * p(z)/p'(z) * p''(z)/p'(z), the step becomes p(z)/p'(z) / (1 - t)
+                double ratioRe = ((curvatureRe * slopeRe) - (curvatureIm * conjIm)) / denominator;
+                double ratioIm = ((curvatureIm * slopeRe) + (curvatureRe * conjIm)) / denominator;
+                double correctionRe = 1 - curvatureWeight * ((quotientRe * ratioRe) - (quotientIm * ratioIm));
+                double correctionIm = -curvatureWeight * ((quotientRe * ratioIm) + (quotientIm * ratioRe));
+                double correction = (correctionRe * correctionRe) + (correctionIm * correctionIm);
+                // Where the correction vanishes the plain newton step is taken
+                if(correction != 0) {
+                    double tempRe = ((quotientRe * correctionRe) + (quotientIm * correctionIm)) / correction;
+                    quotientIm = ((quotientIm * correctionRe) - (quotientRe * correctionIm)) / correction;
+                    quotientRe = tempRe;
+                }
+            }
+            if(relaxed) {
+                double tempRe = (relaxationReal * quotientRe) - (relaxationImaginary * quotientIm);
+                quotientIm = (relaxationReal * quotientIm) + (relaxationImaginary * quotientRe);
+                quotientRe = tempRe;
+            }
+            if(nova) {
+                // The point moves by c - step
+                quotientRe -= cRe;
+                quotientIm -= cIm;
+            }
+
+            re -= quotientRe;
+            im -= quotientIm;
+            iteration++;
+
+            if(earlyExit) {
+                if(quotientRe * quotientRe + quotientIm * quotientIm < epsilonSquared) {
+                    stopped = true;
+                    break;
+                }
+            }else if(Math.sqrt(re * re + im * im) < Newton.EPSILON) {
+                break;
+            }
+        }
+
+        z[0] = re;
+        z[1] = im;
+
+        long result = (iteration & 0xFFFFFFFFL) | ((long) (root & 0xFFFF) << CAPTURED_ROOT_SHIFT);
+        return stopped ? result | STOPPED : result;
+    }
+
+
+    /**
+     * Finds the root whose capture radius contains a point.
+     * @param re the real part of the point
+     * @param im the imaginary part of the point
+     * @return the index of the root, or {@link TileRenderer#NO_ROOT} if the point is not close enough to any root
+     */
+    public int capturingRoot(double re, double im) {
+        if(grid != null) {
+            return grid.capturingRoot(re, im);
+        }
+        return scanCapturingRoot(re, im);
+    }
+
+    /**
+     * Finds the root whose capture radius contains a point by looking at every root.
+     * @param re the real part of the point
+     * @param im the imaginary part of the point
+     * @return the index of the root, or {@link TileRenderer#NO_ROOT} if the point is not close enough to any root
+     */
+    public int scanCapturingRoot(double re, double im) {
+        for (int i = 0; i < rootsReal.length; i++) {
+            double dRe = rootsReal[i] - re;
+            double dIm = rootsImaginary[i] - im;
+            if(dRe * dRe + dIm * dIm < captureRadiiSquared[i]) {
+                return i;
+            }
+        }
+        return TileRenderer.NO_ROOT;
+    }
+
+
+    /**
+     * Finds the root that is closest to a point.
+     * @param re the real part of the point
+     * @param im the imaginary part of the point
+     * @return the index of the nearest root, or {@link TileRenderer#NO_ROOT} if the distance to every root is undefined
+     */
+    public int nearestRoot(double re, double im) {
+        if(grid != null) {
+            int nearest = grid.nearestRoot(re, im);
+            if(nearest != TileRenderer.NO_ROOT) {
+                return nearest;
+            }
+        }
+        return scanNearestRoot(re, im);
+    }
+
+    /**
+     * Finds the root that is closest to a point by looking at every root.
+     * @param re the real part of the point
+     * @param im the imaginary part of the point
+     * @return the index of the nearest root, or {@link TileRenderer#NO_ROOT} if the distance to every root is undefined
+     */
+    public int scanNearestRoot(double re, double im) {
+        int nearest = TileRenderer.NO_ROOT;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < rootsReal.length; i++) {
+            double dRe = rootsReal[i] - re;
+            double dIm = rootsImaginary[i] - im;
+            double distance = dRe * dRe + dIm * dIm;
+            if(distance < nearestDistance || (nearest == TileRenderer.NO_ROOT && distance == nearestDistance)) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+}
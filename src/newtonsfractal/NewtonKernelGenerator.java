@@ -0,0 +1,312 @@
+package newtonsfractal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Generates a {@code NewtonSolver} specialized for one polynomial: the source of a class whose horner scheme is unrolled,
+ * with the coefficients as constants and every term of a zero coefficient or zero imaginary part left out,
+ * which is compiled in memory with the system java compiler and loaded as a hidden class.
+ * The generated solver applies the plain newton's method with the same steps as {@link NewtonKernel}.
+ * Leaving out a product with 0 only makes a difference once the point is infinite or NaN, where the {@code NewtonKernel}
+ * computes 0 * infinity = NaN, so such points are solved again by the {@code NewtonKernel}.
+ * Leaving out the addition of 0 can change the sign of a zero, which does not change a root or a number of iterations,
+ * only the sign of a zero part of an end point.
+ * <p>
+ * Compiling takes a while, so the generated classes of the last {@link #CACHE_SIZE} polynomials are kept.
+ * Without a java compiler, like on a runtime image without the {@code java.compiler} module, nothing can be generated.
+ */
+public final class NewtonKernelGenerator {
+
+    /**
+     * The number of polynomials whose generated classes are kept.
+     */
+    public static final int CACHE_SIZE = 16;
+
+    private static final String CLASS_NAME = "GeneratedNewtonKernel";
+
+    /**
+     * The constructors of the generated classes, by the coefficients of their polynomial.
+     */
+    private static final Map<String, MethodHandle> CONSTRUCTORS = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MethodHandle> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private NewtonKernelGenerator() {
+    }
+
+
+    /**
+     * Creates a solver specialized for the polynomial of a kernel, generating its class unless it has been generated before.
+     * @param kernel the kernel of the polynomial, which classifies the end points
+     * @return the specialized solver
+     * @throws IllegalArgumentException if the kernel does not apply the plain newton's method
+     * @throws IllegalStateException if the class can not be generated, for example because there is no java compiler
+     */
+    public static NewtonSolver create(NewtonKernel kernel) {
+        if(!kernel.iterationMap().isNewton()) {
+            throw new IllegalArgumentException("only the plain newton's method can be generated, not " + kernel.iterationMap());
+        }
+        double[] coefficients = kernel.coefficients();
+        double[] imaginaryCoefficients = kernel.imaginaryCoefficients();
+        String key = Arrays.toString(coefficients) + Arrays.toString(imaginaryCoefficients);
+
+        MethodHandle constructor;
+        synchronized (CONSTRUCTORS) {
+            constructor = CONSTRUCTORS.get(key);
+        }
+        if(constructor == null) {
+            // Compiled outside of the lock, two threads may compile the same polynomial once at the start of a render
+            constructor = compile(source(coefficients, imaginaryCoefficients));
+            synchronized (CONSTRUCTORS) {
+                CONSTRUCTORS.put(key, constructor);
+            }
+        }
+
+        try {
+            return (NewtonSolver) constructor.invoke(kernel);
+        } catch (Throwable e) {
+            throw new IllegalStateException("the generated kernel can not be constructed", e);
+        }
+    }
+
+
+    /**
+     * Generates the source of a solver specialized for a polynomial.
+     * @param coefficients the real parts of the coefficients, the first one belonging to x^0
+     * @param imaginaryCoefficients the imaginary parts of the coefficients
+     * @return the source of the class {@code GeneratedNewtonKernel} in this package, whose constructor takes the {@code NewtonKernel} of the polynomial
+     */
+    public static String source(double[] coefficients, double[] imaginaryCoefficients) {
+        StringBuilder horner = new StringBuilder();
+        // The parts of p(z) and p'(z) so far, each a constant or the name of a local variable
+        String valueRe = "0", valueIm = "0", slopeRe = "0", slopeIm = "0";
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            String nextSlopeRe = multiplyAdd(slopeRe, slopeIm, valueRe, true);
+            String nextSlopeIm = multiplyAdd(slopeRe, slopeIm, valueIm, false);
+            String nextValueRe = multiplyAdd(valueRe, valueIm, constant(coefficients[i]), true);
+            String nextValueIm = multiplyAdd(valueRe, valueIm, constant(imaginaryCoefficients[i]), false);
+
+            slopeRe = assign(horner, "slopeRe" + i, nextSlopeRe);
+            slopeIm = assign(horner, "slopeIm" + i, nextSlopeIm);
+            valueRe = assign(horner, "valueRe" + i, nextValueRe);
+            valueIm = assign(horner, "valueIm" + i, nextValueIm);
+        }
+
+        // A hidden class has to be in the package of the class defining it
+        return "package " + NewtonKernelGenerator.class.getPackageName() + ";\n"
+               + "\n"
+               + "public final class " + CLASS_NAME + " implements NewtonSolver {\n"
+               + "    private final NewtonKernel kernel;\n"
+               + "\n"
+               + "    public " + CLASS_NAME + "(NewtonKernel kernel) {\n"
+               + "        this.kernel = kernel;\n"
+               + "    }\n"
+               + "\n"
+               + "    @Override\n"
+               + "    public void solve(double[] real, double[] imaginary, int count, int maxIterations, NewtonKernel.Convergence convergence, int[] results) {\n"
+               + "        boolean earlyExit = convergence == NewtonKernel.Convergence.EARLY_EXIT;\n"
+               + "        double epsilonSquared = Newton.EPSILON * Newton.EPSILON;\n"
+               + "        for (int p = 0; p < count; p++) {\n"
+               + "            double re = real[p], im = imaginary[p];\n"
+               + "            int root = TileRenderer.NO_ROOT;\n"
+               + "            int iteration = 0;\n"
+               + "            boolean finite = true;\n"
+               + "            while (iteration < maxIterations) {\n"
+               + "                if(!Double.isFinite(re) || !Double.isFinite(im)) {\n"
+               + "                    finite = false;\n"
+               + "                    break;\n"
+               + "                }\n"
+               + "                if(earlyExit) {\n"
+               + "                    root = kernel.capturingRoot(re, im);\n"
+               + "                    if(root != TileRenderer.NO_ROOT) {\n"
+               + "                        break;\n"
+               + "                    }\n"
+               + "                }\n"
+               + "\n"
+               + horner
+               + "                double valueRe = " + valueRe + ", valueIm = " + valueIm + ";\n"
+               + "                double slopeRe = " + slopeRe + ", slopeIm = " + slopeIm + ";\n"
+               + "\n"
+               + "                if(earlyExit && valueRe * valueRe + valueIm * valueIm < epsilonSquared) {\n"
+               + "                    break;\n"
+               + "                }\n"
+               + "                if(slopeRe == 0 && slopeIm == 0) {\n"
+               + "                    slopeRe = Double.MIN_VALUE;\n"
+               + "                    slopeIm = Double.MIN_VALUE;\n"
+               + "                }\n"
+               + "                double conjIm = -slopeIm;\n"
+               + "                double denominator = (slopeRe * slopeRe) - (slopeIm * conjIm);\n"
+               + "                double quotientRe = ((valueRe * slopeRe) - (valueIm * conjIm)) / denominator;\n"
+               + "                double quotientIm = ((valueIm * slopeRe) + (valueRe * conjIm)) / denominator;\n"
+               + "\n"
+               + "                re -= quotientRe;\n"
+               + "                im -= quotientIm;\n"
+               + "                iteration++;\n"
+               + "\n"
+               + "                if(earlyExit) {\n"
+               + "                    if(quotientRe * quotientRe + quotientIm * quotientIm < epsilonSquared) {\n"
+               + "                        break;\n"
+               + "                    }\n"
+               + "                }else if(Math.sqrt(re * re + im * im) < Newton.EPSILON) {\n"
+               + "                    break;\n"
+               + "                }\n"
+               + "            }\n"
+               + "\n"
+               + "            if(!finite) {\n"
+               + "                // The left out products with 0 would have been NaN\n"
+               + "                double[] z = {real[p], imaginary[p]};\n"
+               + "                results[p] = kernel.solve(z, maxIterations, convergence);\n"
+               + "                real[p] = z[0];\n"
+               + "                imaginary[p] = z[1];\n"
+               + "                continue;\n"
+               + "            }\n"
+               + "            real[p] = re;\n"
+               + "            imaginary[p] = im;\n"
+               + "            if(root == TileRenderer.NO_ROOT) {\n"
+               + "                root = kernel.nearestRoot(re, im);\n"
+               + "            }\n"
+               + "            results[p] = NewtonKernel.result(root, iteration);\n"
+               + "        }\n"
+               + "    }\n"
+               + "}\n";
+    }
+
+
+    /**
+     * Builds one part of {@code x * z + addend} like the horner scheme of {@code NewtonKernel}, {@code (xRe * re) - (xIm * im) + addend}
+     * for the real part and {@code (xRe * im) + (xIm * re) + addend} for the imaginary part, leaving out the terms that are 0.
+     * Multiplying with 0 is only left out because the generated solver hands points that are not finite to the {@code NewtonKernel}.
+     * @return the expression, or {@code "0"} if all terms are 0
+     */
+    private static String multiplyAdd(String xRe, String xIm, String addend, boolean realPart) {
+        String first = product(xRe, realPart ? "re" : "im");
+        String second = product(xIm, realPart ? "im" : "re");
+        String expression = first;
+        if(!second.equals("0")) {
+            String operator = realPart ? " - " : " + ";
+            expression = expression.equals("0") ? (realPart ? "-" + second : second) : expression + operator + second;
+        }
+        if(!addend.equals("0")) {
+            if(expression.equals("0")) {
+                expression = addend;
+            }else {
+                // x + -c and x - c are the same
+                expression += addend.startsWith("-") ? " - " + addend.substring(1) : " + " + addend;
+            }
+        }
+        return expression;
+    }
+
+    /**
+     * @return the product of a part of a complex number and a part of the point, {@code "0"} if the part is 0
+     */
+    private static String product(String factor, String part) {
+        switch (factor) {
+            case "0":   return "0";
+            case "1.0": return part;
+            case "-1.0": return "(-" + part + ")";
+            default:    return "(" + factor + " * " + part + ")";
+        }
+    }
+
+    private static String constant(double value) {
+        return value == 0 ? "0" : Double.toString(value);
+    }
+
+    /**
+     * Stores an expression in a local variable, constants are used as they are.
+     * @return the name of the variable or the constant
+     */
+    private static String assign(StringBuilder code, String name, String expression) {
+        if(expression.equals("0") || isConstant(expression)) {
+            return expression;
+        }
+        code.append("                double ").append(name).append(" = ").append(expression).append(";\n");
+        return name;
+    }
+
+    private static boolean isConstant(String expression) {
+        try {
+            Double.parseDouble(expression);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Compiles the source of a generated class in memory and defines it as a hidden class next to this one.
+     * @return the constructor of the class, taking a {@code NewtonKernel}
+     */
+    private static MethodHandle compile(String source) {
+        JavaCompiler compiler;
+        try {
+            compiler = ToolProvider.getSystemJavaCompiler();
+        } catch (LinkageError e) {
+            compiler = null;
+        }
+        if(compiler == null) {
+            throw new IllegalStateException("no java compiler available");
+        }
+
+        ByteArrayOutputStream classFile = new ByteArrayOutputStream();
+        JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + CLASS_NAME + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        StandardJavaFileManager standardManager = compiler.getStandardFileManager(null, null, null);
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(standardManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("bytes:///" + className + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return classFile;
+                    }
+                };
+            }
+        };
+
+        StringWriter errors = new StringWriter();
+        List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-proc:none", "-g:none");
+        boolean compiled = compiler.getTask(errors, fileManager, null, options, null, List.of(sourceFile)).call();
+        if(!compiled) {
+            throw new IllegalStateException("the generated kernel does not compile:\n" + errors);
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile.toByteArray(), true);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, NewtonKernel.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("the generated kernel can not be loaded", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package newtonsfractal;
+
+/**
+ * Applies the newton's method to many start points at once.
+ * Implementations have to give exactly the same results as {@link NewtonKernel#solve(double[], int, NewtonKernel.Convergence)},
+ * so that a fractal does not depend on the backend it was rendered with.
+ */
+public interface NewtonSolver {
+
+    /**
+     * The implementations of {@code NewtonSolver} a renderer can choose from.
+     */
+    enum Backend {
+        /**
+         * Solves one point after another with the {@code NewtonKernel}.
+         */
+        SCALAR,
+        /**
+         * Solves several points at once in the lanes of SIMD registers, using the {@code jdk.incubator.vector} module.
+         * Falls back to {@link #SCALAR} if the module or the {@code VectorNewtonKernel} class is not available,
+         * and for kernels that do not apply the plain newton's method to real coefficients, see {@link NewtonKernel#isPlainNewton()}.
+         */
+        VECTOR,
+        /**
+         * Solves one point after another with a class generated for the polynomial by the {@link NewtonKernelGenerator},
+         * whose horner scheme is unrolled with the coefficients as constants.
+         * Falls back to {@link #SCALAR} if there is no java compiler, and for kernels that do not apply the plain newton's method.
+         */
+        GENERATED,
+        /**
+         * Solves twice as many points at once as {@link #VECTOR} in floats, which suffice for overview renders.
+         * Points whose root or iterations the rounding errors of floats might change are solved again in doubles,
+         * see {@code VectorFloatNewtonKernel}. Used like {@link #VECTOR} for viewports whose pixels floats can not tell apart,
+         * see {@link Viewport#isFloatPrecise(java.util.List)}, and falls back to it if the {@code VectorFloatNewtonKernel} class is not available.
+         */
+        FLOAT;
+
+        private static volatile boolean vectorUnavailableReported;
+        private static volatile boolean floatUnavailableReported;
+        private static volatile boolean generatorUnavailableReported;
+
+        /**
+         * Creates the solver of this backend.
+         * @param kernel the kernel of the polynomial to solve
+         * @return the solver
+         */
+        public NewtonSolver create(NewtonKernel kernel) {
+            if(this == VECTOR && kernel.isPlainNewton()) {
+                try {
+                    return (NewtonSolver) Class.forName("newtonsfractal.VectorNewtonKernel").getConstructor(NewtonKernel.class).newInstance(kernel);
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    if(!vectorUnavailableReported) {
+                        vectorUnavailableReported = true;
+                        System.err.println("Vector backend not available (" + e + "), falling back to the scalar backend. "
+                                           + "Compile src-incubator and run with --add-modules jdk.incubator.vector to use it.");
+                    }
+                }
+            }
+            if(this == FLOAT && kernel.isPlainNewton()) {
+                try {
+                    return (NewtonSolver) Class.forName("newtonsfractal.VectorFloatNewtonKernel").getConstructor(NewtonKernel.class).newInstance(kernel);
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    if(!floatUnavailableReported) {
+                        floatUnavailableReported = true;
+                        System.err.println("Float backend not available (" + e + "), falling back to the vector backend.");
+                    }
+                    return VECTOR.create(kernel);
+                }
+            }
+            if(this == GENERATED && kernel.iterationMap().isNewton()) {
+                try {
+                    return NewtonKernelGenerator.create(kernel);
+                } catch (IllegalStateException | LinkageError e) {
+                    if(!generatorUnavailableReported) {
+                        generatorUnavailableReported = true;
+                        System.err.println("Generated backend not available (" + e.getMessage() + "), falling back to the scalar backend.");
+                    }
+                }
+            }
+            return kernel;
+        }
+    }
+
+
+    /**
+     * Applies the newton's method to a number of start points and determines the root each one converges to.
+     * @param real the real parts of the start points, overwritten with the end points
+     * @param imaginary the imaginary parts of the start points, overwritten with the end points
+     * @param count the number of points, starting at index 0
+     * @param maxIterations the maximal number of times the newton method will be applied to a point
+     * @param convergence when to stop applying the newton's method
+     * @param results receives the root index and the number of iterations of every point, packed by {@link NewtonKernel#result(int, int)}
+     */
+    void solve(double[] real, double[] imaginary, int count, int maxIterations, NewtonKernel.Convergence convergence, int[] results);
+}
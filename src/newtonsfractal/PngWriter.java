@@ -0,0 +1,185 @@
+package newtonsfractal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an 8 bit RGB PNG image row by row, so that the whole image never has to be held in memory.
+ * The rows are compressed as they arrive and written to the file in IDAT chunks.
+ */
+public class PngWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The maximal size of the data of one IDAT chunk in bytes.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final byte FILTER_SUB = 1;
+
+    private static final int BYTES_PER_PIXEL = 3;
+
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] row;
+    private final byte[] deflated = new byte[CHUNK_SIZE];
+    private int deflatedLength;
+
+    private int rowsWritten;
+
+
+    /**
+     * Creates the file and writes the PNG header.
+     * @param path the file to write the image to
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @throws IOException if the file can not be written
+     */
+    public PngWriter(Path path, int width, int height) throws IOException {
+        if(width < 1 || height < 1) {
+            throw new IllegalArgumentException("the image must at least be 1x1 pixels, was " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.row = new byte[1 + width * BYTES_PER_PIXEL];
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        writeFully(ByteBuffer.wrap(SIGNATURE));
+
+        ByteBuffer header = ByteBuffer.allocate(13);
+        header.putInt(width);
+        header.putInt(height);
+        header.put((byte) 8);  // bit depth
+        header.put((byte) 2);  // color type RGB
+        header.put((byte) 0);  // compression method
+        header.put((byte) 0);  // filter method
+        header.put((byte) 0);  // no interlace
+        writeChunk("IHDR", header.array(), 13);
+    }
+
+
+    /**
+     * @return the number of rows written so far
+     */
+    public int rowsWritten() {
+        return rowsWritten;
+    }
+
+
+    /**
+     * Compresses and writes the next rows of the image.
+     * The alpha channel of the pixels is ignored.
+     * @param pixels the packed ARGB pixels of the rows in row-major order
+     * @param rowCount the number of rows in {@code pixels}
+     * @throws IOException if the file can not be written
+     */
+    public void writeRows(int[] pixels, int rowCount) throws IOException {
+        if(rowsWritten + rowCount > height) {
+            throw new IllegalStateException("the image only has " + height + " rows");
+        }
+
+        for (int y = 0; y < rowCount; y++) {
+            row[0] = FILTER_SUB;
+            int previous = 0;
+            for (int x = 0; x < width; x++) {
+                int pixel = pixels[y * width + x];
+                int offset = 1 + x * BYTES_PER_PIXEL;
+                row[offset]     = (byte) ((pixel >> 16) - (previous >> 16));
+                row[offset + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+                row[offset + 2] = (byte) (pixel - previous);
+                previous = pixel;
+            }
+
+            deflater.setInput(row);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+
+        rowsWritten += rowCount;
+    }
+
+
+    /**
+     * Finishes the compressed data and writes the end of the image.
+     * @throws IOException if the file can not be written or not all rows have been written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if(rowsWritten != height) {
+                throw new IOException("only " + rowsWritten + " of " + height + " rows have been written");
+            }
+
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            if(deflatedLength > 0) {
+                writeChunk("IDAT", deflated, deflatedLength);
+                deflatedLength = 0;
+            }
+
+            writeChunk("IEND", deflated, 0);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+
+    /**
+     * Compresses pending input into the chunk buffer and writes the chunk once it is full.
+     */
+    private void deflate() throws IOException {
+        deflatedLength += deflater.deflate(deflated, deflatedLength, CHUNK_SIZE - deflatedLength);
+        if(deflatedLength == CHUNK_SIZE) {
+            writeChunk("IDAT", deflated, deflatedLength);
+            deflatedLength = 0;
+        }
+    }
+
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        ByteBuffer head = ByteBuffer.allocate(8);
+        head.putInt(length);
+        head.put(typeBytes);
+        head.flip();
+
+        ByteBuffer tail = ByteBuffer.allocate(4);
+        tail.putInt((int) crc.getValue());
+        tail.flip();
+
+        writeFully(head);
+        writeFully(ByteBuffer.wrap(data, 0, length));
+        writeFully(tail);
+    }
+
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
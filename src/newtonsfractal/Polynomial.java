@@ -1,3 +1,5 @@
+package newtonsfractal;
+
 import java.lang.Math;
 import java.util.Arrays;
 
@@ -47,15 +49,32 @@ public class Polynomial {
 
 
     /**
-     * Evaluates the polynomial at a point x.
+     * Evaluates the polynomial at a point x using the horner scheme.
      * @param x Evaluation value
      * @return Evaluated value of the polynomial at a point x
      */
     public double eval(double x) {
         double y = 0;
-        for(int i = 0; i < coefficients.length; i++) {
-            y += (coefficients[i] * Math.pow(x, i));
+        for(int i = coefficients.length-1; i >= 0; i--) {
+            y = y * x + coefficients[i];
+        }
+        return y;
+    }
+
+
+    /**
+     * Evaluates the polynomial and its slope at a point x in a single pass of the horner scheme.
+     * @param x Evaluation value
+     * @param slope receives the slope at the point x in its first element, so that nothing is allocated per call
+     * @return Evaluated value of the polynomial at a point x
+     */
+    public double evalWithSlope(double x, double[] slope) {
+        double y = 0, s = 0;
+        for(int i = coefficients.length-1; i >= 0; i--) {
+            s = s * x + y;
+            y = y * x + coefficients[i];
         }
+        slope[0] = s;
         return y;
     }
 
@@ -106,6 +125,12 @@ public class Polynomial {
     }
 
 
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coefficients);
+    }
+
+
     @Override
     protected Object clone() {
         return new Polynomial(this.coefficients);
@@ -0,0 +1,451 @@
+package newtonsfractal;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders fractals into PNG files with several {@link RenderWorker} processes, for images too large to turn around in one JVM.
+ * <p>
+ * Usage: {@code java newtonsfractal.RenderCoordinator [options] <job file>}, with the job file of the {@link BatchRenderer}.
+ * <p>
+ * Every image is split into bands of rows, which are handed to the workers over their standard input and output.
+ * Each worker gets the next band as soon as it has sent the last one, and the bands are written to the PNG file in order
+ * while the workers render the following ones. The workers stay at most {@link #BANDS_AHEAD_PER_WORKER} bands per worker
+ * ahead of the writer, so the coordinator only holds a few bands in memory.
+ * A worker whose process dies, whose pipe breaks or which does not answer a band within the band timeout
+ * is dropped and its band is handed to the next free worker.
+ * The image only fails once no worker is left.
+ * <p>
+ * Options:
+ * <pre>
+ * --workers &lt;n&gt;       number of worker processes (default 4)
+ * --threads &lt;n&gt;       number of threads rendering tiles in every worker (default all processors / workers)
+ * --tile-size &lt;n&gt;     width and height of a tile in pixels (default 64)
+ * --band-height &lt;n&gt;   number of rows sent to a worker at once (default 64)
+ * --worker-memory &lt;MB&gt; maximum heap of every worker (default that of the JVM)
+ * --convergence &lt;name&gt; early_exit or fixed_steps (default early_exit)
+ * --mode &lt;name&gt;       full or adaptive (default full)
+ * --shading &lt;name&gt;    flat or iterations, which darkens pixels the more iterations they needed (default flat)
+ * --band-timeout &lt;s&gt;  seconds a worker may take for a band before it is killed (default 600)
+ * --crash-after &lt;n&gt;   let the first worker die after n bands, to watch its bands being rendered by the others
+ * --hang-after &lt;n&gt;    let the first worker stop answering after n bands, to watch it being killed after the band timeout
+ * </pre>
+ */
+public class RenderCoordinator implements AutoCloseable {
+
+    public static final int DEFAULT_WORKERS = 4;
+    public static final int DEFAULT_BAND_HEIGHT = 64;
+
+    /**
+     * How many bands per worker may be rendered ahead of the band written next.
+     */
+    public static final int BANDS_AHEAD_PER_WORKER = 2;
+
+    /**
+     * How many seconds a worker may take to answer a band before it is taken for hung and killed.
+     */
+    public static final int DEFAULT_BAND_TIMEOUT = 600;
+
+
+    private final int bandHeight;
+    private final long bandTimeout;
+    private final List<Worker> workers = new ArrayList<>();
+    private final ExecutorService dispatchers;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+
+
+    /**
+     * Constructs a {@code RenderCoordinator} and starts one worker for every list of worker options,
+     * running the java and the class path of this JVM.
+     * @param bandHeight the number of rows sent to a worker at once
+     * @param jvmOptions the options of the worker JVMs, like {@code -Xmx1g}
+     * @param workerOptions the {@code RenderWorker} options of every worker
+     * @throws IOException if a worker can not be started
+     */
+    public RenderCoordinator(int bandHeight, List<String> jvmOptions, List<List<String>> workerOptions) throws IOException {
+        this(bandHeight, DEFAULT_BAND_TIMEOUT, jvmOptions, workerOptions);
+    }
+
+    /**
+     * Constructs a {@code RenderCoordinator} and starts one worker for every list of worker options,
+     * running the java and the class path of this JVM.
+     * @param bandHeight the number of rows sent to a worker at once
+     * @param bandTimeout the number of seconds a worker may take to answer a band before it is killed
+     * @param jvmOptions the options of the worker JVMs, like {@code -Xmx1g}
+     * @param workerOptions the {@code RenderWorker} options of every worker
+     * @throws IOException if a worker can not be started
+     */
+    public RenderCoordinator(int bandHeight, long bandTimeout, List<String> jvmOptions, List<List<String>> workerOptions) throws IOException {
+        if(bandHeight < 1 || bandTimeout < 1 || workerOptions.isEmpty()) {
+            throw new IllegalArgumentException("bandHeight and bandTimeout must be positive and at least one worker is needed");
+        }
+        this.bandHeight = bandHeight;
+        this.bandTimeout = bandTimeout;
+        this.dispatchers = Executors.newFixedThreadPool(workerOptions.size());
+        try {
+            for (int i = 0; i < workerOptions.size(); i++) {
+                workers.add(new Worker(i, jvmOptions, workerOptions.get(i)));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * @return the number of workers still alive
+     */
+    public synchronized int liveWorkers() {
+        return workers.size();
+    }
+
+
+    /**
+     * Renders one image with all workers into a PNG file.
+     * @param path the file to write the image to
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the map will be applied to a pixel
+     * @param iterationMap the map applied to a pixel in every step
+     * @param viewport the part of the complex plane the image shows
+     * @throws IOException if the file can not be written or all workers died
+     * @throws InterruptedException if the thread is interrupted while waiting for a band
+     */
+    public void render(Path path, ComplexPolynomial polynomial, int maxSteps, IterationMap iterationMap, Viewport viewport)
+            throws IOException, InterruptedException {
+        render(path, polynomial, maxSteps, iterationMap, viewport, Shading.Style.FLAT);
+    }
+
+    /**
+     * Renders one image with all workers into a PNG file.
+     * @param path the file to write the image to
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the map will be applied to a pixel
+     * @param iterationMap the map applied to a pixel in every step
+     * @param viewport the part of the complex plane the image shows
+     * @param style whether the pixels are darkened by the number of iterations they needed
+     * @throws IOException if the file can not be written or all workers died
+     * @throws InterruptedException if the thread is interrupted while waiting for a band
+     */
+    public void render(Path path, ComplexPolynomial polynomial, int maxSteps, IterationMap iterationMap, Viewport viewport,
+                       Shading.Style style) throws IOException, InterruptedException {
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        // The same colors as the file of a BatchRenderer
+        Shading shading = Renderer.generateShading(roots.size(), maxSteps, new Random(Renderer.COLOR_SEED), style);
+        int bandCount = (viewport.height() + bandHeight - 1) / bandHeight;
+
+        List<Worker> assigned;
+        synchronized (this) {
+            assigned = new ArrayList<>(workers);
+        }
+        Bands bands = new Bands(bandCount, assigned.size(), BANDS_AHEAD_PER_WORKER * assigned.size());
+
+        List<Future<?>> dispatching = new ArrayList<>();
+        for (Worker worker : assigned) {
+            dispatching.add(dispatchers.submit(() -> dispatch(worker, bands, polynomial, roots, maxSteps, iterationMap, viewport)));
+        }
+
+        try (PngWriter writer = new PngWriter(path, viewport.width(), viewport.height())) {
+            int[] pixels = new int[viewport.width() * bandHeight];
+            for (int band = 0; band < bandCount; band++) {
+                RootMap rendered = bands.await(band);
+                rendered.colorize(shading, pixels);
+                writer.writeRows(pixels, rendered.height());
+
+                if((band + 1) % Math.max(bandCount / 10, 1) == 0) {
+                    System.out.println(((band + 1) * 100 / bandCount) + " %");
+                }
+            }
+        } finally {
+            bands.cancel();
+            for (Future<?> future : dispatching) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Hands bands to one worker until there are none left or the worker died or hung.
+     * Whatever goes wrong, the band is given back and the worker is dropped, so that the writer never waits for it.
+     */
+    private void dispatch(Worker worker, Bands bands, ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps,
+                          IterationMap iterationMap, Viewport viewport) {
+        int band = -1;
+        try {
+            RenderWorker.writeSetup(worker.out, polynomial, roots, maxSteps, iterationMap, viewport);
+            while ((band = bands.next()) >= 0) {
+                int firstRow = band * bandHeight;
+                int rowCount = Math.min(bandHeight, viewport.height() - firstRow);
+                RootMap rootMap = new RootMap(viewport.width(), rowCount, roots.size());
+
+                // Killing a worker that does not answer in time ends the read with an IOException
+                ScheduledFuture<?> deadline = watchdog.schedule(worker::timeOut, bandTimeout, TimeUnit.SECONDS);
+                try {
+                    worker.out.write(RenderWorker.BAND);
+                    worker.out.writeInt(firstRow);
+                    worker.out.writeInt(rowCount);
+                    worker.out.flush();
+
+                    if(worker.in.readInt() != firstRow || worker.in.readInt() != rowCount) {
+                        throw new IOException("worker " + worker.id + " answered with another band than " + band);
+                    }
+                    rootMap.read(worker.in);
+                } finally {
+                    deadline.cancel(false);
+                }
+                bands.finish(band, rootMap);
+                band = -1;
+            }
+        } catch (Throwable e) {
+            String failure = worker.timedOut ? " did not answer within " + bandTimeout + " s" : " died";
+            System.err.println("Worker " + worker.id + failure + (band >= 0 ? " rendering band " + band : "") + ": " + e);
+            if(!(e instanceof IOException || e instanceof InterruptedException)) {
+                e.printStackTrace();
+            }
+            synchronized (this) {
+                workers.remove(worker);
+            }
+            worker.destroy();
+            bands.fail(band);
+        }
+    }
+
+
+    /**
+     * Ends all workers.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            for (Worker worker : workers) {
+                worker.exit();
+            }
+            workers.clear();
+        }
+        dispatchers.shutdown();
+        watchdog.shutdownNow();
+    }
+
+
+    /**
+     * The bands of one image: those waiting for a worker, those being rendered and those waiting to be written.
+     * Waiting bands are handed out lowest first, so a band given back by a dead worker is rendered next.
+     */
+    private static class Bands {
+        private final PriorityQueue<Integer> pending = new PriorityQueue<>();
+        private final RootMap[] rendered;
+        private final int aheadLimit;
+        private int inFlight;
+        private int nextToWrite;
+        private int liveWorkers;
+        private boolean cancelled;
+
+        Bands(int bandCount, int liveWorkers, int aheadLimit) {
+            for (int band = 0; band < bandCount; band++) {
+                pending.add(band);
+            }
+            this.rendered = new RootMap[bandCount];
+            this.liveWorkers = liveWorkers;
+            this.aheadLimit = aheadLimit;
+        }
+
+        /**
+         * @return the next band to render, or -1 once all bands have been rendered
+         */
+        synchronized int next() throws InterruptedException {
+            while (!cancelled) {
+                if(!pending.isEmpty() && pending.peek() < nextToWrite + aheadLimit) {
+                    inFlight++;
+                    return pending.poll();
+                }
+                if(pending.isEmpty() && inFlight == 0) {
+                    return -1;
+                }
+                // A band still being rendered may come back from a dying worker
+                wait();
+            }
+            return -1;
+        }
+
+        synchronized void finish(int band, RootMap rootMap) {
+            inFlight--;
+            rendered[band] = rootMap;
+            notifyAll();
+        }
+
+        /**
+         * Gives a band back after its worker died.
+         * @param band the band being rendered, or -1 if the worker died between bands
+         */
+        synchronized void fail(int band) {
+            if(band >= 0) {
+                inFlight--;
+                pending.add(band);
+            }
+            liveWorkers--;
+            notifyAll();
+        }
+
+        /**
+         * Waits for a band and releases it, the bands have to be awaited in order.
+         */
+        synchronized RootMap await(int band) throws IOException, InterruptedException {
+            while (rendered[band] == null) {
+                if(liveWorkers == 0) {
+                    throw new IOException("all workers died, band " + band + " was not rendered");
+                }
+                wait();
+            }
+            RootMap rootMap = rendered[band];
+            rendered[band] = null;
+            nextToWrite = band + 1;
+            notifyAll();
+            return rootMap;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            notifyAll();
+        }
+    }
+
+
+    /**
+     * A worker process and the pipes to it.
+     */
+    private static class Worker {
+        private final int id;
+        private final Process process;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private volatile boolean timedOut;
+
+        Worker(int id, List<String> jvmOptions, List<String> workerOptions) throws IOException {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.addAll(jvmOptions);
+            command.add(RenderWorker.class.getName());
+            command.addAll(workerOptions);
+
+            this.id = id;
+            this.process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        void exit() {
+            try {
+                out.write(RenderWorker.EXIT);
+                out.flush();
+            } catch (IOException e) {
+                destroy();
+            }
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+
+        void timeOut() {
+            timedOut = true;
+            destroy();
+        }
+    }
+
+
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int workerCount = DEFAULT_WORKERS;
+        int threads = -1;
+        int tileSize = TileRenderer.DEFAULT_TILE_SIZE;
+        int bandHeight = DEFAULT_BAND_HEIGHT;
+        long workerMemory = Runtime.getRuntime().maxMemory() / (1024 * 1024);
+        String convergence = NewtonKernel.Convergence.EARLY_EXIT.name();
+        String mode = TileRenderer.Mode.FULL.name();
+        Shading.Style shading = Shading.Style.FLAT;
+        int bandTimeout = DEFAULT_BAND_TIMEOUT;
+        int crashAfter = -1;
+        int hangAfter = -1;
+        Path jobFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--workers":       workerCount = Integer.parseInt(args[++i]); break;
+                case "--threads":       threads = Integer.parseInt(args[++i]); break;
+                case "--tile-size":     tileSize = Integer.parseInt(args[++i]); break;
+                case "--band-height":   bandHeight = Integer.parseInt(args[++i]); break;
+                case "--worker-memory": workerMemory = Long.parseLong(args[++i]); break;
+                case "--convergence":   convergence = args[++i]; break;
+                case "--mode":          mode = args[++i]; break;
+                case "--shading":       shading = Shading.Style.valueOf(args[++i].toUpperCase()); break;
+                case "--band-timeout":  bandTimeout = Integer.parseInt(args[++i]); break;
+                case "--crash-after":   crashAfter = Integer.parseInt(args[++i]); break;
+                case "--hang-after":    hangAfter = Integer.parseInt(args[++i]); break;
+                default:                jobFile = Paths.get(args[i]);
+            }
+        }
+
+        if(jobFile == null) {
+            System.err.println("Usage: java newtonsfractal.RenderCoordinator [--workers n] [--threads n] [--tile-size n] [--band-height n]"
+                               + " [--worker-memory MB] [--convergence early_exit|fixed_steps] [--mode full|adaptive]"
+                               + " [--shading flat|iterations] [--band-timeout s] [--crash-after n] [--hang-after n] <job file>");
+            System.exit(2);
+        }
+        if(threads < 1) {
+            threads = Math.max(Runtime.getRuntime().availableProcessors() / workerCount, 1);
+        }
+
+        List<List<String>> workerOptions = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            List<String> options = new ArrayList<>(List.of("--threads", Integer.toString(threads), "--tile-size", Integer.toString(tileSize),
+                                                           "--convergence", convergence, "--mode", mode));
+            if(i == 0 && crashAfter >= 0) {
+                options.add("--crash-after");
+                options.add(Integer.toString(crashAfter));
+            }
+            if(i == 0 && hangAfter >= 0) {
+                options.add("--hang-after");
+                options.add(Integer.toString(hangAfter));
+            }
+            workerOptions.add(options);
+        }
+
+        List<BatchRenderer.Job> jobs = BatchRenderer.readJobs(jobFile);
+        int failed = 0;
+        try (RenderCoordinator coordinator = new RenderCoordinator(bandHeight, bandTimeout, List.of("-Xmx" + workerMemory + "m"), workerOptions)) {
+            for (BatchRenderer.Job job : jobs) {
+                long start = System.nanoTime();
+                try {
+                    coordinator.render(job.output(), job.polynomial(), job.iterations(), job.iterationMap(), job.viewport(), shading);
+                    System.out.printf("%s finished in %.1f s with %d workers%n", job.output(),
+                                      (System.nanoTime() - start) / 1e9, coordinator.liveWorkers());
+                } catch (IOException e) {
+                    System.err.println(job.output() + " failed:");
+                    e.printStackTrace();
+                    failed++;
+                }
+            }
+        }
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
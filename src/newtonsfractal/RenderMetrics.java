@@ -0,0 +1,440 @@
+package newtonsfractal;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Counts what a {@link TileRenderer} does: pixels, newton steps, pixels that did not converge and the time spent on every tile.
+ * <p>
+ * The metrics can be watched live over JMX after {@link #register(String)}, summed up as JSON by {@link #toJson()},
+ * and every tile and render is also recorded as a JFR event ({@code newtonsfractal.Tile} and {@code newtonsfractal.Render})
+ * when a flight recording is running, for example with {@code java -XX:StartFlightRecording=filename=render.jfr ...}.
+ * <p>
+ * Metrics created with a parent count everything into the parent as well, so a single render can be measured
+ * by itself while the renderer keeps its overall metrics. All methods are thread-safe.
+ */
+public class RenderMetrics implements RenderMetricsMBean {
+
+    /**
+     * The number of buckets of the iteration histogram, enough for the 65535 iterations a result can hold.
+     */
+    public static final int ITERATION_BUCKETS = 17;
+
+    /**
+     * The number of buckets of the tile latency histogram, the last one holds all tiles taking longer than half an hour.
+     */
+    public static final int LATENCY_BUCKETS = 32;
+
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+
+    private final RenderMetrics parent;
+    private final long created = System.nanoTime();
+    private final long collectionsBefore = collectionCount();
+    private final long collectionMillisBefore = collectionMillis();
+
+    private final LongAdder pixels = new LongAdder();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder unconverged = new LongAdder();
+    private final LongAdder[] iterationHistogram = adders(ITERATION_BUCKETS);
+
+    private final LongAdder tilesQueued = new LongAdder();
+    private final LongAdder tilesFinished = new LongAdder();
+    private final LongAdder tileNanos = new LongAdder();
+    private final LongAccumulator maxTileNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] tileLatencyHistogram = adders(LATENCY_BUCKETS);
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    // The time in which renders were running, overlapping renders are only counted once
+    private int runningRenders;
+    private long busySince;
+    private long busyNanos;
+
+
+    /**
+     * Constructs empty {@code RenderMetrics}.
+     */
+    public RenderMetrics() {
+        this(null);
+    }
+
+    /**
+     * Constructs empty {@code RenderMetrics} which also count into other metrics.
+     * @param parent the metrics that are also updated, or {@code null}
+     */
+    public RenderMetrics(RenderMetrics parent) {
+        this.parent = parent;
+    }
+
+
+    /**
+     * Registers these metrics with the platform MBean server as {@code NewtonsFractal:type=RenderMetrics,name=<name>}.
+     * @param name the name telling the metrics of different renderers apart
+     * @return these metrics
+     * @throws IllegalStateException if the metrics could not be registered, for example because the name is taken
+     */
+    public RenderMetrics register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("NewtonsFractal:type=RenderMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register the render metrics as " + name, e);
+        }
+        return this;
+    }
+
+
+    /**
+     * Marks the start of a render.
+     * @param width the width of the rendered image or band in pixels
+     * @param height the height of the rendered image or band in pixels
+     * @param tiles the number of tiles the render is split into
+     * @return the event to pass to {@link #finishRender(RenderEvent)}
+     */
+    RenderEvent startRender(int width, int height, int tiles) {
+        RenderEvent event = new RenderEvent();
+        event.width = width;
+        event.height = height;
+        event.tiles = tiles;
+        event.begin();
+        startBusy(tiles);
+        return event;
+    }
+
+    /**
+     * Marks the end of a render started by {@link #startRender(int, int, int)}.
+     * @param event the event returned when the render started
+     */
+    void finishRender(RenderEvent event) {
+        event.commit();
+        finishBusy();
+    }
+
+    /**
+     * Starts recording a tile on the current thread.
+     * @param maxSteps the maximum number of newton steps of a pixel
+     * @param convergence when the newton's method stops for a pixel
+     * @return the recorder, only to be used by the current thread
+     */
+    Tile startTile(int maxSteps, NewtonKernel.Convergence convergence) {
+        return new Tile(this, maxSteps, convergence);
+    }
+
+
+    private synchronized void startBusy(int tiles) {
+        if(runningRenders++ == 0) {
+            busySince = System.nanoTime();
+        }
+        tilesQueued.add(tiles);
+        if(parent != null) {
+            parent.startBusy(tiles);
+        }
+    }
+
+    private synchronized void finishBusy() {
+        if(--runningRenders == 0) {
+            busyNanos += System.nanoTime() - busySince;
+        }
+        if(parent != null) {
+            parent.finishBusy();
+        }
+    }
+
+    private void add(Tile tile, long nanos, long allocated) {
+        pixels.add(tile.pixels);
+        iterations.add(tile.iterations);
+        unconverged.add(tile.unconverged);
+        for (int i = 0; i < ITERATION_BUCKETS; i++) {
+            if(tile.histogram[i] != 0) {
+                iterationHistogram[i].add(tile.histogram[i]);
+            }
+        }
+
+        tilesFinished.increment();
+        tileNanos.add(nanos);
+        maxTileNanos.accumulate(nanos);
+        tileLatencyHistogram[Math.min(64 - Long.numberOfLeadingZeros(nanos / 1000), LATENCY_BUCKETS - 1)].increment();
+        allocatedBytes.add(allocated);
+
+        if(parent != null) {
+            parent.add(tile, nanos, allocated);
+        }
+    }
+
+
+    @Override
+    public long getPixels() {
+        return pixels.sum();
+    }
+
+    @Override
+    public long getIterations() {
+        return iterations.sum();
+    }
+
+    @Override
+    public long getUnconvergedPixels() {
+        return unconverged.sum();
+    }
+
+    @Override
+    public double getPixelsPerSecond() {
+        return perSecond(getPixels());
+    }
+
+    @Override
+    public double getIterationsPerSecond() {
+        return perSecond(getIterations());
+    }
+
+    @Override
+    public long[] getIterationHistogram() {
+        return sums(iterationHistogram);
+    }
+
+    @Override
+    public long getTilesQueued() {
+        return tilesQueued.sum();
+    }
+
+    @Override
+    public long getTilesFinished() {
+        return tilesFinished.sum();
+    }
+
+    @Override
+    public double getMeanTileMillis() {
+        long finished = getTilesFinished();
+        return finished == 0 ? 0 : tileNanos.sum() / 1e6 / finished;
+    }
+
+    @Override
+    public double getMaxTileMillis() {
+        return maxTileNanos.get() / 1e6;
+    }
+
+    @Override
+    public long[] getTileLatencyHistogram() {
+        return sums(tileLatencyHistogram);
+    }
+
+    @Override
+    public long getRenderMillis() {
+        return renderNanos() / 1_000_000;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    @Override
+    public long getCollections() {
+        return collectionCount() - collectionsBefore;
+    }
+
+    @Override
+    public long getCollectionMillis() {
+        return collectionMillis() - collectionMillisBefore;
+    }
+
+
+    /**
+     * @return all metrics as a JSON object, plus the milliseconds since these metrics were created as {@code elapsedMillis}
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT, "{%n"
+                                          + "  \"elapsedMillis\": %d,%n"
+                                          + "  \"renderMillis\": %d,%n"
+                                          + "  \"pixels\": %d,%n"
+                                          + "  \"iterations\": %d,%n"
+                                          + "  \"unconvergedPixels\": %d,%n"
+                                          + "  \"pixelsPerSecond\": %.1f,%n"
+                                          + "  \"iterationsPerSecond\": %.1f,%n"
+                                          + "  \"iterationHistogram\": %s,%n"
+                                          + "  \"tiles\": %d,%n"
+                                          + "  \"meanTileMillis\": %.3f,%n"
+                                          + "  \"maxTileMillis\": %.3f,%n"
+                                          + "  \"tileLatencyHistogram\": %s,%n"
+                                          + "  \"allocatedBytes\": %d,%n"
+                                          + "  \"collections\": %d,%n"
+                                          + "  \"collectionMillis\": %d%n"
+                                          + "}%n",
+                             (System.nanoTime() - created) / 1_000_000, getRenderMillis(), getPixels(), getIterations(),
+                             getUnconvergedPixels(), getPixelsPerSecond(), getIterationsPerSecond(),
+                             Arrays.toString(getIterationHistogram()), getTilesFinished(), getMeanTileMillis(), getMaxTileMillis(),
+                             Arrays.toString(getTileLatencyHistogram()), getAllocatedBytes(), getCollections(), getCollectionMillis());
+    }
+
+
+    private synchronized long renderNanos() {
+        return runningRenders > 0 ? busyNanos + (System.nanoTime() - busySince) : busyNanos;
+    }
+
+    private double perSecond(long count) {
+        long nanos = renderNanos();
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    private static long collectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        // Only HotSpot and its relatives count the allocations per thread
+        if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+
+
+    /**
+     * Collects the results of one tile on the thread rendering it, so that the shared counters are only updated once per tile.
+     */
+    static class Tile {
+        private final RenderMetrics metrics;
+        private final int lastStep;
+        private final long start;
+        private final long allocatedBefore;
+        private final TileEvent event = new TileEvent();
+
+        private long pixels;
+        private long iterations;
+        private long unconverged;
+        private final long[] histogram = new long[ITERATION_BUCKETS];
+
+        private Tile(RenderMetrics metrics, int maxSteps, NewtonKernel.Convergence convergence) {
+            this.metrics = metrics;
+            // Without stopping early every pixel takes all steps, converged or not
+            this.lastStep = convergence == NewtonKernel.Convergence.EARLY_EXIT ? Math.min(maxSteps, 0xFFFF) : Integer.MAX_VALUE;
+            this.allocatedBefore = currentThreadAllocatedBytes();
+            this.event.begin();
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Counts the results of solved pixels.
+         * @param results the packed results of the newton's method
+         * @param count the number of results, starting at index 0
+         */
+        void record(int[] results, int count) {
+            for (int i = 0; i < count; i++) {
+                int steps = NewtonKernel.iterations(results[i]);
+                iterations += steps;
+                histogram[32 - Integer.numberOfLeadingZeros(steps)]++;
+                if(steps >= lastStep || NewtonKernel.rootIndex(results[i]) == TileRenderer.NO_ROOT) {
+                    unconverged++;
+                }
+            }
+            pixels += count;
+        }
+
+        /**
+         * Counts a pixel whose newton's method was resumed from an earlier result.
+         * @param result the packed result after resuming
+         * @param steps the number of newton steps applied while resuming
+         */
+        void record(int result, int steps) {
+            iterations += steps;
+            histogram[32 - Integer.numberOfLeadingZeros(steps)]++;
+            if(NewtonKernel.iterations(result) >= lastStep || NewtonKernel.rootIndex(result) == TileRenderer.NO_ROOT) {
+                unconverged++;
+            }
+            pixels++;
+        }
+
+        /**
+         * Adds the tile to the metrics, to be called once the tile is done.
+         */
+        void finish() {
+            long nanos = System.nanoTime() - start;
+            long allocated = Math.max(currentThreadAllocatedBytes() - allocatedBefore, 0);
+
+            event.pixels = pixels;
+            event.iterations = iterations;
+            event.unconvergedPixels = unconverged;
+            event.commit();
+
+            metrics.add(this, nanos, allocated);
+        }
+    }
+
+
+    @Name("newtonsfractal.Tile")
+    @Label("Tile")
+    @Category("Newtons Fractal")
+    @Description("A tile rendered by a TileRenderer")
+    static class TileEvent extends jdk.jfr.Event {
+        @Label("Pixels")
+        long pixels;
+
+        @Label("Iterations")
+        long iterations;
+
+        @Label("Unconverged Pixels")
+        long unconvergedPixels;
+    }
+
+    @Name("newtonsfractal.Render")
+    @Label("Render")
+    @Category("Newtons Fractal")
+    @Description("An image, band or pass rendered by a TileRenderer")
+    static class RenderEvent extends jdk.jfr.Event {
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Tiles")
+        int tiles;
+    }
+}
@@ -0,0 +1,85 @@
+package newtonsfractal;
+
+/**
+ * The management interface of {@link RenderMetrics}, as seen in JConsole or any other JMX client.
+ * All counters add up since the {@code RenderMetrics} were created.
+ */
+public interface RenderMetricsMBean {
+
+    /**
+     * @return the number of pixels and subsamples the newton's method has been applied to
+     */
+    long getPixels();
+
+    /**
+     * @return the number of newton steps applied to all pixels together
+     */
+    long getIterations();
+
+    /**
+     * @return the number of pixels that used up all iterations without converging, or could not be assigned to a root
+     */
+    long getUnconvergedPixels();
+
+    /**
+     * @return the number of pixels per second of {@link #getRenderMillis()}
+     */
+    double getPixelsPerSecond();
+
+    /**
+     * @return the number of newton steps per second of {@link #getRenderMillis()}
+     */
+    double getIterationsPerSecond();
+
+    /**
+     * @return the number of pixels by their iterations: the first entry counts the pixels without any,
+     *         the entry {@code i} those with {@code 2^(i-1)} to {@code 2^i - 1} iterations
+     */
+    long[] getIterationHistogram();
+
+    /**
+     * @return the number of tiles all renders have been split into, including those not finished yet
+     */
+    long getTilesQueued();
+
+    /**
+     * @return the number of finished tiles
+     */
+    long getTilesFinished();
+
+    /**
+     * @return the average time a thread spent on a tile, in milliseconds
+     */
+    double getMeanTileMillis();
+
+    /**
+     * @return the longest time a thread spent on a tile, in milliseconds
+     */
+    double getMaxTileMillis();
+
+    /**
+     * @return the number of tiles by the time spent on them: the entry {@code i} counts the tiles that took
+     *         less than {@code 2^i} microseconds, but at least {@code 2^(i-1)}
+     */
+    long[] getTileLatencyHistogram();
+
+    /**
+     * @return the time in which at least one render was running, in milliseconds
+     */
+    long getRenderMillis();
+
+    /**
+     * @return the number of bytes the threads allocated while rendering tiles
+     */
+    long getAllocatedBytes();
+
+    /**
+     * @return the number of garbage collections of the whole JVM
+     */
+    long getCollections();
+
+    /**
+     * @return the time the whole JVM spent collecting garbage, in milliseconds
+     */
+    long getCollectionMillis();
+}
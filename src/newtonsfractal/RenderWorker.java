@@ -0,0 +1,238 @@
+package newtonsfractal;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders bands of rows of a fractal for a {@link RenderCoordinator}, in a process of its own.
+ * <p>
+ * Usage: {@code java newtonsfractal.RenderWorker [--threads n] [--tile-size n] [--convergence name] [--mode name]}
+ * <p>
+ * The worker reads requests from its standard input and answers on its standard output, everything it prints goes to standard error.
+ * A {@link #SETUP} request describes the fractal, every following {@link #BAND} request asks for the root indices and iterations
+ * of some of its rows, which are rendered by the same {@link TileRenderer} and {@link NewtonKernel} as in a single process.
+ * The roots are sent along with the polynomial, so that all workers agree on the index of every root.
+ */
+public class RenderWorker {
+
+    /**
+     * Ends the worker, as does the end of its input.
+     */
+    public static final int EXIT = 0;
+
+    /**
+     * Describes the fractal the following bands belong to, see {@link #writeSetup}.
+     */
+    public static final int SETUP = 1;
+
+    /**
+     * Asks for a band with the first row and the number of rows as ints.
+     * The answer repeats both, followed by the planes of the band's {@link RootMap}, see {@link RootMap#write(DataOutput)}.
+     */
+    public static final int BAND = 2;
+
+
+    private final TileRenderer tileRenderer;
+    private final int crashAfter;
+    private final int hangAfter;
+
+    private ComplexPolynomial polynomial;
+    private List<ComplexNumber> roots;
+    private int maxSteps;
+    private Viewport viewport;
+    private TileRenderer mapRenderer;
+
+
+    /**
+     * Constructs a {@code RenderWorker}.
+     * @param tileRenderer the {@code TileRenderer} computing the bands
+     */
+    public RenderWorker(TileRenderer tileRenderer) {
+        this(tileRenderer, -1, -1);
+    }
+
+    /**
+     * Constructs a {@code RenderWorker} which may end abruptly or stop answering,
+     * to try how the coordinator copes with dying and hung workers.
+     * @param tileRenderer the {@code TileRenderer} computing the bands
+     * @param crashAfter the number of bands after which the process halts instead of answering, or -1 to never halt
+     * @param hangAfter the number of bands after which the process waits forever instead of answering, or -1 to never hang
+     */
+    RenderWorker(TileRenderer tileRenderer, int crashAfter, int hangAfter) {
+        this.tileRenderer = tileRenderer;
+        this.crashAfter = crashAfter;
+        this.hangAfter = hangAfter;
+    }
+
+
+    /**
+     * Answers requests until {@link #EXIT} or the end of the input.
+     * @param in the requests
+     * @param out the answers
+     * @throws IOException if the requests can not be read or the answers can not be written
+     */
+    public void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        int bands = 0;
+        while (true) {
+            int request = in.read();
+            switch (request) {
+                case SETUP:
+                    readSetup(in);
+                    break;
+                case BAND:
+                    int firstRow = in.readInt();
+                    int rowCount = in.readInt();
+                    if(polynomial == null) {
+                        throw new IOException("band requested before the fractal was set up");
+                    }
+                    if(bands == crashAfter) {
+                        Runtime.getRuntime().halt(3);
+                    }
+                    if(bands++ == hangAfter) {
+                        hang();
+                    }
+
+                    RootMap band = new RootMap(viewport.width(), rowCount, roots.size());
+                    mapRenderer.renderRows(polynomial, roots, maxSteps, viewport, band, firstRow);
+                    out.writeInt(firstRow);
+                    out.writeInt(rowCount);
+                    band.write(out);
+                    out.flush();
+                    break;
+                case EXIT:
+                case -1:
+                    return;
+                default:
+                    throw new IOException("unknown request " + request);
+            }
+        }
+    }
+
+    /**
+     * Waits until the process is killed, like a worker stuck in a band that never finishes.
+     */
+    private static void hang() {
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                // Keeps waiting, only the coordinator ends this process
+            }
+        }
+    }
+
+
+    /**
+     * Sends a {@link #SETUP} request.
+     * @param out the input of the worker
+     * @param polynomial the polynomial the fractal is based on
+     * @param roots the roots of the polynomial, in the order of the root indices
+     * @param maxSteps the maximum number that the map will be applied to a pixel
+     * @param iterationMap the map applied to a pixel in every step
+     * @param viewport the part of the complex plane the whole image shows
+     * @throws IOException if the request can not be written
+     */
+    public static void writeSetup(DataOutputStream out, ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps,
+                                  IterationMap iterationMap, Viewport viewport) throws IOException {
+        out.write(SETUP);
+
+        double[] coefficients = polynomial.coefficients();
+        double[] imaginaryCoefficients = polynomial.imaginaryCoefficients();
+        out.writeInt(coefficients.length);
+        for (int i = 0; i < coefficients.length; i++) {
+            out.writeDouble(coefficients[i]);
+            out.writeDouble(imaginaryCoefficients[i]);
+        }
+        out.writeInt(roots.size());
+        for (ComplexNumber root : roots) {
+            out.writeDouble(root.real());
+            out.writeDouble(root.imaginary());
+        }
+        out.writeInt(maxSteps);
+
+        out.writeUTF(iterationMap.method().name());
+        out.writeDouble(iterationMap.relaxationReal());
+        out.writeDouble(iterationMap.relaxationImaginary());
+        out.writeBoolean(iterationMap.isNova());
+        out.writeDouble(iterationMap.startReal());
+        out.writeDouble(iterationMap.startImaginary());
+
+        // The center is sent with all its digits for deep zooms
+        out.writeUTF(viewport.exactCenterReal().toString());
+        out.writeUTF(viewport.exactCenterImaginary().toString());
+        out.writeDouble(viewport.range());
+        out.writeInt(viewport.width());
+        out.writeInt(viewport.height());
+    }
+
+    private void readSetup(DataInputStream in) throws IOException {
+        int coefficientCount = in.readInt();
+        double[] coefficients = new double[coefficientCount];
+        double[] imaginaryCoefficients = new double[coefficientCount];
+        for (int i = 0; i < coefficientCount; i++) {
+            coefficients[i] = in.readDouble();
+            imaginaryCoefficients[i] = in.readDouble();
+        }
+        int rootCount = in.readInt();
+        List<ComplexNumber> roots = new ArrayList<>(rootCount);
+        for (int i = 0; i < rootCount; i++) {
+            roots.add(new ComplexNumber(in.readDouble(), in.readDouble()));
+        }
+        int maxSteps = in.readInt();
+
+        IterationMap iterationMap = new IterationMap(IterationMap.Method.valueOf(in.readUTF()), in.readDouble(), in.readDouble(),
+                                                     in.readBoolean(), in.readDouble(), in.readDouble());
+
+        BigDecimal centerReal = new BigDecimal(in.readUTF());
+        BigDecimal centerImaginary = new BigDecimal(in.readUTF());
+        Viewport viewport = new Viewport(centerReal, centerImaginary, in.readDouble(), in.readInt(), in.readInt());
+
+        this.polynomial = new ComplexPolynomial(coefficients, imaginaryCoefficients);
+        this.roots = roots;
+        this.maxSteps = maxSteps;
+        this.viewport = viewport;
+        this.mapRenderer = tileRenderer.withIterationMap(iterationMap);
+    }
+
+
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        // Standard output carries the answers, anything else printed would corrupt them
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        System.setOut(System.err);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tileSize = TileRenderer.DEFAULT_TILE_SIZE;
+        NewtonKernel.Convergence convergence = NewtonKernel.Convergence.EARLY_EXIT;
+        TileRenderer.Mode mode = TileRenderer.Mode.FULL;
+        int crashAfter = -1;
+        int hangAfter = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":     threads = Integer.parseInt(args[++i]); break;
+                case "--tile-size":   tileSize = Integer.parseInt(args[++i]); break;
+                case "--convergence": convergence = NewtonKernel.Convergence.valueOf(args[++i].toUpperCase()); break;
+                case "--mode":        mode = TileRenderer.Mode.valueOf(args[++i].toUpperCase()); break;
+                case "--crash-after": crashAfter = Integer.parseInt(args[++i]); break;
+                case "--hang-after":  hangAfter = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Usage: java newtonsfractal.RenderWorker [--threads n] [--tile-size n] [--convergence early_exit|fixed_steps]"
+                                       + " [--mode full|adaptive]");
+                    System.exit(2);
+            }
+        }
+
+        TileRenderer tileRenderer = new TileRenderer(tileSize, threads, convergence, NewtonSolver.Backend.SCALAR, mode);
+        try {
+            new RenderWorker(tileRenderer, crashAfter, hangAfter).serve(in, out);
+        } finally {
+            tileRenderer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,626 @@
+package newtonsfractal;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+public class Renderer {
+
+    /**
+     * A seed value to make random generated polynomials reproducible
+     */
+    public static final int POLYNOMIAL_SEED = 42;
+
+    /**
+     * A seed value to make the random generated colors reproducible
+     */
+    public static final int COLOR_SEED = "colour seed".hashCode();
+
+    public static final Random POLYNOMIAL_RANDOM = new Random(POLYNOMIAL_SEED);
+    public static final Random COLOR_RANDOM = new Random(COLOR_SEED);
+
+
+    /**
+     * How far the grid is rendered in the x and y direction.
+     */
+    public static final double RANGE = 2.5;
+
+    /**
+     * The precision of the rendered polynomial or fractal
+     */
+    public static final double STEP_SIZE = (2 * RANGE) / Window.IMAGE_WIDTH;
+
+    /**
+     * The color of pixels that are not part of the fractal.
+     */
+    public static final Color BACKGROUND_COLOR = new Color(46, 46, 50);
+
+    /**
+     * The {@code TileRenderer} used when no other one is given, rendering on all available processors.
+     */
+    public static final TileRenderer TILE_RENDERER = new TileRenderer();
+
+    /**
+     * The cache of rendered fractals used when no other one is given.
+     */
+    public static final FractalCache FRACTAL_CACHE = new FractalCache(Paths.get("cache"));
+
+    /**
+     * The distances between the pixels rendered in the passes of a progressive render, from the coarsest preview to the whole image.
+     */
+    public static final int[] PREVIEW_STEPS = {16, 8, 4, 2, 1};
+
+
+    /**
+     * Draws the polynomial or fractal on an image.
+     * @param image the image to draw on, backed by packed ARGB ints
+     */
+    public void render(BufferedImage image) {
+        render(image, step -> {});
+    }
+
+    /**
+     * Draws the polynomial or fractal on an image, progressively if possible.
+     * @param image the image to draw on, backed by packed ARGB ints
+     * @param onPass called after every pass of a progressive render with the step of the pass,
+     *               the image then shows blocks of that size
+     */
+    public void render(BufferedImage image, IntConsumer onPass) {
+        Graphics2D g = image.createGraphics();
+
+
+        /*  Polynomial plot
+
+        g.setStroke(new BasicStroke(4));
+
+        drawGrid(g);
+        drawAxes(g);
+
+        Polynomial polynomial = new Polynomial(-1, -1, 1, 0, 0, 1);
+
+
+        g.setColor(new Color(255, 70, 70));
+        plotPolynomial(g, polynomial);
+
+        g.setColor(new Color(255, 226, 74));
+        plotPolynomial(g, polynomial.derive());
+
+        g.setColor(new Color(107, 255, 74));
+        plotPolynomial(g, polynomial.derive().derive());
+
+        g.setColor(new Color(72, 255, 228));
+        plotPolynomial(g, polynomial.derive().derive().derive());
+
+        g.setColor(new Color(72, 173, 255));
+        plotPolynomial(g, polynomial.derive().derive().derive().derive());
+
+
+        // Draws the zero points of the polynomial
+        System.out.println("---------- ROOTS ----------");
+        g.setColor(new Color(74, 186, 255));
+        Arrays.stream(Newton.newton(polynomial, 100)).forEach(x -> {
+
+            System.out.println();
+            System.out.printf("%.16f%n", x);
+            System.out.printf("%.16f%n", polynomial.eval(x));
+            System.out.println();
+
+            x *= Window.IMAGE_WIDTH/RANGE;
+            x += 0.5 * Window.IMAGE_WIDTH;
+
+            g.fillRect(((int) x)-5, (Window.IMAGE_HEIGHT/2)-5, 10, 10);
+        });
+        System.out.println();
+        System.out.println();
+        */
+
+
+        // Fractals
+
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        plotNewtonsFractalProgressively(pixels, new ComplexPolynomial(1, -1, 1, 0, 0, 1), 25, onPass);
+
+        //plotNewtonsFractalProgressively(pixels, new ComplexPolynomial(-1, 0, 0, 1), 25, onPass);
+
+        //plotNewtonsFractalProgressively(pixels, ComplexPolynomial.GENERATE_RANDOM(10), 25, onPass);
+
+        g.dispose();
+    }
+
+
+
+    /**
+     * Draws the x- and y-axis.
+     * @param g the awt graphics object used for drawing
+     */
+    private static void drawAxes(Graphics2D g) {
+        g.setColor(Color.WHITE);
+
+        g.drawLine(0, Window.IMAGE_HEIGHT /2, Window.IMAGE_WIDTH, Window.IMAGE_HEIGHT /2);
+        g.drawLine(Window.IMAGE_WIDTH /2, 0, Window.IMAGE_WIDTH /2, Window.IMAGE_HEIGHT);
+    }
+
+
+    /**
+     * Draws a grid.
+     * @param g the awt graphics object used for drawing
+     */
+    private static void drawGrid(Graphics2D g) {
+        g.setColor(new Color(100, 100, 100, 50));
+
+        for (int x = -Window.IMAGE_WIDTH /2; x < Window.IMAGE_WIDTH; x += (Window.IMAGE_WIDTH / RANGE)) {
+            for (int y = -Window.IMAGE_HEIGHT /2; y < Window.IMAGE_HEIGHT; y += (Window.IMAGE_HEIGHT / RANGE)) {
+                g.drawLine(0, y, Window.IMAGE_WIDTH, y);
+                g.drawLine(x, 0, x, Window.IMAGE_HEIGHT);
+            }
+        }
+    }
+
+
+    /**
+     * Plots the given polynomial.
+     * @param g the awt graphics object used for drawing
+     * @param polynomial the polynomial to plot
+     */
+    public static void plotPolynomial(Graphics2D g, Polynomial polynomial) {
+        double lastX = -RANGE, lastY = 0;
+        for(double i = -RANGE; i < RANGE; i += STEP_SIZE) {
+            double x = i;
+            double y = -polynomial.eval(i);
+
+            x *= Window.IMAGE_WIDTH / RANGE;
+            y *= Window.IMAGE_HEIGHT / RANGE;
+
+            x += 0.5 * Window.IMAGE_WIDTH;
+            y += 0.5 * Window.IMAGE_HEIGHT;
+
+            g.drawLine((int) lastX, (int) lastY, (int) x, (int) y);
+
+            lastX = x;
+            lastY = y;
+        }
+    }
+
+
+    /**
+     * Plots an array of polynomials.
+     * The colors of the plotted polynomials are generated randomly.
+     * @param g the awt graphics object used for drawing
+     * @param polynomials the polynomials to plot
+     */
+    public static void plotPolynomials(Graphics2D g, Polynomial... polynomials) {
+        float hue = COLOR_RANDOM.nextFloat();
+         for(Polynomial p : polynomials) {
+            g.setColor(Color.getHSBColor((hue += 0.069), 0.6f, 0.9f));
+            plotPolynomial(g, p);
+        }
+    }
+
+
+    /**
+     * Plots the newtons fractal of a given polynomial.
+     * @param pixels the packed ARGB pixels of the image in row-major order
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     */
+    public static void plotNewtonsFractal(int[] pixels, ComplexPolynomial polynomial, int maxSteps) {
+        plotNewtonsFractal(pixels, polynomial, maxSteps, new Viewport(Window.IMAGE_WIDTH, Window.IMAGE_HEIGHT), TILE_RENDERER, FRACTAL_CACHE);
+    }
+
+
+    /**
+     * Plots the newtons fractal of a given polynomial.
+     * If the fractal has already been rendered into the cache, only the colors are applied.
+     * @param pixels the packed ARGB pixels of the image in row-major order
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @param cache the cache of rendered fractals, or {@code null} to always render
+     */
+    public static void plotNewtonsFractal(int[] pixels, ComplexPolynomial polynomial, int maxSteps, Viewport viewport,
+                                          TileRenderer tileRenderer, FractalCache cache) {
+        plotNewtonsFractal(pixels, polynomial, maxSteps, viewport, tileRenderer, cache, false);
+    }
+
+
+    /**
+     * Plots the newtons fractal of a given polynomial.
+     * If the fractal has already been rendered into the cache, only the colors are applied.
+     * @param pixels the packed ARGB pixels of the image in row-major order
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @param cache the cache of rendered fractals, or {@code null} to always render
+     * @param antialias whether the boundaries between the basins of the roots are smoothed,
+     *                  see {@link TileRenderer#antialias}
+     */
+    public static void plotNewtonsFractal(int[] pixels, ComplexPolynomial polynomial, int maxSteps, Viewport viewport,
+                                          TileRenderer tileRenderer, FractalCache cache, boolean antialias) {
+        String key = FractalCache.key(polynomial, maxSteps, viewport, tileRenderer.convergence(), tileRenderer.mode(),
+                                      tileRenderer.iterationMap(), tileRenderer.backend());
+
+        List<ComplexNumber> roots = null;
+        RootMap rootMap = loadCached(cache, key);
+        if(rootMap != null) {
+            System.out.println("Plotting polynomial from cache: \n" + polynomial.toString() + "\n");
+        }else {
+            roots = findRoots(polynomial);
+
+            RootMap cached = createCached(cache, key, viewport, roots.size());
+            rootMap = cached != null ? cached : new RootMap(viewport.width(), viewport.height(), roots.size());
+
+            boolean rendered = false;
+            try {
+                tileRenderer.render(polynomial, roots, maxSteps, viewport, rootMap);
+                rendered = true;
+            } finally {
+                if(!rendered) {
+                    abortCached(cache, key, cached);
+                }
+            }
+
+            if(cached != null) {
+                commitCached(cache, key, cached);
+            }
+        }
+
+        Shading shading = generateShading(rootMap.rootCount(), maxSteps);
+        rootMap.colorize(shading, pixels);
+
+        if(antialias) {
+            // The subsamples are not cached, only the boundaries need them
+            if(roots == null) {
+                roots = findRoots(polynomial);
+            }
+            long start = System.nanoTime();
+            long subsamples = tileRenderer.antialias(polynomial, roots, maxSteps, viewport, rootMap, 0, shading, pixels);
+            System.out.printf("Anti-aliasing took %d ms, %d subsamples%n", (System.nanoTime() - start) / 1_000_000, subsamples);
+        }
+
+        System.out.println("Plotting finished");
+    }
+
+
+    /**
+     * Plots the newtons fractal of a polynomial whose coefficients changed slightly since the last plot,
+     * only rendering the pixels again whose result may have changed, see {@link TileRenderer#rerender}.
+     * The roots of the changed polynomial are found with {@link RootFinder#trackRoots}, if they can not be told apart
+     * from the old ones this way the whole fractal has to be plotted again.
+     * @param pixels the packed ARGB pixels of the image in row-major order
+     * @param polynomial the changed polynomial
+     * @param previousRoots the roots of the polynomial of the last plot
+     * @param roots the roots of the changed polynomial, in the order of the roots of the last plot
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows, the same as in the last plot
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @param rootMap the result of the last plot, receives the result of this one, must not be read-only
+     * @param shading the shading of the last plot, so that the roots keep their colors
+     * @return the number of pixels that were rendered again
+     */
+    public static long replotNewtonsFractal(int[] pixels, ComplexPolynomial polynomial, List<ComplexNumber> previousRoots,
+                                            List<ComplexNumber> roots, int maxSteps, Viewport viewport, TileRenderer tileRenderer,
+                                            RootMap rootMap, Shading shading) {
+        long start = System.nanoTime();
+        long recomputed = tileRenderer.rerender(polynomial, previousRoots, roots, maxSteps, viewport, rootMap, rootMap);
+        rootMap.colorize(shading, pixels);
+        System.out.printf("Rendered %d of %d pixels again in %d ms%n", recomputed, (long) viewport.width() * viewport.height(),
+                          (System.nanoTime() - start) / 1_000_000);
+        return recomputed;
+    }
+
+
+    /**
+     * Plots the newtons fractal of a given polynomial in passes, starting with a coarse preview.
+     * @param pixels the packed ARGB pixels of the image in row-major order
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param onPass called after every pass with the step of the pass
+     * @see #plotNewtonsFractalProgressively(int[], ComplexPolynomial, int, Viewport, TileRenderer, FractalCache, IntConsumer)
+     */
+    public static void plotNewtonsFractalProgressively(int[] pixels, ComplexPolynomial polynomial, int maxSteps, IntConsumer onPass) {
+        plotNewtonsFractalProgressively(pixels, polynomial, maxSteps, new Viewport(Window.IMAGE_WIDTH, Window.IMAGE_HEIGHT),
+                                        TILE_RENDERER, FRACTAL_CACHE, onPass);
+    }
+
+
+    /**
+     * Plots the newtons fractal of a given polynomial in passes with the {@link #PREVIEW_STEPS}.
+     * The first pass only renders every 16th pixel in both directions and shows each of them as a block of 16 x 16 pixels,
+     * every further pass halves the step and only renders the pixels the passes before have left out.
+     * If the fractal has already been rendered into the cache, the whole image is colored in a single pass.
+     * @param pixels the packed ARGB pixels of the image in row-major order
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @param cache the cache of rendered fractals, or {@code null} to always render
+     * @param onPass called after every pass with the step of the pass, the pixels then show blocks of that size
+     */
+    public static void plotNewtonsFractalProgressively(int[] pixels, ComplexPolynomial polynomial, int maxSteps, Viewport viewport,
+                                                       TileRenderer tileRenderer, FractalCache cache, IntConsumer onPass) {
+        // The passes apply the newton's method to every pixel in any mode
+        String key = FractalCache.key(polynomial, maxSteps, viewport, tileRenderer.convergence(), TileRenderer.Mode.FULL,
+                                      tileRenderer.iterationMap(), tileRenderer.backend());
+
+        RootMap rootMap = loadCached(cache, key);
+        if(rootMap != null) {
+            System.out.println("Plotting polynomial from cache: \n" + polynomial.toString() + "\n");
+            rootMap.colorize(generateShading(rootMap.rootCount(), maxSteps), pixels);
+            onPass.accept(1);
+        }else {
+            List<ComplexNumber> roots = findRoots(polynomial);
+            Shading shading = generateShading(roots.size(), maxSteps);
+
+            RootMap cached = createCached(cache, key, viewport, roots.size());
+            rootMap = cached != null ? cached : new RootMap(viewport.width(), viewport.height(), roots.size());
+
+            boolean rendered = false;
+            try {
+                int previousStep = 0;
+                for (int step : PREVIEW_STEPS) {
+                    long start = System.nanoTime();
+                    tileRenderer.renderPass(polynomial, roots, maxSteps, viewport, rootMap, step, previousStep);
+                    rootMap.colorizeBlocks(shading, pixels, step);
+                    System.out.printf("Pass with step %d finished in %d ms%n", step, (System.nanoTime() - start) / 1_000_000);
+
+                    onPass.accept(step);
+                    previousStep = step;
+                }
+                rendered = true;
+            } finally {
+                if(!rendered) {
+                    abortCached(cache, key, cached);
+                }
+            }
+
+            if(cached != null) {
+                commitCached(cache, key, cached);
+            }
+        }
+
+        System.out.println("Plotting finished");
+    }
+
+
+    /**
+     * @return the cached {@code RootMap}, or {@code null} if there is none or it can not be read
+     */
+    private static RootMap loadCached(FractalCache cache, String key) {
+        if(cache != null) {
+            try {
+                return cache.load(key);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a {@code RootMap} that will be cached once committed, or {@code null} if it can not be cached
+     */
+    private static RootMap createCached(FractalCache cache, String key, Viewport viewport, int rootCount) {
+        if(cache != null) {
+            try {
+                return cache.create(key, viewport.width(), viewport.height(), rootCount);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Commits a {@code RootMap} created by {@link #createCached(FractalCache, String, Viewport, int)} to the cache.
+     */
+    private static void commitCached(FractalCache cache, String key, RootMap rootMap) {
+        if(cache != null) {
+            try {
+                cache.commit(key, rootMap);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Discards a {@code RootMap} created by {@link #createCached(FractalCache, String, Viewport, int)} whose render failed.
+     * @param rootMap the {@code RootMap}, or {@code null} if none was created
+     */
+    private static void abortCached(FractalCache cache, String key, RootMap rootMap) {
+        if(cache != null && rootMap != null) {
+            try {
+                cache.abort(key, rootMap);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+
+    /**
+     * Renders the newtons fractal of a given polynomial straight into a PNG file, without an image in memory.
+     * The rows are rendered in bands, while one band is compressed the next one is rendered.
+     * @param path the file to write the image to
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows
+     * @param bandHeight the number of rows rendered at once
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @throws IOException if the file can not be written
+     */
+    public static void writeNewtonsFractal(Path path, ComplexPolynomial polynomial, int maxSteps,
+                                           Viewport viewport, int bandHeight, TileRenderer tileRenderer) throws IOException {
+        writeNewtonsFractal(path, polynomial, maxSteps, viewport, bandHeight, tileRenderer, false);
+    }
+
+
+    /**
+     * Renders the newtons fractal of a given polynomial straight into a PNG file, without an image in memory.
+     * The rows are rendered in bands, while one band is compressed the next one is rendered.
+     * @param path the file to write the image to
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows
+     * @param bandHeight the number of rows rendered at once
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @param antialias whether the boundaries between the basins of the roots are smoothed,
+     *                  see {@link TileRenderer#antialias}
+     * @throws IOException if the file can not be written
+     */
+    public static void writeNewtonsFractal(Path path, ComplexPolynomial polynomial, int maxSteps, Viewport viewport,
+                                           int bandHeight, TileRenderer tileRenderer, boolean antialias) throws IOException {
+        writeNewtonsFractal(path, polynomial, maxSteps, viewport, bandHeight, tileRenderer, antialias, Shading.Style.FLAT);
+    }
+
+
+    /**
+     * Renders the newtons fractal of a given polynomial straight into a PNG file, without an image in memory.
+     * The rows are rendered in bands, while one band is compressed the next one is rendered.
+     * @param path the file to write the image to
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to determine a pixels color
+     * @param viewport the part of the complex plane the image shows
+     * @param bandHeight the number of rows rendered at once
+     * @param tileRenderer the {@code TileRenderer} computing the pixels
+     * @param antialias whether the boundaries between the basins of the roots are smoothed,
+     *                  see {@link TileRenderer#antialias}
+     * @param style whether the pixels are darkened by the number of iterations they needed
+     * @throws IOException if the file can not be written
+     */
+    public static void writeNewtonsFractal(Path path, ComplexPolynomial polynomial, int maxSteps, Viewport viewport, int bandHeight,
+                                           TileRenderer tileRenderer, boolean antialias, Shading.Style style) throws IOException {
+        int width = viewport.width();
+        int height = viewport.height();
+        List<ComplexNumber> roots = findRoots(polynomial);
+        // Files get the same colors no matter which images were rendered before or at the same time
+        Shading shading = generateShading(roots.size(), maxSteps, new Random(COLOR_SEED), style);
+
+        RootMap[] rootMaps = {new RootMap(width, bandHeight, roots.size()), new RootMap(width, bandHeight, roots.size())};
+        int[] pixels = new int[width * bandHeight];
+        int bandCount = (height + bandHeight - 1) / bandHeight;
+
+        ExecutorService bandRenderer = Executors.newSingleThreadExecutor();
+        try (PngWriter writer = new PngWriter(path, width, height)) {
+            CompletableFuture<RootMap> rendering = renderBandAsync(polynomial, roots, maxSteps, viewport, rootMaps[0], 0, tileRenderer, bandRenderer);
+
+            for (int band = 0; band < bandCount; band++) {
+                RootMap rendered = rendering.join();
+
+                if(band + 1 < bandCount) {
+                    rendering = renderBandAsync(polynomial, roots, maxSteps, viewport, rootMaps[(band + 1) % 2],
+                                                (band + 1) * bandHeight, tileRenderer, bandRenderer);
+                }
+
+                rendered.colorize(shading, pixels);
+                if(antialias) {
+                    tileRenderer.antialias(polynomial, roots, maxSteps, viewport, rendered, band * bandHeight, shading, pixels);
+                }
+                writer.writeRows(pixels, rendered.height());
+
+                if((band + 1) % Math.max(bandCount / 10, 1) == 0) {
+                    System.out.println(((band + 1) * 100 / bandCount) + " %");
+                }
+            }
+        } finally {
+            bandRenderer.shutdown();
+        }
+        System.out.println("Plotting finished");
+    }
+
+
+    private static CompletableFuture<RootMap> renderBandAsync(ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps,
+                                                              Viewport viewport, RootMap rootMap, int firstRow,
+                                                              TileRenderer tileRenderer, Executor executor) {
+        // The last band may be lower than the others
+        int rowCount = viewport.height() - firstRow;
+        RootMap band = rowCount < rootMap.height() ? new RootMap(rootMap.width(), rowCount, roots.size()) : rootMap;
+        return CompletableFuture.supplyAsync(() -> {
+            tileRenderer.renderRows(polynomial, roots, maxSteps, viewport, band, firstRow);
+            return band;
+        }, executor);
+    }
+
+
+    /**
+     * Approximates all roots of a polynomial and prints them.
+     * @param polynomial the polynomial to calculate the roots from
+     * @return all roots of the polynomial
+     */
+    private static List<ComplexNumber> findRoots(ComplexPolynomial polynomial) {
+        System.out.println("Plotting polynomial: \n" + polynomial.toString() + "\n");
+
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+
+        System.out.println("Roots found:");
+        roots.forEach((z) -> {
+            System.out.println("z    = " + z);
+            System.out.printf("f(z) = %.10f %.10fi%n%n", polynomial.eval(z).real(), polynomial.eval(z).imaginary());
+        });
+        System.out.println("\n");
+
+        return roots;
+    }
+
+
+    /**
+     * Generates a random color for each root.
+     * @param rootCount the number of roots
+     * @return the packed ARGB color of every root
+     */
+    public static int[] generatePalette(int rootCount) {
+        return generatePalette(rootCount, COLOR_RANDOM);
+    }
+
+    /**
+     * Generates a random color for each root.
+     * @param rootCount the number of roots
+     * @param random the source of the colors, a {@code new Random(COLOR_SEED)} for the same colors in every run
+     * @return the packed ARGB color of every root
+     */
+    public static int[] generatePalette(int rootCount, Random random) {
+        int[] palette = new int[rootCount];
+        float hue = random.nextFloat();
+        for (int i = 0; i < rootCount; i++) {
+            palette[i] = Color.getHSBColor((hue += 0.069), 0.6f, 0.9f).getRGB();
+        }
+        return palette;
+    }
+
+
+    /**
+     * Generates a random color for each root, darkened by the number of iterations a pixel needed.
+     * @param rootCount the number of roots
+     * @param maxSteps the maximum number that the newton's method is applied to a pixel
+     * @return the {@code Shading} coloring the pixels
+     */
+    public static Shading generateShading(int rootCount, int maxSteps) {
+        return generateShading(rootCount, maxSteps, COLOR_RANDOM, Shading.Style.ITERATIONS);
+    }
+
+    /**
+     * Generates a random color for each root, in the given style.
+     * @param rootCount the number of roots
+     * @param maxSteps the maximum number that the newton's method is applied to a pixel
+     * @param random the source of the colors, a {@code new Random(COLOR_SEED)} for the same colors in every run
+     * @param style whether the colors are darkened by the number of iterations a pixel needed
+     * @return the {@code Shading} coloring the pixels
+     */
+    public static Shading generateShading(int rootCount, int maxSteps, Random random, Shading.Style style) {
+        return style.create(generatePalette(rootCount, random), maxSteps, BACKGROUND_COLOR.getRGB());
+    }
+
+}
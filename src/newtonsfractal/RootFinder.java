@@ -0,0 +1,262 @@
+package newtonsfractal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds all roots of a polynomial at once with the Aberth-Ehrlich method.
+ * Unlike searching a grid of start points with {@link Newton#newtonComplex(ComplexPolynomial, int)},
+ * this finds roots outside of any range and roots that are close together, and always returns {@code degree()} roots,
+ * multiple roots counted by their multiplicity.
+ */
+public class RootFinder {
+
+    /**
+     * The maximal number of sweeps over all roots.
+     */
+    public static final int MAX_SWEEPS = 500;
+
+    /**
+     * The number of newton steps every root is polished with after the sweeps.
+     */
+    public static final int POLISH_STEPS = 3;
+
+    /**
+     * The relative size of the correction below which a root counts as converged.
+     */
+    public static final double TOLERANCE = 1e-14;
+
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private RootFinder() {
+    }
+
+
+    /**
+     * Approximates all roots of a polynomial.
+     * @param polynomial the polynomial to calculate the roots from
+     * @return the roots of the polynomial, as many as its degree
+     */
+    public static List<ComplexNumber> findRoots(ComplexPolynomial polynomial) {
+        double[] coefficients = polynomial.coefficients();
+        double[] imaginaryCoefficients = polynomial.imaginaryCoefficients();
+        int degree = coefficients.length - 1;
+        List<ComplexNumber> roots = new ArrayList<>();
+        if(degree < 1) {
+            return roots;
+        }
+
+        double[] re = new double[degree];
+        double[] im = new double[degree];
+        initialGuesses(coefficients, imaginaryCoefficients, re, im);
+
+        aberth(coefficients, imaginaryCoefficients, re, im);
+        polish(coefficients, imaginaryCoefficients, re, im);
+
+        return toRoots(polynomial, re, im);
+    }
+
+
+    /**
+     * Follows the roots of a polynomial whose coefficients changed slightly, starting the search at the old roots.
+     * The roots are returned in the order of the old roots they moved away from, so that root indices stay the same.
+     * @param polynomial the changed polynomial
+     * @param previousRoots the roots of the polynomial before the change
+     * @return the roots of the changed polynomial, the root at an index being the closest to the old root at that index,
+     *         or {@code null} if the degree changed or the roots moved too far to tell which old root became which new one
+     */
+    public static List<ComplexNumber> trackRoots(ComplexPolynomial polynomial, List<ComplexNumber> previousRoots) {
+        double[] coefficients = polynomial.coefficients();
+        double[] imaginaryCoefficients = polynomial.imaginaryCoefficients();
+        int degree = coefficients.length - 1;
+        if(degree < 1 || degree != previousRoots.size()) {
+            return null;
+        }
+
+        double[] re = new double[degree];
+        double[] im = new double[degree];
+        for (int k = 0; k < degree; k++) {
+            re[k] = previousRoots.get(k).real();
+            im[k] = previousRoots.get(k).imaginary();
+        }
+
+        aberth(coefficients, imaginaryCoefficients, re, im);
+        polish(coefficients, imaginaryCoefficients, re, im);
+
+        // Every new root has to be closest to the old root it started at, and the other way round
+        for (int k = 0; k < degree; k++) {
+            ComplexNumber previous = previousRoots.get(k);
+            if(!Double.isFinite(re[k]) || !Double.isFinite(im[k])) {
+                return null;
+            }
+            for (int j = 0; j < degree; j++) {
+                if(j == k) {
+                    continue;
+                }
+                double distance = Math.hypot(re[k] - previous.real(), im[k] - previous.imaginary());
+                if(Math.hypot(re[j] - previous.real(), im[j] - previous.imaginary()) <= distance
+                   || Math.hypot(re[k] - previousRoots.get(j).real(), im[k] - previousRoots.get(j).imaginary()) <= distance) {
+                    return null;
+                }
+            }
+        }
+        return toRoots(polynomial, re, im);
+    }
+
+
+    private static List<ComplexNumber> toRoots(ComplexPolynomial polynomial, double[] re, double[] im) {
+        List<ComplexNumber> roots = new ArrayList<>(re.length);
+        boolean real = polynomial.isReal();
+        for (int k = 0; k < re.length; k++) {
+            // The roots of a polynomial with real coefficients which are real only differ from the axis by rounding
+            double imaginary = real && Math.abs(im[k]) <= 1e3 * TOLERANCE * Math.max(1, Math.abs(re[k])) ? 0 : im[k];
+            roots.add(new ComplexNumber(re[k], imaginary));
+        }
+        return roots;
+    }
+
+
+    /**
+     * Places the initial approximations evenly on a circle whose radius bounds the roots.
+     * The circle is rotated, so that no approximation lies on the real axis.
+     */
+    private static void initialGuesses(double[] coefficients, double[] imaginaryCoefficients, double[] re, double[] im) {
+        int degree = coefficients.length - 1;
+        double leading = Math.hypot(coefficients[degree], imaginaryCoefficients[degree]);
+
+        double radius = 0;
+        for (int i = 0; i < degree; i++) {
+            radius = Math.max(radius, Math.pow(Math.hypot(coefficients[i], imaginaryCoefficients[i]) / leading, 1.0 / (degree - i)));
+        }
+        if(radius == 0) {
+            radius = 1;
+        }
+
+        for (int k = 0; k < degree; k++) {
+            double angle = 2 * Math.PI * k / degree + 0.4;
+            re[k] = radius * Math.cos(angle);
+            im[k] = radius * Math.sin(angle);
+        }
+    }
+
+
+    /**
+     * Improves all approximations at once, every approximation being repelled by all others.
+     * Converges cubically for simple roots.
+     */
+    private static void aberth(double[] coefficients, double[] imaginaryCoefficients, double[] re, double[] im) {
+        int degree = re.length;
+        double[] valueAndSlope = new double[4];
+
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            boolean converged = true;
+
+            for (int k = 0; k < degree; k++) {
+                evalWithSlope(coefficients, imaginaryCoefficients, re[k], im[k], valueAndSlope);
+                double valueRe = valueAndSlope[0], valueIm = valueAndSlope[1];
+                if(valueRe == 0 && valueIm == 0) {
+                    continue;
+                }
+
+                // ratio = p(z) / p'(z)
+                double[] ratio = divide(valueRe, valueIm, valueAndSlope[2], valueAndSlope[3]);
+
+                // sum = sum of 1 / (z_k - z_j) over all other approximations
+                double sumRe = 0, sumIm = 0;
+                for (int j = 0; j < degree; j++) {
+                    if(j != k) {
+                        double[] inverse = divide(1, 0, re[k] - re[j], im[k] - im[j]);
+                        sumRe += inverse[0];
+                        sumIm += inverse[1];
+                    }
+                }
+
+                // w = ratio / (1 - ratio * sum)
+                double denominatorRe = 1 - (ratio[0] * sumRe - ratio[1] * sumIm);
+                double denominatorIm = -(ratio[0] * sumIm + ratio[1] * sumRe);
+                double[] correction = divide(ratio[0], ratio[1], denominatorRe, denominatorIm);
+                if(!Double.isFinite(correction[0]) || !Double.isFinite(correction[1])) {
+                    continue;
+                }
+
+                re[k] -= correction[0];
+                im[k] -= correction[1];
+
+                if(Math.hypot(correction[0], correction[1]) > TOLERANCE * Math.max(1, Math.hypot(re[k], im[k]))) {
+                    converged = false;
+                }
+            }
+
+            if(converged) {
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Polishes every approximation with newton steps on the polynomial deflated by the approximations before it,
+     * so that two approximations can not be pulled onto the same root.
+     */
+    private static void polish(double[] coefficients, double[] imaginaryCoefficients, double[] re, double[] im) {
+        double[] valueAndSlope = new double[4];
+
+        for (int k = 0; k < re.length; k++) {
+            for (int step = 0; step < POLISH_STEPS; step++) {
+                evalWithSlope(coefficients, imaginaryCoefficients, re[k], im[k], valueAndSlope);
+                if(valueAndSlope[0] == 0 && valueAndSlope[1] == 0) {
+                    break;
+                }
+
+                // p'(z) / p(z) of the deflated polynomial p(z) / ((z - z_0) ... (z - z_k-1))
+                double[] logDerivative = divide(valueAndSlope[2], valueAndSlope[3], valueAndSlope[0], valueAndSlope[1]);
+                for (int j = 0; j < k; j++) {
+                    double[] inverse = divide(1, 0, re[k] - re[j], im[k] - im[j]);
+                    logDerivative[0] -= inverse[0];
+                    logDerivative[1] -= inverse[1];
+                }
+
+                double[] correction = divide(1, 0, logDerivative[0], logDerivative[1]);
+                if(!Double.isFinite(correction[0]) || !Double.isFinite(correction[1])) {
+                    break;
+                }
+                re[k] -= correction[0];
+                im[k] -= correction[1];
+            }
+        }
+    }
+
+
+    /**
+     * Evaluates a polynomial and its slope with the horner scheme.
+     * @param result receives the value and the slope as {value real, value imaginary, slope real, slope imaginary}
+     */
+    private static void evalWithSlope(double[] coefficients, double[] imaginaryCoefficients, double re, double im, double[] result) {
+        double valueRe = 0, valueIm = 0, slopeRe = 0, slopeIm = 0;
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            double tempRe = (slopeRe * re) - (slopeIm * im) + valueRe;
+            slopeIm = (slopeRe * im) + (slopeIm * re) + valueIm;
+            slopeRe = tempRe;
+
+            tempRe = (valueRe * re) - (valueIm * im) + coefficients[i];
+            valueIm = (valueRe * im) + (valueIm * re) + imaginaryCoefficients[i];
+            valueRe = tempRe;
+        }
+        result[0] = valueRe;
+        result[1] = valueIm;
+        result[2] = slopeRe;
+        result[3] = slopeIm;
+    }
+
+
+    /**
+     * Divides two complex numbers.
+     * @return the quotient as {real, imaginary}
+     */
+    private static double[] divide(double re, double im, double divisorRe, double divisorIm) {
+        double denominator = divisorRe * divisorRe + divisorIm * divisorIm;
+        return new double[] {(re * divisorRe + im * divisorIm) / denominator, (im * divisorRe - re * divisorIm) / denominator};
+    }
+}
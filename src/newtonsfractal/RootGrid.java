@@ -0,0 +1,232 @@
+package newtonsfractal;
+
+import java.util.Arrays;
+
+/**
+ * Finds the roots close to a point in a uniform grid laid over the roots of a polynomial,
+ * so that classifying a point only looks at the few roots listed for its cell instead of at all roots.
+ * Gives exactly the same results as looking at all roots, ties between equally near roots go to the lower index.
+ * A {@code RootGrid} is immutable and can be shared between threads.
+ */
+public class RootGrid {
+
+    /**
+     * How far the grid reaches beyond the roots, relative to the size of the area the roots lie in.
+     * End points that have not converged yet are often found a little outside of the roots.
+     */
+    public static final double MARGIN = 0.5;
+
+
+    private final double[] rootsReal;
+    private final double[] rootsImaginary;
+    private final double[] captureRadiiSquared;
+
+    private final double minReal;
+    private final double minImaginary;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * The roots that can be the nearest root of a point in every cell,
+     * those of cell {@code c} are {@code nearRoots[nearStart[c]]} up to {@code nearRoots[nearStart[c + 1] - 1]} in ascending order.
+     */
+    private final int[] nearStart;
+    private final int[] nearRoots;
+
+    /**
+     * The roots whose capture radius reaches into every cell, stored like {@link #nearRoots}.
+     */
+    private final int[] captureStart;
+    private final int[] captureRoots;
+
+
+    /**
+     * Constructs a {@code RootGrid} with about one cell per root.
+     * @param rootsReal the real parts of the roots
+     * @param rootsImaginary the imaginary parts of the roots
+     * @param captureRadiiSquared the square of the radius in which points are captured by every root,
+     *                            the capture radii of two roots must not overlap
+     * @throws IllegalArgumentException if there are no roots or a root is not finite
+     */
+    public RootGrid(double[] rootsReal, double[] rootsImaginary, double[] captureRadiiSquared) {
+        int rootCount = rootsReal.length;
+        if(rootCount == 0) {
+            throw new IllegalArgumentException("a RootGrid needs at least one root");
+        }
+        this.rootsReal = rootsReal.clone();
+        this.rootsImaginary = rootsImaginary.clone();
+        this.captureRadiiSquared = captureRadiiSquared.clone();
+
+        double minRe = Double.POSITIVE_INFINITY, maxRe = Double.NEGATIVE_INFINITY;
+        double minIm = Double.POSITIVE_INFINITY, maxIm = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < rootCount; i++) {
+            if(!Double.isFinite(rootsReal[i]) || !Double.isFinite(rootsImaginary[i])) {
+                throw new IllegalArgumentException("the roots must be finite, root " + i + " was " + rootsReal[i] + ", " + rootsImaginary[i]);
+            }
+            double margin = captureMargin(i);
+            minRe = Math.min(minRe, rootsReal[i] - margin);
+            maxRe = Math.max(maxRe, rootsReal[i] + margin);
+            minIm = Math.min(minIm, rootsImaginary[i] - margin);
+            maxIm = Math.max(maxIm, rootsImaginary[i] + margin);
+        }
+        double width = maxRe - minRe, height = maxIm - minIm;
+
+        // Square cells, about as many as there are roots in the area of the roots and never more than that along one side
+        double size = Math.max(Math.sqrt(width * height / rootCount), Math.max(width, height) / rootCount);
+        if(!(size > 0) || !Double.isFinite(size)) {
+            size = 1;
+        }
+        double margin = MARGIN * Math.max(width, height);
+        this.minReal = minRe - margin;
+        this.minImaginary = minIm - margin;
+        this.cellSize = size;
+        this.columns = Math.max(1, (int) Math.ceil((width + 2 * margin) / size));
+        this.rows = Math.max(1, (int) Math.ceil((height + 2 * margin) / size));
+        int cellCount = columns * rows;
+
+        this.nearStart = new int[cellCount + 1];
+        this.captureStart = new int[cellCount + 1];
+        int[] near = new int[rootCount];
+        int[] capture = new int[rootCount];
+        int[] nearBuffer = new int[cellCount];
+        int[] captureBuffer = new int[cellCount];
+        int nearCount = 0, captureCount = 0;
+
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                int cell = y * columns + x;
+
+                // The cell grown a little, so that points put into it by rounding are covered as well
+                double slack = size * 1e-9;
+                double cellMinRe = minReal + x * size - slack, cellMaxRe = minReal + (x + 1) * size + slack;
+                double cellMinIm = minImaginary + y * size - slack, cellMaxIm = minImaginary + (y + 1) * size + slack;
+
+                // No point of the cell is farther from its nearest root than the smallest farthest distance of a root to the cell
+                double nearestBound = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < rootCount; i++) {
+                    double dRe = Math.max(rootsReal[i] - cellMinRe, cellMaxRe - rootsReal[i]);
+                    double dIm = Math.max(rootsImaginary[i] - cellMinIm, cellMaxIm - rootsImaginary[i]);
+                    nearestBound = Math.min(nearestBound, dRe * dRe + dIm * dIm);
+                }
+                nearestBound *= 1 + 1e-9;
+
+                int nearInCell = 0, captureInCell = 0;
+                for (int i = 0; i < rootCount; i++) {
+                    double dRe = Math.max(0, Math.max(cellMinRe - rootsReal[i], rootsReal[i] - cellMaxRe));
+                    double dIm = Math.max(0, Math.max(cellMinIm - rootsImaginary[i], rootsImaginary[i] - cellMaxIm));
+                    double closest = dRe * dRe + dIm * dIm;
+                    if(closest <= nearestBound) {
+                        near[nearInCell++] = i;
+                    }
+                    double reach = captureMargin(i);
+                    if(captureRadiiSquared[i] > 0 && closest <= reach * reach) {
+                        capture[captureInCell++] = i;
+                    }
+                }
+
+                nearBuffer = ensureCapacity(nearBuffer, nearCount + nearInCell);
+                System.arraycopy(near, 0, nearBuffer, nearCount, nearInCell);
+                nearCount += nearInCell;
+                nearStart[cell + 1] = nearCount;
+
+                captureBuffer = ensureCapacity(captureBuffer, captureCount + captureInCell);
+                System.arraycopy(capture, 0, captureBuffer, captureCount, captureInCell);
+                captureCount += captureInCell;
+                captureStart[cell + 1] = captureCount;
+            }
+        }
+
+        this.nearRoots = Arrays.copyOf(nearBuffer, nearCount);
+        this.captureRoots = Arrays.copyOf(captureBuffer, captureCount);
+    }
+
+
+    /**
+     * @return the number of cells of the grid
+     */
+    public int cellCount() {
+        return columns * rows;
+    }
+
+
+    /**
+     * Finds the root whose capture radius contains a point, like {@link NewtonKernel#capturingRoot(double, double)}.
+     * @param re the real part of the point
+     * @param im the imaginary part of the point
+     * @return the index of the root, or {@link TileRenderer#NO_ROOT} if the point is not close enough to any root
+     */
+    public int capturingRoot(double re, double im) {
+        int cell = cell(re, im);
+        if(cell < 0) {
+            // The grid covers all capture radii
+            return TileRenderer.NO_ROOT;
+        }
+
+        for (int k = captureStart[cell]; k < captureStart[cell + 1]; k++) {
+            int i = captureRoots[k];
+            double dRe = rootsReal[i] - re;
+            double dIm = rootsImaginary[i] - im;
+            if(dRe * dRe + dIm * dIm < captureRadiiSquared[i]) {
+                return i;
+            }
+        }
+        return TileRenderer.NO_ROOT;
+    }
+
+
+    /**
+     * Finds the root that is closest to a point, like {@link NewtonKernel#nearestRoot(double, double)}.
+     * @param re the real part of the point
+     * @param im the imaginary part of the point
+     * @return the index of the nearest root, or {@link TileRenderer#NO_ROOT} if the point lies outside of the grid
+     */
+    public int nearestRoot(double re, double im) {
+        int cell = cell(re, im);
+        if(cell < 0) {
+            return TileRenderer.NO_ROOT;
+        }
+
+        int nearest = TileRenderer.NO_ROOT;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int k = nearStart[cell]; k < nearStart[cell + 1]; k++) {
+            int i = nearRoots[k];
+            double dRe = rootsReal[i] - re;
+            double dIm = rootsImaginary[i] - im;
+            double distance = dRe * dRe + dIm * dIm;
+            if(distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+
+    /**
+     * @return the index of the cell containing a point, or -1 if the point lies outside of the grid or is not finite
+     */
+    private int cell(double re, double im) {
+        double x = (re - minReal) / cellSize;
+        double y = (im - minImaginary) / cellSize;
+        // Also false for NaN
+        if(!(x >= 0 && x < columns && y >= 0 && y < rows)) {
+            return -1;
+        }
+        return (int) y * columns + (int) x;
+    }
+
+
+    /**
+     * @return how far the cells listing a root as capturing reach from it, a little more than its capture radius
+     */
+    private double captureMargin(int root) {
+        double radius = Math.sqrt(captureRadiiSquared[root]);
+        return 2 * radius + 4 * Math.max(Math.ulp(rootsReal[root]), Math.ulp(rootsImaginary[root]));
+    }
+
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, 2 * array.length));
+    }
+}
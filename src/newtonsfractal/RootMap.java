@@ -0,0 +1,329 @@
+package newtonsfractal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * Holds the result of the newton's method for every pixel of an image or a band of rows of an image:
+ * the index of the root the pixel converged to and the number of iterations it took.
+ * Both are stored as planes of shorts, either on the heap or in a memory-mapped file.
+ */
+public class RootMap {
+
+    /**
+     * The number of bytes one pixel takes in a {@code RootMap}.
+     */
+    public static final int BYTES_PER_PIXEL = 2 * Short.BYTES;
+
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The sign bit of the iterations of a pixel, which no result uses, marks the pixel until {@link #clearMarks} is called.
+     */
+    static final short MARK = (short) 0x8000;
+
+
+    private final int width;
+    private final int height;
+    private final int rootCount;
+
+    private final ByteBuffer rootIndexPlane;
+    private final ByteBuffer iterationPlane;
+
+    private final ShortBuffer rootIndices;
+    private final ShortBuffer iterations;
+
+
+    /**
+     * Constructs a {@code RootMap} on the heap with every pixel set to {@link TileRenderer#NO_ROOT}.
+     * @param width the width in pixels
+     * @param height the height in pixels
+     * @param rootCount the number of roots the root indices refer to
+     */
+    public RootMap(int width, int height, int rootCount) {
+        this(width, height, rootCount, ByteBuffer.allocate(planeSize(width, height)), ByteBuffer.allocate(planeSize(width, height)));
+        for (int i = 0; i < width * height; i++) {
+            rootIndices.put(i, (short) TileRenderer.NO_ROOT);
+        }
+    }
+
+    /**
+     * Constructs a {@code RootMap} on top of existing planes.
+     * @param width the width in pixels
+     * @param height the height in pixels
+     * @param rootCount the number of roots the root indices refer to
+     * @param rootIndexPlane holds the root index of every pixel
+     * @param iterationPlane holds the number of iterations of every pixel
+     */
+    RootMap(int width, int height, int rootCount, ByteBuffer rootIndexPlane, ByteBuffer iterationPlane) {
+        if(rootCount > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("at most " + Short.MAX_VALUE + " roots can be stored, were " + rootCount);
+        }
+        this.width = width;
+        this.height = height;
+        this.rootCount = rootCount;
+        this.rootIndexPlane = rootIndexPlane;
+        this.iterationPlane = iterationPlane;
+        this.rootIndices = rootIndexPlane.asShortBuffer();
+        this.iterations = iterationPlane.asShortBuffer();
+    }
+
+
+    /**
+     * Calculates the size of one plane.
+     * @param width the width in pixels
+     * @param height the height in pixels
+     * @return the size of one plane in bytes
+     */
+    static int planeSize(int width, int height) {
+        long size = (long) width * height * Short.BYTES;
+        if(width < 0 || height < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("a RootMap can not hold " + width + "x" + height + " pixels");
+        }
+        return (int) size;
+    }
+
+
+    /**
+     * @return the width in pixels
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return the height in pixels
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return the number of roots the root indices refer to
+     */
+    public int rootCount() {
+        return rootCount;
+    }
+
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the index of the root the pixel converged to, or {@link TileRenderer#NO_ROOT}
+     */
+    public int rootIndex(int x, int y) {
+        return rootIndices.get(y * width + x);
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the number of times the newton's method was applied to the pixel
+     */
+    public int iterations(int x, int y) {
+        return iterations.get(y * width + x);
+    }
+
+    /**
+     * Copies the results of a row.
+     * @param y the row
+     * @param rowRoots receives the root index of every pixel of the row
+     * @param rowIterations receives the iterations of every pixel of the row
+     */
+    void getRow(int y, short[] rowRoots, short[] rowIterations) {
+        rootIndices.get(y * width, rowRoots, 0, width);
+        iterations.get(y * width, rowIterations, 0, width);
+    }
+
+    /**
+     * Stores the results of a row, the iterations may be marked with {@link #MARK}.
+     * @param y the row
+     * @param rowRoots the root index of every pixel of the row
+     * @param rowIterations the iterations of every pixel of the row
+     */
+    void setRow(int y, short[] rowRoots, short[] rowIterations) {
+        rootIndices.put(y * width, rowRoots, 0, width);
+        iterations.put(y * width, rowIterations, 0, width);
+    }
+
+    /**
+     * Marks a pixel, see {@link #MARK}.
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     */
+    void mark(int x, int y) {
+        int index = y * width + x;
+        iterations.put(index, (short) (iterations.get(index) | MARK));
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return whether the pixel is marked, see {@link #MARK}
+     */
+    boolean marked(int x, int y) {
+        return (iterations.get(y * width + x) & MARK) != 0;
+    }
+
+    /**
+     * Removes the marks of a band of rows, see {@link #MARK}.
+     * @param firstRow the first row of the band
+     * @param endRow the row after the band
+     */
+    void clearMarks(int firstRow, int endRow) {
+        short[] rowIterations = new short[width];
+        for (int y = firstRow; y < endRow; y++) {
+            iterations.get(y * width, rowIterations, 0, width);
+            boolean marked = false;
+            for (int x = 0; x < width; x++) {
+                marked |= rowIterations[x] < 0;
+                rowIterations[x] &= ~MARK;
+            }
+            if(marked) {
+                iterations.put(y * width, rowIterations, 0, width);
+            }
+        }
+    }
+
+    /**
+     * Copies all results of another {@code RootMap} of the same size.
+     * @param source the {@code RootMap} to copy
+     */
+    void copyFrom(RootMap source) {
+        if(source.width != width || source.height != height) {
+            throw new IllegalArgumentException("a RootMap of " + source.width + "x" + source.height + " pixels can not be copied into one of "
+                                               + width + "x" + height);
+        }
+        int size = planeSize(width, height);
+        copyPlane(source.rootIndexPlane, rootIndexPlane, size);
+        copyPlane(source.iterationPlane, iterationPlane, size);
+    }
+
+    private static void copyPlane(ByteBuffer source, ByteBuffer target, int size) {
+        ByteBuffer from = source.duplicate();
+        from.clear().limit(size);
+        ByteBuffer to = target.duplicate();
+        to.clear().limit(size);
+        to.put(from);
+    }
+
+    /**
+     * @return whether the planes can only be read, like those of a file mapped for reading
+     */
+    boolean isReadOnly() {
+        return rootIndexPlane.isReadOnly() || iterationPlane.isReadOnly();
+    }
+
+    /**
+     * Stores the result of a pixel.
+     * Iteration counts above {@code Short.MAX_VALUE} are clamped.
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @param rootIndex the index of the root the pixel converged to, or {@link TileRenderer#NO_ROOT}
+     * @param iterations the number of times the newton's method was applied to the pixel
+     */
+    public void set(int x, int y, int rootIndex, int iterations) {
+        int index = y * width + x;
+        this.rootIndices.put(index, (short) rootIndex);
+        this.iterations.put(index, (short) Math.min(iterations, Short.MAX_VALUE));
+    }
+
+
+    /**
+     * Colors every pixel by the root it converged to and the number of iterations it needed.
+     * Recoloring a {@code RootMap} with another {@code Shading} does not need to render it again.
+     * @param shading turns the root index and the iterations of a pixel into its color
+     * @param pixels the packed ARGB pixels in row-major order
+     */
+    public void colorize(Shading shading, int[] pixels) {
+        short[] rowRoots = new short[width];
+        short[] rowIterations = new short[width];
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            rootIndices.get(row, rowRoots);
+            iterations.get(row, rowIterations);
+            for (int x = 0; x < width; x++) {
+                pixels[row + x] = shading.color(rowRoots[x], rowIterations[x]);
+            }
+        }
+    }
+
+
+    /**
+     * Colors a preview of a partly rendered image, in which only the pixels whose column and row are multiples of
+     * {@code step} have been rendered. Every rendered pixel colors the block of {@code step} x {@code step} pixels
+     * below and to the right of it.
+     * @param shading turns the root index and the iterations of a pixel into its color
+     * @param pixels the packed ARGB pixels in row-major order
+     * @param step the distance between two rendered pixels in both directions
+     */
+    public void colorizeBlocks(Shading shading, int[] pixels, int step) {
+        for (int y = 0; y < height; y += step) {
+            int row = y * width;
+            for (int x = 0; x < width; x += step) {
+                int color = shading.color(rootIndices.get(row + x), iterations.get(row + x));
+                Arrays.fill(pixels, row + x, row + Math.min(x + step, width), color);
+            }
+
+            // The other rows of the blocks look like their first one
+            for (int blockRow = y + 1; blockRow < Math.min(y + step, height); blockRow++) {
+                System.arraycopy(pixels, row, pixels, blockRow * width, width);
+            }
+        }
+    }
+
+
+    /**
+     * Writes both planes to a stream, the root indices first, to send them to another process.
+     * @param out the stream to write to
+     * @throws IOException if the stream can not be written
+     */
+    public void write(DataOutput out) throws IOException {
+        byte[] chunk = new byte[COPY_CHUNK_SIZE];
+        for (ByteBuffer plane : new ByteBuffer[] {rootIndexPlane, iterationPlane}) {
+            ByteBuffer source = plane.duplicate();
+            source.clear().limit(planeSize(width, height));
+            while (source.hasRemaining()) {
+                int length = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Reads both planes as written by {@link #write(DataOutput)}.
+     * @param in the stream to read from
+     * @throws IOException if the stream can not be read or ends too early
+     */
+    public void read(DataInput in) throws IOException {
+        byte[] chunk = new byte[COPY_CHUNK_SIZE];
+        for (ByteBuffer plane : new ByteBuffer[] {rootIndexPlane, iterationPlane}) {
+            ByteBuffer target = plane.duplicate();
+            target.clear().limit(planeSize(width, height));
+            while (target.hasRemaining()) {
+                int length = Math.min(chunk.length, target.remaining());
+                in.readFully(chunk, 0, length);
+                target.put(chunk, 0, length);
+            }
+        }
+    }
+
+
+    /**
+     * Writes the planes to the storage device if they are memory-mapped.
+     */
+    public void force() {
+        if(rootIndexPlane instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) rootIndexPlane).force();
+        }
+        if(iterationPlane instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) iterationPlane).force();
+        }
+    }
+}
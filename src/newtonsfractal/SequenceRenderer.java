@@ -0,0 +1,545 @@
+package newtonsfractal;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders a series of frames of the newton fractal in one run and streams them to numbered PNG files or an animated GIF.
+ * Three kinds of sequences are supported:
+ * <ul>
+ *     <li>an iteration sweep, one frame for every maximum number of iterations in a range,
+ *     which keeps the current point of every pixel between the frames, so every frame costs at most one newton step per pixel</li>
+ *     <li>an interpolation between the coefficients of two polynomials, the colors follow the roots as they move</li>
+ *     <li>a zoom from one viewport into another at a constant speed</li>
+ * </ul>
+ * <p>
+ * Usage: {@code java newtonsfractal.SequenceRenderer [options] (--sweep <from>..<to> | --interpolate <coefficients> | --zoom <re>,<im>,<range>)}
+ * <p>
+ * Options:
+ * <pre>
+ * --polynomial &lt;c0,c1,..&gt;  the polynomial, or the one the interpolation starts at (default 1,-1,1,0,0,1)
+ * --size &lt;w&gt;x&lt;h&gt;         size of the frames in pixels (default 1000x1000)
+ * --center &lt;re,im&gt;        center of the first frame (default 0,0)
+ * --range &lt;r&gt;             distance from the center to the left edge of the first frame (default 2.5)
+ * --iterations &lt;n&gt;        maximum number of iterations for interpolations and zooms (default 25)
+ * --frames &lt;n&gt;            number of frames of interpolations and zooms (default 60)
+ * --png &lt;pattern&gt;         file name pattern of the frames (default images/sequence/frame-%04d.png)
+ * --gif &lt;file&gt;            also write an animated GIF
+ * --delay &lt;ms&gt;            time a frame of the GIF is shown (default 100)
+ * --threads &lt;n&gt;           number of threads rendering tiles (default all processors)
+ * --mode &lt;name&gt;           full or adaptive (default full)
+ * --shading &lt;name&gt;        flat or iterations, which darkens pixels the more iterations they needed (default flat)
+ * </pre>
+ * Coefficients start at x^0 and may be complex, like {@code 1,-1+2i,0,1}.
+ */
+public class SequenceRenderer {
+
+    public static final int DEFAULT_FRAMES = 60;
+    public static final int DEFAULT_DELAY = 100;
+    public static final String DEFAULT_PNG_PATTERN = "images/sequence/frame-%04d.png";
+
+
+    private final TileRenderer tileRenderer;
+    private final Shading.Style style;
+
+
+    /**
+     * Constructs a {@code SequenceRenderer} that colors every pixel in the color of its root.
+     * @param tileRenderer the {@code TileRenderer} rendering the frames, iteration sweeps advance their pixels on its threads
+     */
+    public SequenceRenderer(TileRenderer tileRenderer) {
+        this(tileRenderer, Shading.Style.FLAT);
+    }
+
+    /**
+     * Constructs a {@code SequenceRenderer}.
+     * @param tileRenderer the {@code TileRenderer} rendering the frames, iteration sweeps advance their pixels on its threads
+     * @param style whether the pixels are darkened by the number of iterations they needed
+     */
+    public SequenceRenderer(TileRenderer tileRenderer, Shading.Style style) {
+        this.tileRenderer = tileRenderer;
+        this.style = style;
+    }
+
+
+    /**
+     * Renders one frame for every maximum number of iterations from {@code fromSteps} to {@code toSteps}.
+     * Every frame looks exactly like the fractal rendered with its maximum from scratch,
+     * but only the pixels that have not stopped yet are advanced by one step.
+     * @param polynomial the polynomial the fractal will be based on
+     * @param fromSteps the maximum number of iterations of the first frame
+     * @param toSteps the maximum number of iterations of the last frame, at most {@code Short.MAX_VALUE}
+     * @param viewport the part of the complex plane the frames show, not deeper than {@link Viewport.Precision#DOUBLE} allows
+     * @param frames receives the frames
+     * @return the number of newton steps applied for all frames together
+     * @throws IllegalArgumentException if the renderer applies a nova map, whose pixels can not be advanced step by step
+     * @throws IOException if a frame can not be written
+     */
+    public long renderIterationSweep(ComplexPolynomial polynomial, int fromSteps, int toSteps, Viewport viewport,
+                                     FrameSink frames) throws IOException {
+        if(fromSteps < 0 || toSteps < fromSteps) {
+            throw new IllegalArgumentException("invalid iteration range " + fromSteps + ".." + toSteps);
+        }
+        if(tileRenderer.iterationMap().isNova()) {
+            throw new IllegalArgumentException("iteration sweeps are not supported for nova maps");
+        }
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        if(viewport.precision(roots) != Viewport.Precision.DOUBLE) {
+            throw new IllegalArgumentException("iteration sweeps are only supported in double precision, the viewport needs " + viewport.precision(roots));
+        }
+        NewtonKernel kernel = new NewtonKernel(polynomial, roots, tileRenderer.iterationMap());
+        NewtonKernel.Convergence convergence = tileRenderer.convergence();
+        int[] palette = Renderer.generatePalette(roots.size());
+
+        int width = viewport.width();
+        int height = viewport.height();
+        double[] real = new double[width * height];
+        double[] imaginary = new double[width * height];
+        int[] results = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                real[y * width + x] = viewport.real(x);
+                imaginary[y * width + x] = viewport.imaginary(y);
+            }
+        }
+
+        int[] pixels = new int[width * height];
+        LongAdder steps = new LongAdder();
+        for (int maxSteps = fromSteps; maxSteps <= toSteps; maxSteps++) {
+            long start = System.nanoTime();
+            int frameSteps = maxSteps;
+            Shading shading = style.create(palette, frameSteps, Renderer.BACKGROUND_COLOR.getRGB());
+
+            tileRenderer.forEachTile(width, height, frameSteps, (tile, recorder) -> {
+                double[] z = new double[2];
+                long tileSteps = 0;
+                for (int y = tile[1]; y < tile[3]; y++) {
+                    for (int i = y * width + tile[0]; i < y * width + tile[2]; i++) {
+                        // A negative result has stopped for good and keeps its color
+                        if(results[i] >= 0) {
+                            int iterations = NewtonKernel.iterations(results[i]);
+                            z[0] = real[i];
+                            z[1] = imaginary[i];
+                            results[i] = kernel.resume(z, iterations, frameSteps, convergence);
+                            real[i] = z[0];
+                            imaginary[i] = z[1];
+                            int resumed = results[i] < 0 ? ~results[i] : results[i];
+                            recorder.record(resumed, NewtonKernel.iterations(resumed) - iterations);
+                            tileSteps += NewtonKernel.iterations(resumed) - iterations;
+                        }
+                        int result = results[i] < 0 ? ~results[i] : results[i];
+                        pixels[i] = shading.color(NewtonKernel.rootIndex(result), NewtonKernel.iterations(result));
+                    }
+                }
+                steps.add(tileSteps);
+            });
+
+            frames.write(maxSteps - fromSteps, pixels);
+            System.out.printf("Frame with %d iterations rendered in %d ms%n", maxSteps, (System.nanoTime() - start) / 1_000_000);
+        }
+        return steps.sum();
+    }
+
+
+    /**
+     * Renders frames morphing one polynomial into another by interpolating their coefficients linearly.
+     * The roots are found again for every frame and matched to the nearest roots of the frame before,
+     * so that every root keeps its color while it moves.
+     * @param from the polynomial of the first frame
+     * @param to the polynomial of the last frame
+     * @param frameCount the number of frames, at least 2
+     * @param maxSteps the maximum number that the newton's method will be applied to a pixel
+     * @param viewport the part of the complex plane the frames show
+     * @param frames receives the frames
+     * @throws IOException if a frame can not be written
+     */
+    public void renderInterpolation(ComplexPolynomial from, ComplexPolynomial to, int frameCount, int maxSteps,
+                                    Viewport viewport, FrameSink frames) throws IOException {
+        if(frameCount < 2) {
+            throw new IllegalArgumentException("an interpolation needs at least 2 frames, were " + frameCount);
+        }
+        int length = Math.max(from.degree(), to.degree()) + 1;
+        double[] fromCoefficients = Arrays.copyOf(from.coefficients(), length);
+        double[] toCoefficients = Arrays.copyOf(to.coefficients(), length);
+        double[] fromImaginaryCoefficients = Arrays.copyOf(from.imaginaryCoefficients(), length);
+        double[] toImaginaryCoefficients = Arrays.copyOf(to.imaginaryCoefficients(), length);
+
+        int[] palette = Renderer.generatePalette(Math.max(length - 1, 1));
+        List<ComplexNumber> previousRoots = new ArrayList<>();
+        int[] previousColors = new int[0];
+
+        int[] pixels = new int[viewport.width() * viewport.height()];
+        for (int frame = 0; frame < frameCount; frame++) {
+            long start = System.nanoTime();
+            double t = frame / (frameCount - 1.0);
+            double[] coefficients = new double[length];
+            double[] imaginaryCoefficients = new double[length];
+            for (int i = 0; i < length; i++) {
+                coefficients[i] = (1 - t) * fromCoefficients[i] + t * toCoefficients[i];
+                imaginaryCoefficients[i] = (1 - t) * fromImaginaryCoefficients[i] + t * toImaginaryCoefficients[i];
+            }
+            ComplexPolynomial polynomial = new ComplexPolynomial(coefficients, imaginaryCoefficients);
+            List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+
+            int[] colors = matchColors(previousRoots, previousColors, roots, palette.length);
+            int[] rootPalette = new int[roots.size()];
+            for (int i = 0; i < roots.size(); i++) {
+                rootPalette[i] = palette[colors[i]];
+            }
+
+            RootMap rootMap = new RootMap(viewport.width(), viewport.height(), roots.size());
+            tileRenderer.render(polynomial, roots, maxSteps, viewport, rootMap);
+            rootMap.colorize(style.create(rootPalette, maxSteps, Renderer.BACKGROUND_COLOR.getRGB()), pixels);
+            frames.write(frame, pixels);
+
+            previousRoots = roots;
+            previousColors = colors;
+            System.out.printf("Frame %d rendered in %d ms%n", frame, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+
+    /**
+     * Renders frames zooming from one viewport into another.
+     * The range changes by the same factor from frame to frame and the center moves along with it,
+     * so that the picture moves across the screen at a constant speed.
+     * @param polynomial the polynomial the fractal will be based on
+     * @param maxSteps the maximum number that the newton's method will be applied to a pixel
+     * @param from the viewport of the first frame
+     * @param to the viewport of the last frame, its size is ignored
+     * @param frameCount the number of frames, at least 2
+     * @param frames receives the frames
+     * @throws IOException if a frame can not be written
+     */
+    public void renderZoom(ComplexPolynomial polynomial, int maxSteps, Viewport from, Viewport to, int frameCount,
+                           FrameSink frames) throws IOException {
+        if(frameCount < 2) {
+            throw new IllegalArgumentException("a zoom needs at least 2 frames, were " + frameCount);
+        }
+        List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+        Shading shading = style.create(Renderer.generatePalette(roots.size()), maxSteps, Renderer.BACKGROUND_COLOR.getRGB());
+        double scale = to.range() / from.range();
+
+        int[] pixels = new int[from.width() * from.height()];
+        RootMap rootMap = new RootMap(from.width(), from.height(), roots.size());
+        for (int frame = 0; frame < frameCount; frame++) {
+            long start = System.nanoTime();
+            double t = frame / (frameCount - 1.0);
+
+            // The share of the way to the center of the last frame, moving a constant number of pixels per frame
+            double way = Math.abs(1 - scale) < 1e-12 ? t : (1 - Math.pow(scale, t)) / (1 - scale);
+            Viewport viewport = new Viewport(from.centerReal() + way * (to.centerReal() - from.centerReal()),
+                                             from.centerImaginary() + way * (to.centerImaginary() - from.centerImaginary()),
+                                             from.range() * Math.pow(scale, t), from.width(), from.height());
+
+            tileRenderer.render(polynomial, roots, maxSteps, viewport, rootMap);
+            rootMap.colorize(shading, pixels);
+            frames.write(frame, pixels);
+            System.out.printf("Frame %d rendered in %d ms%n", frame, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+
+    /**
+     * Gives every root the palette index of the nearest root of the frame before that no other root has taken yet.
+     * Pairs are matched from the closest to the farthest, roots left over get unused palette indices.
+     * @return the palette index of every root
+     */
+    private static int[] matchColors(List<ComplexNumber> previousRoots, int[] previousColors, List<ComplexNumber> roots, int paletteSize) {
+        int[] colors = new int[roots.size()];
+        Arrays.fill(colors, -1);
+        boolean[] usedRoots = new boolean[previousRoots.size()];
+        boolean[] usedColors = new boolean[Math.max(paletteSize, roots.size())];
+
+        List<double[]> pairs = new ArrayList<>();
+        for (int i = 0; i < roots.size(); i++) {
+            for (int j = 0; j < previousRoots.size(); j++) {
+                ComplexNumber a = roots.get(i), b = previousRoots.get(j);
+                pairs.add(new double[] {Math.hypot(a.real() - b.real(), a.imaginary() - b.imaginary()), i, j});
+            }
+        }
+        pairs.sort((a, b) -> Double.compare(a[0], b[0]));
+        for (double[] pair : pairs) {
+            int i = (int) pair[1], j = (int) pair[2];
+            if(colors[i] < 0 && !usedRoots[j]) {
+                colors[i] = previousColors[j];
+                usedRoots[j] = true;
+                usedColors[previousColors[j]] = true;
+            }
+        }
+
+        int next = 0;
+        for (int i = 0; i < roots.size(); i++) {
+            if(colors[i] < 0) {
+                while (usedColors[next]) {
+                    next++;
+                }
+                colors[i] = next;
+                usedColors[next] = true;
+            }
+        }
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] %= paletteSize;
+        }
+        return colors;
+    }
+
+
+
+    /**
+     * Receives the frames of a sequence in order.
+     */
+    public interface FrameSink extends Closeable {
+
+        /**
+         * @param frame the number of the frame, starting at 0
+         * @param pixels the packed ARGB pixels of the frame in row-major order, only valid during the call
+         * @throws IOException if the frame can not be written
+         */
+        void write(int frame, int[] pixels) throws IOException;
+
+        /**
+         * @param sinks the sinks every frame is passed to
+         * @return a sink passing every frame to all of them
+         */
+        static FrameSink all(List<FrameSink> sinks) {
+            return new FrameSink() {
+                @Override
+                public void write(int frame, int[] pixels) throws IOException {
+                    for (FrameSink sink : sinks) {
+                        sink.write(frame, pixels);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    for (FrameSink sink : sinks) {
+                        sink.close();
+                    }
+                }
+            };
+        }
+    }
+
+
+    /**
+     * Writes every frame into its own PNG file.
+     */
+    public static class PngFrames implements FrameSink {
+        private final String pattern;
+        private final int width;
+        private final int height;
+
+        /**
+         * Constructs a {@code PngFrames}.
+         * @param pattern the file name of the frames, formatted with the number of the frame, like {@code frame-%04d.png}
+         * @param width the width of the frames in pixels
+         * @param height the height of the frames in pixels
+         */
+        public PngFrames(String pattern, int width, int height) {
+            this.pattern = pattern;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void write(int frame, int[] pixels) throws IOException {
+            Path path = Paths.get(String.format(pattern, frame));
+            if(path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (PngWriter writer = new PngWriter(path, width, height)) {
+                writer.writeRows(pixels, height);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+
+    /**
+     * Writes all frames into one looping animated GIF.
+     */
+    public static class GifFrames implements FrameSink {
+        private final ImageOutputStream output;
+        private final ImageWriter writer;
+        private final BufferedImage image;
+        private final int delay;
+
+        /**
+         * Creates the file.
+         * @param path the GIF file
+         * @param width the width of the frames in pixels
+         * @param height the height of the frames in pixels
+         * @param delay the time every frame is shown in milliseconds
+         * @throws IOException if the file can not be written
+         */
+        public GifFrames(Path path, int width, int height, int delay) throws IOException {
+            if(path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.deleteIfExists(path);
+            this.output = ImageIO.createImageOutputStream(path.toFile());
+            this.writer = ImageIO.getImageWritersByFormatName("gif").next();
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            this.delay = delay;
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+        }
+
+        @Override
+        public void write(int frame, int[] pixels) throws IOException {
+            image.setRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+            String format = metadata.getNativeMetadataFormatName();
+            IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+            IIOMetadataNode control = child(root, "GraphicControlExtension");
+            control.setAttribute("disposalMethod", "none");
+            control.setAttribute("userInputFlag", "FALSE");
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("delayTime", Integer.toString(Math.max(delay / 10, 1)));
+            control.setAttribute("transparentColorIndex", "0");
+
+            if(frame == 0) {
+                // Loops forever
+                IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+                loop.setAttribute("applicationID", "NETSCAPE");
+                loop.setAttribute("authenticationCode", "2.0");
+                loop.setUserObject(new byte[] {1, 0, 0});
+                child(root, "ApplicationExtensions").appendChild(loop);
+            }
+
+            metadata.setFromTree(format, root);
+            writer.writeToSequence(new IIOImage(image, null, metadata), param);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.endWriteSequence();
+            } finally {
+                writer.dispose();
+                output.close();
+            }
+        }
+
+        private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+            for (int i = 0; i < parent.getLength(); i++) {
+                if(parent.item(i).getNodeName().equals(name)) {
+                    return (IIOMetadataNode) parent.item(i);
+                }
+            }
+            IIOMetadataNode node = new IIOMetadataNode(name);
+            parent.appendChild(node);
+            return node;
+        }
+    }
+
+
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        ComplexPolynomial polynomial = new ComplexPolynomial(1, -1, 1, 0, 0, 1);
+        int width = 1000, height = 1000;
+        double centerReal = 0, centerImaginary = 0, range = Renderer.RANGE;
+        int iterations = 25;
+        int frameCount = DEFAULT_FRAMES;
+        String pngPattern = null;
+        Path gif = null;
+        int delay = DEFAULT_DELAY;
+        int threads = Runtime.getRuntime().availableProcessors();
+        TileRenderer.Mode mode = TileRenderer.Mode.FULL;
+        Shading.Style shading = Shading.Style.FLAT;
+        int[] sweep = null;
+        ComplexPolynomial interpolateTo = null;
+        double[] zoomTo = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--polynomial":  polynomial = ComplexPolynomial.parse(args[++i]); break;
+                case "--size":        String[] size = args[++i].split("x");
+                                      width = Integer.parseInt(size[0]);
+                                      height = Integer.parseInt(size[size.length - 1]); break;
+                case "--center":      double[] center = parseNumbers(args[++i]);
+                                      centerReal = center[0];
+                                      centerImaginary = center.length > 1 ? center[1] : 0; break;
+                case "--range":       range = Double.parseDouble(args[++i]); break;
+                case "--iterations":  iterations = Integer.parseInt(args[++i]); break;
+                case "--frames":      frameCount = Integer.parseInt(args[++i]); break;
+                case "--png":         pngPattern = args[++i]; break;
+                case "--gif":         gif = Paths.get(args[++i]); break;
+                case "--delay":       delay = Integer.parseInt(args[++i]); break;
+                case "--threads":     threads = Integer.parseInt(args[++i]); break;
+                case "--mode":        mode = TileRenderer.Mode.valueOf(args[++i].toUpperCase()); break;
+                case "--shading":     shading = Shading.Style.valueOf(args[++i].toUpperCase()); break;
+                case "--sweep":       String[] bounds = args[++i].split("\\.\\.");
+                                      sweep = new int[] {Integer.parseInt(bounds[0]), Integer.parseInt(bounds[bounds.length - 1])}; break;
+                case "--interpolate": interpolateTo = ComplexPolynomial.parse(args[++i]); break;
+                case "--zoom":        zoomTo = parseNumbers(args[++i]); break;
+                default:              throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+            }
+        }
+
+        if((sweep == null ? 0 : 1) + (interpolateTo == null ? 0 : 1) + (zoomTo == null ? 0 : 1) != 1) {
+            System.err.println("Usage: java newtonsfractal.SequenceRenderer [--polynomial c0,c1,..] [--size WxH] [--center re,im] [--range r]"
+                               + " [--iterations n] [--frames n] [--png pattern] [--gif file] [--delay ms] [--threads n]"
+                               + " [--mode full|adaptive] [--shading flat|iterations] (--sweep from..to | --interpolate c0,c1,.. | --zoom re,im,range)");
+            System.exit(2);
+        }
+
+        List<FrameSink> sinks = new ArrayList<>();
+        if(pngPattern != null || gif == null) {
+            sinks.add(new PngFrames(pngPattern != null ? pngPattern : DEFAULT_PNG_PATTERN, width, height));
+        }
+        if(gif != null) {
+            sinks.add(new GifFrames(gif, width, height, delay));
+        }
+
+        Viewport viewport = new Viewport(centerReal, centerImaginary, range, width, height);
+        TileRenderer tileRenderer = new TileRenderer(TileRenderer.DEFAULT_TILE_SIZE, threads, NewtonKernel.Convergence.EARLY_EXIT,
+                                                     NewtonSolver.Backend.SCALAR, mode);
+        tileRenderer.metrics().register("SequenceRenderer");
+        SequenceRenderer sequenceRenderer = new SequenceRenderer(tileRenderer, shading);
+        long start = System.nanoTime();
+        try (FrameSink frames = FrameSink.all(sinks)) {
+            if(sweep != null) {
+                long steps = sequenceRenderer.renderIterationSweep(polynomial, sweep[0], sweep[1], viewport, frames);
+                System.out.printf("%d newton steps for %d frames%n", steps, sweep[1] - sweep[0] + 1);
+            }else if(interpolateTo != null) {
+                sequenceRenderer.renderInterpolation(polynomial, interpolateTo, frameCount, iterations, viewport, frames);
+            }else {
+                Viewport target = new Viewport(zoomTo[0], zoomTo.length > 1 ? zoomTo[1] : 0, zoomTo.length > 2 ? zoomTo[2] : range, width, height);
+                sequenceRenderer.renderZoom(polynomial, iterations, viewport, target, frameCount, frames);
+            }
+        } finally {
+            tileRenderer.shutdown();
+        }
+        System.out.printf("Sequence finished in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private static double[] parseNumbers(String list) {
+        return Arrays.stream(list.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+}
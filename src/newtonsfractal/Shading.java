@@ -0,0 +1,114 @@
+package newtonsfractal;
+
+/**
+ * Turns the root index and the number of iterations of a pixel into its color.
+ * Every root has its own color, which gets darker the more iterations a pixel needed to converge.
+ * All colors are computed once into a table, so coloring a pixel is a single lookup.
+ * A {@code Shading} is immutable and can be shared between threads.
+ */
+public class Shading {
+
+    /**
+     * The brightness of pixels that needed the maximal number of iterations, relative to the color of their root.
+     */
+    public static final double MIN_BRIGHTNESS = 0.25;
+
+
+    /**
+     * Whether the color of a pixel depends on the number of iterations it needed, or only on its root.
+     */
+    public enum Style {
+        /** Every pixel in the color of its root, like the fractal was always rendered */
+        FLAT,
+        /** Pixels darker the more iterations they needed */
+        ITERATIONS;
+
+        /**
+         * Creates a {@code Shading} in this style.
+         * @param palette the packed ARGB color of every root
+         * @param maxIterations the number of iterations at which pixels reach {@link #MIN_BRIGHTNESS}, ignored when flat
+         * @param background the packed ARGB color of pixels that could not be assigned to any root
+         * @return the {@code Shading}
+         */
+        public Shading create(int[] palette, int maxIterations, int background) {
+            return this == FLAT ? flat(palette, background) : new Shading(palette, maxIterations, background);
+        }
+    }
+
+
+    private final int[] table;
+    private final int levels;
+    private final int background;
+
+
+    /**
+     * Constructs a {@code Shading} that darkens the color of a root linearly with the number of iterations.
+     * @param palette the packed ARGB color of every root
+     * @param maxIterations the number of iterations at which pixels reach {@link #MIN_BRIGHTNESS}
+     * @param background the packed ARGB color of pixels that could not be assigned to any root
+     */
+    public Shading(int[] palette, int maxIterations, int background) {
+        if(maxIterations < 0) {
+            throw new IllegalArgumentException("maxIterations must not be negative, was " + maxIterations);
+        }
+        this.levels = maxIterations + 1;
+        this.background = background;
+        this.table = new int[palette.length * levels];
+
+        for (int root = 0; root < palette.length; root++) {
+            for (int iterations = 0; iterations < levels; iterations++) {
+                double brightness = maxIterations == 0 ? 1 : 1 - (1 - MIN_BRIGHTNESS) * iterations / maxIterations;
+                table[root * levels + iterations] = darken(palette[root], brightness);
+            }
+        }
+    }
+
+
+    /**
+     * Creates a {@code Shading} that colors every pixel in the color of its root, no matter how many iterations it needed.
+     * @param palette the packed ARGB color of every root
+     * @param background the packed ARGB color of pixels that could not be assigned to any root
+     * @return the {@code Shading}
+     */
+    public static Shading flat(int[] palette, int background) {
+        return new Shading(palette, 0, background);
+    }
+
+
+    /**
+     * @param rootIndex the index of the root a pixel converged to, or {@link TileRenderer#NO_ROOT}
+     * @param iterations the number of times the newton's method was applied to the pixel
+     * @return the packed ARGB color of the pixel
+     */
+    public int color(int rootIndex, int iterations) {
+        if(rootIndex == TileRenderer.NO_ROOT) {
+            return background;
+        }
+        return table[rootIndex * levels + Math.min(iterations, levels - 1)];
+    }
+
+    /**
+     * @return the number of roots this {@code Shading} has colors for
+     */
+    public int rootCount() {
+        return table.length / levels;
+    }
+
+    /**
+     * @return the packed ARGB color of pixels that could not be assigned to any root
+     */
+    public int background() {
+        return background;
+    }
+
+
+    /**
+     * Scales the red, green and blue channel of a color, keeping its alpha.
+     */
+    private static int darken(int argb, double brightness) {
+        int red = (int) Math.round(((argb >> 16) & 0xFF) * brightness);
+        int green = (int) Math.round(((argb >> 8) & 0xFF) * brightness);
+        int blue = (int) Math.round((argb & 0xFF) * brightness);
+        return (argb & 0xFF000000) | (red << 16) | (green << 8) | blue;
+    }
+}
@@ -0,0 +1,164 @@
+package newtonsfractal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the most recently used tiles of a zoomable view, every tile identified by its zoom level and its position.
+ * When the cache is full, the least recently used tile is dropped.
+ * All methods are thread-safe.
+ * @param <T> the type of the tiles
+ */
+public class TileCache<T> {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, T> tiles;
+
+
+    /**
+     * Constructs an empty {@code TileCache}.
+     * @param capacity the number of tiles kept at most
+     */
+    public TileCache(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, T> eldest) {
+                return size() > TileCache.this.capacity;
+            }
+        };
+    }
+
+
+    /**
+     * @param key the zoom level and position of the tile
+     * @return the tile, or {@code null} if it is not cached
+     */
+    public synchronized T get(Key key) {
+        return tiles.get(key);
+    }
+
+    /**
+     * Caches a tile, dropping the least recently used tile if the cache is full.
+     * @param key the zoom level and position of the tile
+     * @param tile the tile
+     */
+    public synchronized void put(Key key, T tile) {
+        tiles.put(key, tile);
+    }
+
+    /**
+     * @param key the zoom level and position of a tile
+     * @return whether the tile is cached, without counting as a use
+     */
+    public synchronized boolean contains(Key key) {
+        return tiles.containsKey(key);
+    }
+
+    /**
+     * Calls an action for every cached tile, without counting as a use.
+     * The cache is locked while the action runs.
+     * @param action the action
+     */
+    public synchronized void forEach(Consumer<T> action) {
+        tiles.values().forEach(action);
+    }
+
+    /**
+     * Drops all tiles.
+     */
+    public synchronized void clear() {
+        tiles.clear();
+    }
+
+    /**
+     * @return the number of cached tiles
+     */
+    public synchronized int size() {
+        return tiles.size();
+    }
+
+    /**
+     * @return the number of tiles kept at most
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+
+
+    /**
+     * The zoom level and position of a tile.
+     */
+    public static final class Key {
+        private final int level;
+        private final long x;
+        private final long y;
+
+        /**
+         * Constructs a {@code Key}.
+         * @param level the zoom level, every level doubles the magnification of the one before
+         * @param x the column of the tile on its level
+         * @param y the row of the tile on its level
+         */
+        public Key(int level, long x, long y) {
+            this.level = level;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * @return the zoom level
+         */
+        public int level() {
+            return level;
+        }
+
+        /**
+         * @return the column of the tile on its level
+         */
+        public long x() {
+            return x;
+        }
+
+        /**
+         * @return the row of the tile on its level
+         */
+        public long y() {
+            return y;
+        }
+
+        /**
+         * @return the key of the tile on the level before, which covers this tile and three others
+         */
+        public Key parent() {
+            return new Key(level - 1, Math.floorDiv(x, 2), Math.floorDiv(y, 2));
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj instanceof Key){
+                Key key = (Key) obj;
+                return level == key.level && x == key.x && y == key.y;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = level;
+            hash = 31 * hash + Long.hashCode(x);
+            return 31 * hash + Long.hashCode(y);
+        }
+
+        @Override
+        public String toString() {
+            return "level=" + level + ";x=" + x + ";y=" + y;
+        }
+    }
+}
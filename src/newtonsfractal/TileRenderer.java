@@ -0,0 +1,1243 @@
+package newtonsfractal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Renders the newton fractal of a polynomial in square tiles on a {@code ForkJoinPool}.
+ * In {@link Mode#FULL} every pixel is computed independently of all others, so the result does not depend
+ * on the tile size or the number of threads used. {@link Mode#ADAPTIVE} fills rectangles within a tile,
+ * its result depends on the tile size but still not on the number of threads.
+ * <p>
+ * The start point of a pixel is computed from its index, not accumulated by adding the step size like the loop
+ * {@code Renderer.plotNewtonsFractal} had before, whose rounding errors depended on the order of the pixels.
+ * This deliberately changes some pixels against that loop; the serial reference is a {@code TileRenderer}
+ * with a parallelism of 1, which every other tile size and parallelism reproduces bit for bit.
+ */
+public class TileRenderer {
+
+    /**
+     * Which pixels of a tile the newton's method is applied to.
+     */
+    public enum Mode {
+        /**
+         * Applies the newton's method to every pixel.
+         */
+        FULL,
+        /**
+         * Subdivides every tile into rectangles like the Mariani-Silver algorithm:
+         * if all pixels on the border of a rectangle converge to the same root in the same number of iterations,
+         * its inside is filled with them without applying the newton's method, otherwise the rectangle is split in halves.
+         * Much faster in large basins, but small parts of other basins or iteration bands lying completely inside
+         * of such a rectangle are lost, and which ones depends on the tile size.
+         */
+        ADAPTIVE
+    }
+
+    /**
+     * The default width and height of a tile in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * The root index of a pixel whose end point could not be assigned to any root.
+     */
+    public static final int NO_ROOT = -1;
+
+    /**
+     * The width and height up to which {@link Mode#ADAPTIVE} computes all pixels of a rectangle instead of subdividing it.
+     */
+    public static final int ADAPTIVE_MIN_SIZE = 4;
+
+    /**
+     * The number of subsamples per side of a pixel when anti-aliasing, a pixel has at most the square of it.
+     */
+    public static final int ANTIALIAS_GRID = 10;
+
+    /**
+     * The number of subsamples an anti-aliased pixel gets first,
+     * only if they do not all converge to the same root the pixel gets all {@code ANTIALIAS_GRID * ANTIALIAS_GRID}.
+     */
+    public static final int ANTIALIAS_MIN_SAMPLES = 16;
+
+    /**
+     * The distance in pixels around a pixel in which all pixels must have had the same result
+     * for {@link #rerender} to keep the result of the pixel.
+     */
+    public static final int RERENDER_MARGIN = 2;
+
+    /**
+     * The number of steps in which the newton's method of a changed polynomial, seeded with a previous root,
+     * must be captured by the moved root for {@link #rerender} to keep the results of the pixels of this root.
+     */
+    public static final int RECONVERGENCE_STEPS = 2;
+
+    /**
+     * The order in which the cells of the {@code ANTIALIAS_GRID} are sampled, shuffled once,
+     * so that every prefix is spread over the whole pixel.
+     */
+    private static final int[] ANTIALIAS_ORDER = antialiasOrder();
+
+
+    private final int tileSize;
+    private final ForkJoinPool pool;
+    private final NewtonKernel.Convergence convergence;
+    private final NewtonSolver.Backend backend;
+    private final Mode mode;
+    private final IterationMap iterationMap;
+    private final RenderMetrics metrics;
+
+    private final LongAdder solvedPixels;
+
+
+    /**
+     * Constructs a {@code TileRenderer} with the default tile size, using all available processors.
+     */
+    public TileRenderer() {
+        this(DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a {@code TileRenderer} which stops the newton's method early.
+     * A parallelism of 1 renders all tiles one after another on a single thread.
+     * @param tileSize the width and height of a tile in pixels
+     * @param parallelism the number of threads rendering tiles at the same time
+     */
+    public TileRenderer(int tileSize, int parallelism) {
+        this(tileSize, parallelism, NewtonKernel.Convergence.EARLY_EXIT);
+    }
+
+    /**
+     * Constructs a {@code TileRenderer}.
+     * A parallelism of 1 renders all tiles one after another on a single thread.
+     * @param tileSize the width and height of a tile in pixels
+     * @param parallelism the number of threads rendering tiles at the same time
+     * @param convergence when to stop applying the newton's method to a pixel
+     */
+    public TileRenderer(int tileSize, int parallelism, NewtonKernel.Convergence convergence) {
+        this(tileSize, parallelism, convergence, NewtonSolver.Backend.SCALAR);
+    }
+
+    /**
+     * Constructs a {@code TileRenderer}.
+     * A parallelism of 1 renders all tiles one after another on a single thread.
+     * @param tileSize the width and height of a tile in pixels
+     * @param parallelism the number of threads rendering tiles at the same time
+     * @param convergence when to stop applying the newton's method to a pixel
+     * @param backend the implementation applying the newton's method to the pixels of a tile
+     */
+    public TileRenderer(int tileSize, int parallelism, NewtonKernel.Convergence convergence, NewtonSolver.Backend backend) {
+        this(tileSize, parallelism, convergence, backend, Mode.FULL);
+    }
+
+    /**
+     * Constructs a {@code TileRenderer}.
+     * A parallelism of 1 renders all tiles one after another on a single thread.
+     * @param tileSize the width and height of a tile in pixels
+     * @param parallelism the number of threads rendering tiles at the same time
+     * @param convergence when to stop applying the newton's method to a pixel
+     * @param backend the implementation applying the newton's method to the pixels of a tile
+     * @param mode which pixels of a tile the newton's method is applied to
+     */
+    public TileRenderer(int tileSize, int parallelism, NewtonKernel.Convergence convergence, NewtonSolver.Backend backend, Mode mode) {
+        if(tileSize < 1) {
+            throw new IllegalArgumentException("tileSize must be at least 1, was " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.pool = new ForkJoinPool(parallelism);
+        this.convergence = convergence;
+        this.backend = backend;
+        this.mode = mode;
+        this.iterationMap = IterationMap.NEWTON;
+        this.metrics = new RenderMetrics();
+        this.solvedPixels = new LongAdder();
+    }
+
+    private TileRenderer(TileRenderer tileRenderer, IterationMap iterationMap, RenderMetrics metrics) {
+        this.tileSize = tileRenderer.tileSize;
+        this.pool = tileRenderer.pool;
+        this.convergence = tileRenderer.convergence;
+        this.backend = tileRenderer.backend;
+        this.mode = tileRenderer.mode;
+        this.iterationMap = iterationMap;
+        this.metrics = metrics;
+        this.solvedPixels = tileRenderer.solvedPixels;
+    }
+
+
+    /**
+     * Creates a {@code TileRenderer} which renders like this one on the same threads, but records into other metrics.
+     * Shutting down either of them shuts down both.
+     * @param metrics the metrics to record into, usually created with the {@link #metrics()} of this renderer as parent
+     * @return the new {@code TileRenderer}
+     */
+    public TileRenderer withMetrics(RenderMetrics metrics) {
+        return new TileRenderer(this, iterationMap, metrics);
+    }
+
+    /**
+     * Creates a {@code TileRenderer} which renders like this one on the same threads, but applies another map to the pixels.
+     * Shutting down either of them shuts down both.
+     * @param iterationMap the map applied to a pixel in every step
+     * @return the new {@code TileRenderer}
+     */
+    public TileRenderer withIterationMap(IterationMap iterationMap) {
+        return new TileRenderer(this, iterationMap, metrics);
+    }
+
+
+    /**
+     * @return the width and height of a tile in pixels
+     */
+    public int tileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the number of threads rendering tiles at the same time
+     */
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return when the newton's method stops for a pixel
+     */
+    public NewtonKernel.Convergence convergence() {
+        return convergence;
+    }
+
+    /**
+     * @return the implementation applying the newton's method to the pixels of a tile
+     */
+    public NewtonSolver.Backend backend() {
+        return backend;
+    }
+
+    /**
+     * @return which pixels of a tile the newton's method is applied to
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * @return the number of pixels and subsamples the newton's method has been applied to by this {@code TileRenderer} so far
+     */
+    public long solvedPixels() {
+        return solvedPixels.sum();
+    }
+
+    /**
+     * @return the map applied to a pixel in every step, {@link IterationMap#NEWTON} unless created by {@link #withIterationMap}
+     */
+    public IterationMap iterationMap() {
+        return iterationMap;
+    }
+
+    /**
+     * @return the metrics of all renders of this {@code TileRenderer}
+     */
+    public RenderMetrics metrics() {
+        return metrics;
+    }
+
+
+    /**
+     * Applies the newton's method to every pixel of an image and stores the root each pixel converges to.
+     * @param polynomial the polynomial the fractal will be based on
+     * @param roots the roots of the polynomial
+     * @param maxSteps the maximum number that the newton's method will be applied to a pixel
+     * @param viewport the part of the complex plane the image shows
+     * @param rootMap receives the result of every pixel, as wide and high as the image
+     */
+    public void render(ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps, Viewport viewport, RootMap rootMap) {
+        render(polynomial, roots, maxSteps, viewport, rootMap, 0, 1, 0, true);
+    }
+
+
+    /**
+     * Renders a band of rows of an image, the same way {@link #render(ComplexPolynomial, List, int, Viewport, RootMap)}
+     * renders these rows as part of the whole image.
+     * @param polynomial the polynomial the fractal will be based on
+     * @param roots the roots of the polynomial
+     * @param maxSteps the maximum number that the newton's method will be applied to a pixel
+     * @param viewport the part of the complex plane the whole image shows
+     * @param rootMap receives the result of every pixel of the band, as wide as the image and as high as the band
+     * @param firstRow the row of the image the band starts at
+     */
+    public void renderRows(ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps,
+                           Viewport viewport, RootMap rootMap, int firstRow) {
+        render(polynomial, roots, maxSteps, viewport, rootMap, firstRow, 1, 0, false);
+    }
+
+
+    /**
+     * Renders only the pixels whose column and row are multiples of {@code step}, leaving out those that are also
+     * multiples of {@code previousStep} because an earlier pass has already rendered them.
+     * Rendering with steps like 16, 8, 4, 2 and 1 one after another renders every pixel exactly once,
+     * each pass giving a finer preview of the whole image. Passes always apply the newton's method to all of their pixels,
+     * also in {@link Mode#ADAPTIVE}.
+     * @param polynomial the polynomial the fractal will be based on
+     * @param roots the roots of the polynomial
+     * @param maxSteps the maximum number that the newton's method will be applied to a pixel
+     * @param viewport the part of the complex plane the image shows
+     * @param rootMap receives the result of the rendered pixels, as wide and high as the image
+     * @param step the distance between two rendered pixels in both directions
+     * @param previousStep the step of the previous pass, a multiple of {@code step}, or 0 if this is the first pass
+     */
+    public void renderPass(ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps,
+                           Viewport viewport, RootMap rootMap, int step, int previousStep) {
+        if(step < 1 || previousStep < 0 || previousStep % step != 0) {
+            throw new IllegalArgumentException("step must be positive and divide previousStep, were " + step + " and " + previousStep);
+        }
+        render(polynomial, roots, maxSteps, viewport, rootMap, 0, step, previousStep, false);
+    }
+
+
+    /**
+     * Renders an image again after the coefficients of the polynomial changed slightly, by seeded reconvergence:
+     * every pixel is seeded with its previous result, the root it converged to and its number of iterations,
+     * and only the pixels whose seed is ambiguous are computed again in full. All others keep their seed.
+     * <p>
+     * A small change moves the roots a bit and shifts the boundaries between the basins and between pixels of different
+     * iteration counts, but leaves the pixels between them alone. The seed of a pixel is ambiguous, see {@link Reconvergence#ambiguous},
+     * if the pixel did not converge, if its root does not reconverge, or if a pixel within {@link #RERENDER_MARGIN}
+     * had another result or lies outside of the image, so that this also works for the tiles of an image.
+     * A root reconverges if the newton's method of the changed polynomial, seeded with the previous root, is captured by the moved root
+     * within {@link #RECONVERGENCE_STEPS}. Every pixel whose result differs from its seed makes the pixels within the margin
+     * ambiguous as well, until no more results change.
+     * A new basin or iteration band that appears farther than the margin away from any boundary is missed.
+     * @param polynomial the changed polynomial
+     * @param previousRoots the roots of the previous polynomial
+     * @param roots the roots of the changed polynomial in the order of the previous roots, see {@link RootFinder#trackRoots}
+     * @param maxSteps the maximum number that the newton's method will be applied to a pixel
+     * @param viewport the part of the complex plane the image shows
+     * @param previous the result of the previous render of the same viewport, the seeds
+     * @param rootMap receives the result of every pixel, may be {@code previous} itself
+     * @return the number of pixels the newton's method was applied to again
+     * @throws IllegalArgumentException if the sizes or the numbers of roots differ, or if {@code rootMap} is read-only,
+     *                                  like a {@code RootMap} loaded from a {@link FractalCache}
+     */
+    public long rerender(ComplexPolynomial polynomial, List<ComplexNumber> previousRoots, List<ComplexNumber> roots, int maxSteps,
+                         Viewport viewport, RootMap previous, RootMap rootMap) {
+        int width = rootMap.width(), height = rootMap.height();
+        if(previous.width() != width || previous.height() != height || previous.rootCount() != roots.size()
+           || previousRoots.size() != roots.size()) {
+            throw new IllegalArgumentException("the previous render must be as large as the image and have as many roots");
+        }
+        if(rootMap.isReadOnly()) {
+            throw new IllegalArgumentException("the result can not be stored in a read-only RootMap, render into a copy of it");
+        }
+        // The seeds are replaced in place
+        if(rootMap != previous) {
+            rootMap.copyFrom(previous);
+        }
+
+        NewtonSolver solver = ExtendedNewtonKernel.create(polynomial, roots, iterationMap, viewport, backend);
+        Reconvergence reconvergence = new Reconvergence(solver, maxSteps, convergence, viewport, rootMap,
+                                                        reconverged(polynomial, previousRoots, roots));
+
+        // Bands of whole rows, every one reads the seeds of the rows next to it before its neighbours replace them
+        List<int[]> bands = new ArrayList<>();
+        for (int y = 0; y < height; y += tileSize) {
+            bands.add(new int[] {0, y, width, Math.min(y + tileSize, height), bands.size()});
+        }
+        int[][][] halos = new int[bands.size()][][];
+        for (int[] band : bands) {
+            halos[band[4]] = reconvergence.halo(band);
+        }
+
+        RenderMetrics.RenderEvent event = metrics.startRender(width, height, bands.size());
+        try {
+            IntList[] bandsChanged = new IntList[bands.size()];
+            pool.invoke(new TileTask(bands, 0, bands.size(), band -> {
+                RenderMetrics.Tile recorder = metrics.startTile(maxSteps, convergence);
+                bandsChanged[band[4]] = reconvergence.seedBand(band, halos[band[4]], recorder);
+                recorder.finish();
+            }));
+
+            IntList changed = new IntList();
+            for (IntList bandChanged : bandsChanged) {
+                changed.addAll(bandChanged);
+            }
+            for (IntList pixels = reconvergence.neighbours(changed); pixels.size() > 0; pixels = reconvergence.neighbours(changed)) {
+                changed = rerenderPixels(reconvergence, pixels);
+            }
+        } finally {
+            pool.invoke(new TileTask(bands, 0, bands.size(), band -> rootMap.clearMarks(band[1], band[3])));
+            metrics.finishRender(event);
+        }
+
+        solvedPixels.add(reconvergence.recomputed.sum());
+        return reconvergence.recomputed.sum();
+    }
+
+
+    /**
+     * Seeds the newton's method of the changed polynomial with every previous root.
+     * @return whether every previous root was captured by its moved root within {@link #RECONVERGENCE_STEPS}
+     */
+    private boolean[] reconverged(ComplexPolynomial polynomial, List<ComplexNumber> previousRoots, List<ComplexNumber> roots) {
+        boolean[] reconverged = new boolean[roots.size()];
+        // The roots are no fixed points of a nova map, its pixels can not keep their results
+        if(iterationMap.isNova()) {
+            return reconverged;
+        }
+        NewtonKernel kernel = new NewtonKernel(polynomial, roots, iterationMap);
+        double[] z = new double[2];
+        for (int i = 0; i < roots.size(); i++) {
+            z[0] = previousRoots.get(i).real();
+            z[1] = previousRoots.get(i).imaginary();
+            int result = kernel.findRoot(z, RECONVERGENCE_STEPS + 1);
+            reconverged[i] = NewtonKernel.rootIndex(result) == i && NewtonKernel.iterations(result) <= RECONVERGENCE_STEPS;
+        }
+        return reconverged;
+    }
+
+
+    /**
+     * Renders a list of ambiguous pixels again in chunks of a tile, on all threads.
+     * @return the pixels whose root or iterations differ from their seed
+     */
+    private IntList rerenderPixels(Reconvergence reconvergence, IntList pixels) {
+        int chunkSize = tileSize * tileSize;
+        List<int[]> chunks = new ArrayList<>();
+        for (int from = 0; from < pixels.size(); from += chunkSize) {
+            chunks.add(new int[] {from, Math.min(from + chunkSize, pixels.size()), chunks.size()});
+        }
+
+        IntList[] changed = new IntList[chunks.size()];
+        pool.invoke(new TileTask(chunks, 0, chunks.size(), chunk -> {
+            RenderMetrics.Tile recorder = metrics.startTile(reconvergence.maxSteps, convergence);
+            changed[chunk[2]] = reconvergence.seedPixels(pixels, chunk[0], chunk[1], recorder);
+            recorder.finish();
+        }));
+
+        IntList all = new IntList();
+        for (IntList chunkChanged : changed) {
+            all.addAll(chunkChanged);
+        }
+        return all;
+    }
+
+
+    private void render(ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps, Viewport viewport,
+                        RootMap rootMap, int firstRow, int step, int previousStep, boolean printProgress) {
+        List<int[]> tiles = tiles(rootMap, firstRow);
+
+        NewtonSolver solver = ExtendedNewtonKernel.create(polynomial, roots, iterationMap, viewport, backend);
+
+        AtomicInteger finishedTiles = new AtomicInteger();
+
+        RenderMetrics.RenderEvent event = metrics.startRender(rootMap.width(), rootMap.height(), tiles.size());
+        try {
+            pool.invoke(new TileTask(tiles, 0, tiles.size(), tile -> {
+                RenderMetrics.Tile recorder = metrics.startTile(maxSteps, convergence);
+                if(mode == Mode.ADAPTIVE && step == 1) {
+                    new Subdivision(solver, maxSteps, convergence, viewport, rootMap, firstRow, tile, solvedPixels, recorder).render();
+                }else {
+                    renderTile(solver, maxSteps, convergence, viewport, rootMap, firstRow, step, previousStep, tile, recorder);
+                    solvedPixels.add(countPixels(tile, step, previousStep));
+                }
+                recorder.finish();
+
+                if(printProgress) {
+                    int finished = finishedTiles.incrementAndGet();
+                    int tenth = Math.max(tiles.size() / 10, 1);
+                    if(finished % tenth == 0) {
+                        System.out.println(Math.min((finished / tenth) * 10, 100) + " %");
+                    }
+                }
+            }));
+        } finally {
+            metrics.finishRender(event);
+        }
+    }
+
+
+    /**
+     * Anti-aliases the edges of a rendered image or band, mostly the boundaries between the basins of the roots.
+     * Every pixel with a neighbour of another color is colored with the average color of jittered subsamples
+     * spread over its area, first {@link #ANTIALIAS_MIN_SAMPLES} and, if they do not all have the same color, up to
+     * {@code ANTIALIAS_GRID * ANTIALIAS_GRID}. All other pixels are left unchanged.
+     * The subsamples only depend on the position of the pixel, so the result does not depend on the tiles or threads either.
+     * @param polynomial the polynomial the fractal will be based on
+     * @param roots the roots of the polynomial
+     * @param maxSteps the maximum number that the newton's method will be applied to a subsample
+     * @param viewport the part of the complex plane the whole image shows
+     * @param rootMap the rendered pixels of the image or band
+     * @param firstRow the row of the image the band starts at, 0 for a whole image
+     * @param shading turns the root index and the iterations of a subsample into its color
+     * @param pixels the packed ARGB pixels of the image or band in row-major order, already colored from {@code rootMap}
+     * @return the number of subsamples taken
+     */
+    public long antialias(ComplexPolynomial polynomial, List<ComplexNumber> roots, int maxSteps, Viewport viewport,
+                          RootMap rootMap, int firstRow, Shading shading, int[] pixels) {
+        NewtonSolver solver = ExtendedNewtonKernel.create(polynomial, roots, iterationMap, viewport, backend);
+        int width = rootMap.width();
+
+        // The rows next to a band belong to other bands, their colors are needed to find the edges on the border of the band
+        int[] rowAbove = new int[width], rowBelow = new int[width];
+        colorRow(solver, maxSteps, viewport, firstRow - 1, shading, rowAbove);
+        colorRow(solver, maxSteps, viewport, firstRow + rootMap.height(), shading, rowBelow);
+
+        LongAdder subsamples = new LongAdder();
+        List<int[]> tiles = tiles(rootMap, firstRow);
+        RenderMetrics.RenderEvent event = metrics.startRender(width, rootMap.height(), tiles.size());
+        try {
+            pool.invoke(new TileTask(tiles, 0, tiles.size(), tile -> antialiasTile(solver, maxSteps, viewport, rootMap, firstRow,
+                                                                                  rowAbove, rowBelow, shading, pixels, tile, subsamples)));
+        } finally {
+            metrics.finishRender(event);
+        }
+
+        solvedPixels.add(subsamples.sum() + 2L * width);
+        return subsamples.sum();
+    }
+
+
+    /**
+     * Anti-aliases the pixels of one tile.
+     * @param tile the bounds of the tile as {x0, y0, x1, y1}, x1 and y1 exclusive
+     */
+    private void antialiasTile(NewtonSolver solver, int maxSteps, Viewport viewport, RootMap rootMap, int firstRow,
+                               int[] rowAbove, int[] rowBelow, Shading shading, int[] pixels, int[] tile, LongAdder subsamples) {
+        RenderMetrics.Tile recorder = metrics.startTile(maxSteps, convergence);
+        int width = rootMap.width();
+        int all = ANTIALIAS_GRID * ANTIALIAS_GRID;
+        double[] real = new double[ANTIALIAS_MIN_SAMPLES];
+        double[] imaginary = new double[ANTIALIAS_MIN_SAMPLES];
+        int[] results = new int[all];
+        // The subsamples after the first few, solved from the start of arrays of their own, which are reused for every pixel
+        double[] moreReal = new double[all - ANTIALIAS_MIN_SAMPLES];
+        double[] moreImaginary = new double[moreReal.length];
+        int[] more = new int[moreReal.length];
+
+        for (int y = tile[1]; y < tile[3]; y++) {
+            for (int x = tile[0]; x < tile[2]; x++) {
+                if(!onEdge(rootMap, firstRow, rowAbove, rowBelow, viewport.height(), shading, x, y)) {
+                    continue;
+                }
+
+                // First a few subsamples, all others only if the pixel really is divided between several colors
+                int count = ANTIALIAS_MIN_SAMPLES;
+                subsample(viewport, x, y, 0, count, real, imaginary);
+                solver.solve(real, imaginary, count, maxSteps, convergence, results);
+                recorder.record(results, count);
+
+                boolean divided = false;
+                for (int i = 1; i < count && !divided; i++) {
+                    divided = color(shading, results[i]) != color(shading, results[0]);
+                }
+                if(divided) {
+                    subsample(viewport, x, y, count, all, moreReal, moreImaginary);
+                    solver.solve(moreReal, moreImaginary, all - count, maxSteps, convergence, more);
+                    recorder.record(more, all - count);
+                    System.arraycopy(more, 0, results, count, all - count);
+                    count = all;
+                }
+
+                pixels[(y - firstRow) * width + x] = averageColor(shading, results, count);
+                subsamples.add(count);
+            }
+        }
+        recorder.finish();
+    }
+
+
+    /**
+     * Runs a task for every tile of an image on the threads of this {@code TileRenderer}, recorded in its metrics like a render.
+     * This is for work on the pixels that is not a plain render, like advancing the pixels of an iteration sweep.
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @param maxSteps the maximum number of newton steps of a pixel
+     * @param renderTile called with the bounds of every tile as {x0, y0, x1, y1}, x1 and y1 exclusive,
+     *                   and the recorder to count the pixels of the tile in
+     */
+    void forEachTile(int width, int height, int maxSteps, BiConsumer<int[], RenderMetrics.Tile> renderTile) {
+        List<int[]> tiles = tiles(width, height, 0);
+        RenderMetrics.RenderEvent event = metrics.startRender(width, height, tiles.size());
+        try {
+            pool.invoke(new TileTask(tiles, 0, tiles.size(), tile -> {
+                RenderMetrics.Tile recorder = metrics.startTile(maxSteps, convergence);
+                renderTile.accept(tile, recorder);
+                recorder.finish();
+            }));
+        } finally {
+            metrics.finishRender(event);
+        }
+    }
+
+
+    /**
+     * Shuts down the threads of this {@code TileRenderer}.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+
+    /**
+     * Renders the pixels of one tile whose column and row are multiples of {@code step},
+     * leaving out those that are also multiples of {@code previousStep}.
+     * @param tile the bounds of the tile as {x0, y0, x1, y1}, x1 and y1 exclusive
+     */
+    private static void renderTile(NewtonSolver solver, int maxSteps, NewtonKernel.Convergence convergence, Viewport viewport,
+                                   RootMap rootMap, int firstRow, int step, int previousStep, int[] tile, RenderMetrics.Tile recorder) {
+        int width = tile[2] - tile[0];
+        int[] columns = new int[width];
+        double[] real = new double[width];
+        double[] imaginary = new double[width];
+        int[] results = new int[width];
+
+        int firstX = (tile[0] + step - 1) / step * step;
+        for (int y = (tile[1] + step - 1) / step * step; y < tile[3]; y += step) {
+            boolean renderedRow = previousStep > 0 && y % previousStep == 0;
+
+            int count = 0;
+            for (int x = firstX; x < tile[2]; x += step) {
+                if(renderedRow && x % previousStep == 0) {
+                    continue;
+                }
+                columns[count] = x;
+                real[count] = viewport.real(x);
+                imaginary[count] = viewport.imaginary(y);
+                count++;
+            }
+
+            solver.solve(real, imaginary, count, maxSteps, convergence, results);
+            recorder.record(results, count);
+
+            for (int i = 0; i < count; i++) {
+                rootMap.set(columns[i], y - firstRow, NewtonKernel.rootIndex(results[i]), NewtonKernel.iterations(results[i]));
+            }
+        }
+    }
+
+
+    /**
+     * Splits an image or band into tiles.
+     * @return the bounds of every tile as {x0, y0, x1, y1}, x1 and y1 exclusive, in rows of the whole image
+     */
+    private List<int[]> tiles(RootMap rootMap, int firstRow) {
+        return tiles(rootMap.width(), rootMap.height(), firstRow);
+    }
+
+    private List<int[]> tiles(int width, int rowCount, int firstRow) {
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (rowCount + tileSize - 1) / tileSize;
+
+        List<int[]> tiles = new ArrayList<>(tilesX * tilesY);
+        for (int ty = 0; ty < tilesY; ty++) {
+            for (int tx = 0; tx < tilesX; tx++) {
+                int x0 = tx * tileSize;
+                int y0 = firstRow + ty * tileSize;
+                tiles.add(new int[] {x0, y0, Math.min(x0 + tileSize, width), Math.min(y0 + tileSize, firstRow + rowCount)});
+            }
+        }
+        return tiles;
+    }
+
+
+    /**
+     * Renders and colors a row of the image, nothing is done if the row is outside of the image.
+     */
+    private void colorRow(NewtonSolver solver, int maxSteps, Viewport viewport, int y, Shading shading, int[] colors) {
+        if(y < 0 || y >= viewport.height()) {
+            return;
+        }
+        double[] real = new double[colors.length];
+        double[] imaginary = new double[colors.length];
+        for (int x = 0; x < colors.length; x++) {
+            real[x] = viewport.real(x);
+            imaginary[x] = viewport.imaginary(y);
+        }
+        solver.solve(real, imaginary, colors.length, maxSteps, convergence, colors);
+        for (int x = 0; x < colors.length; x++) {
+            colors[x] = color(shading, colors[x]);
+        }
+    }
+
+
+    /**
+     * @return whether one of the eight neighbours of a pixel has another color than the pixel
+     */
+    private static boolean onEdge(RootMap rootMap, int firstRow, int[] rowAbove, int[] rowBelow, int imageHeight,
+                                  Shading shading, int x, int y) {
+        int color = shading.color(rootMap.rootIndex(x, y - firstRow), rootMap.iterations(x, y - firstRow));
+        for (int neighbourY = Math.max(y - 1, 0); neighbourY <= Math.min(y + 1, imageHeight - 1); neighbourY++) {
+            for (int neighbourX = Math.max(x - 1, 0); neighbourX <= Math.min(x + 1, rootMap.width() - 1); neighbourX++) {
+                int neighbour;
+                if(neighbourY < firstRow) {
+                    neighbour = rowAbove[neighbourX];
+                }else if(neighbourY >= firstRow + rootMap.height()) {
+                    neighbour = rowBelow[neighbourX];
+                }else {
+                    neighbour = shading.color(rootMap.rootIndex(neighbourX, neighbourY - firstRow),
+                                              rootMap.iterations(neighbourX, neighbourY - firstRow));
+                }
+                if(neighbour != color) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Places the subsamples {@code from} to {@code to} of a pixel, each in its own cell of the {@link #ANTIALIAS_GRID}
+     * over the area of the pixel, which reaches from the point the pixel itself was rendered at to the point of the next
+     * pixel in both directions, so that the areas of all pixels tile the viewport like the pixels of a larger image would.
+     * The jitter inside of a cell is derived from the position of the pixel, so every pixel gets the same subsamples every time.
+     * Subsample {@code from} is written to index 0 of the arrays.
+     */
+    private static void subsample(Viewport viewport, int x, int y, int from, int to, double[] real, double[] imaginary) {
+        double stepSize = viewport.stepSize();
+        long seed = (((long) x) << 32) ^ y;
+        for (int i = from; i < to; i++) {
+            int cell = ANTIALIAS_ORDER[i];
+            long hash = mix(seed * 0x9E3779B97F4A7C15L + i);
+            double jitterX = (hash >>> 40) / (double) (1 << 24);
+            double jitterY = ((hash >>> 16) & 0xFFFFFF) / (double) (1 << 24);
+
+            double offsetX = ((cell % ANTIALIAS_GRID) + jitterX) / ANTIALIAS_GRID;
+            double offsetY = ((cell / ANTIALIAS_GRID) + jitterY) / ANTIALIAS_GRID;
+            real[i - from] = viewport.real(x) + offsetX * stepSize;
+            imaginary[i - from] = viewport.imaginary(y) + offsetY * stepSize;
+        }
+    }
+
+    /**
+     * Scrambles the bits of a number, the finalizer of the SplitMix64 generator.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the average of the colors of the subsamples, channel by channel
+     */
+    private static int averageColor(Shading shading, int[] results, int count) {
+        long alpha = 0, red = 0, green = 0, blue = 0;
+        for (int i = 0; i < count; i++) {
+            int color = color(shading, results[i]);
+            alpha += color >>> 24;
+            red += (color >> 16) & 0xFF;
+            green += (color >> 8) & 0xFF;
+            blue += color & 0xFF;
+        }
+        long half = count / 2;
+        return (int) ((alpha + half) / count) << 24 | (int) ((red + half) / count) << 16
+             | (int) ((green + half) / count) << 8 | (int) ((blue + half) / count);
+    }
+
+    /**
+     * @return the color of a packed result of the newton's method
+     */
+    private static int color(Shading shading, int result) {
+        return shading.color(NewtonKernel.rootIndex(result), NewtonKernel.iterations(result));
+    }
+
+    private static int[] antialiasOrder() {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < ANTIALIAS_GRID * ANTIALIAS_GRID; i++) {
+            cells.add(i);
+        }
+        Collections.shuffle(cells, new Random(ANTIALIAS_GRID));
+        return cells.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+
+    /**
+     * @return the number of pixels of a tile {@link #renderTile} applies the newton's method to
+     */
+    private static long countPixels(int[] tile, int step, int previousStep) {
+        long pixels = (long) multiples(tile[0], tile[2], step) * multiples(tile[1], tile[3], step);
+        if(previousStep > 0) {
+            pixels -= (long) multiples(tile[0], tile[2], previousStep) * multiples(tile[1], tile[3], previousStep);
+        }
+        return pixels;
+    }
+
+    /**
+     * @return the number of multiples of {@code step} from {@code from} inclusive to {@code to} exclusive, both not negative
+     */
+    private static int multiples(int from, int to, int step) {
+        return (to + step - 1) / step - (from + step - 1) / step;
+    }
+
+
+    /**
+     * The seeds of one {@link #rerender}, worked on in place in the {@code RootMap}.
+     * Every pixel computed again is marked with {@link RootMap#MARK} until the render is finished, so that it is only computed once.
+     */
+    private static class Reconvergence {
+        private final NewtonSolver solver;
+        private final int maxSteps;
+        private final NewtonKernel.Convergence convergence;
+        private final Viewport viewport;
+        private final RootMap rootMap;
+        private final boolean[] reconverged;
+        private final int width, height;
+        private final LongAdder recomputed = new LongAdder();
+
+        Reconvergence(NewtonSolver solver, int maxSteps, NewtonKernel.Convergence convergence, Viewport viewport,
+                      RootMap rootMap, boolean[] reconverged) {
+            this.solver = solver;
+            this.maxSteps = maxSteps;
+            this.convergence = convergence;
+            this.viewport = viewport;
+            this.rootMap = rootMap;
+            this.reconverged = reconverged;
+            this.width = rootMap.width();
+            this.height = rootMap.height();
+        }
+
+        /**
+         * The ambiguity test, whether the seed of a pixel can not be kept and the pixel has to be computed again.
+         * @param seed the previous result of the pixel, packed by {@link #seed(int, int)}
+         * @param uniform whether all pixels within {@link #RERENDER_MARGIN} are inside of the image and had the same result
+         */
+        boolean ambiguous(int seed, boolean uniform) {
+            int rootIndex = seed >> 16;
+            return !uniform || rootIndex == NO_ROOT || !reconverged[rootIndex]
+                   || (convergence == NewtonKernel.Convergence.EARLY_EXIT && (seed & 0xFFFF) >= maxSteps);
+        }
+
+        /**
+         * Packs a result into an int that is equal for equal results.
+         */
+        static int seed(int rootIndex, int iterations) {
+            return (rootIndex << 16) | (iterations & ~RootMap.MARK & 0xFFFF);
+        }
+
+        /**
+         * Reads the seeds of the rows within {@link #RERENDER_MARGIN} above and below a band.
+         * @param band the bounds of the band as {x0, y0, x1, y1}, x1 and y1 exclusive
+         * @return the rows above the band and then the rows below it, {@code null} where they are outside of the image
+         */
+        int[][] halo(int[] band) {
+            int[][] halo = new int[2 * RERENDER_MARGIN][];
+            for (int i = 0; i < RERENDER_MARGIN; i++) {
+                halo[i] = readSeeds(band[1] - RERENDER_MARGIN + i);
+                halo[RERENDER_MARGIN + i] = readSeeds(band[3] + i);
+            }
+            return halo;
+        }
+
+        private int[] readSeeds(int y) {
+            if(y < 0 || y >= height) {
+                return null;
+            }
+            return readSeeds(y, new int[width], new short[width], new short[width]);
+        }
+
+        private int[] readSeeds(int y, int[] seeds, short[] rowRoots, short[] rowIterations) {
+            rootMap.getRow(y, rowRoots, rowIterations);
+            for (int x = 0; x < width; x++) {
+                seeds[x] = seed(rowRoots[x], rowIterations[x]);
+            }
+            return seeds;
+        }
+
+        /**
+         * Computes the ambiguous pixels of a band of rows again, streaming over its rows.
+         * Whether all pixels within the margin of a pixel had the same result is found from the runs of equal seeds,
+         * first along every row and then down every column, without comparing every pixel with all of its neighbours.
+         * @param band the bounds of the band as {x0, y0, x1, y1}, x1 and y1 exclusive, spanning whole rows
+         * @param halo the seeds of the rows next to the band, see {@link #halo(int[])}
+         * @return the pixels whose result differs from their seed
+         */
+        IntList seedBand(int[] band, int[][] halo, RenderMetrics.Tile recorder) {
+            int span = 2 * RERENDER_MARGIN + 1;
+            int[][] seeds = new int[span][width];
+            // For every column, the number of rows in a row up to the current one whose seed is that of the row above
+            // and equal to all seeds within the margin along the row
+            int[] uniformRows = new int[width];
+            short[] rowRoots = new short[width], rowIterations = new short[width];
+            Row row = new Row(width);
+            IntList changed = new IntList();
+
+            int first = Math.max(band[1] - RERENDER_MARGIN, 0);
+            int last = Math.min(band[3] - 1 + RERENDER_MARGIN, height - 1);
+            for (int y = first; y <= last; y++) {
+                int[] rowSeeds = seeds[y % span];
+                if(y < band[1]) {
+                    System.arraycopy(halo[y - band[1] + RERENDER_MARGIN], 0, rowSeeds, 0, width);
+                }else if(y >= band[3]) {
+                    System.arraycopy(halo[RERENDER_MARGIN + y - band[3]], 0, rowSeeds, 0, width);
+                }else {
+                    readSeeds(y, rowSeeds, rowRoots, rowIterations);
+                }
+
+                int[] seedsAbove = seeds[(y + span - 1) % span];
+                int run = 0;
+                for (int x = 0; x < width; x++) {
+                    run = x > 0 && rowSeeds[x] == rowSeeds[x - 1] ? run + 1 : 1;
+                    // The run ending at x covers the whole margin around the pixel RERENDER_MARGIN to the left
+                    int center = x - RERENDER_MARGIN;
+                    if(center >= RERENDER_MARGIN) {
+                        boolean uniform = run >= span;
+                        boolean continued = y > first && uniformRows[center] > 0 && rowSeeds[center] == seedsAbove[center];
+                        uniformRows[center] = uniform ? (continued ? uniformRows[center] + 1 : 1) : 0;
+                    }
+                }
+
+                int center = y - RERENDER_MARGIN;
+                if(center >= band[1]) {
+                    seedRow(center, seeds[center % span], uniformRows, span, rowRoots, rowIterations, row, changed, recorder);
+                }
+            }
+            // The rows whose margin reaches below the image
+            for (int y = Math.max(band[1], last - RERENDER_MARGIN + 1); y < band[3]; y++) {
+                seedRow(y, seeds[y % span], null, span, rowRoots, rowIterations, row, changed, recorder);
+            }
+            return changed;
+        }
+
+        /**
+         * Computes the ambiguous pixels of a row again and stores the row, marking the pixels computed again.
+         * @param uniformRows the number of uniform rows in a row ending {@link #RERENDER_MARGIN} below the row,
+         *                    or {@code null} if the margin reaches outside of the image
+         */
+        private void seedRow(int y, int[] rowSeeds, int[] uniformRows, int span, short[] rowRoots, short[] rowIterations,
+                             Row row, IntList changed, RenderMetrics.Tile recorder) {
+            boolean inside = uniformRows != null && y >= RERENDER_MARGIN;
+            int count = 0;
+            for (int x = 0; x < width; x++) {
+                if(ambiguous(rowSeeds[x], inside && uniformRows[x] >= span)) {
+                    row.columns[count] = x;
+                    row.real[count] = viewport.real(x);
+                    row.imaginary[count] = viewport.imaginary(y);
+                    count++;
+                }
+            }
+            if(count == 0) {
+                return;
+            }
+
+            solver.solve(row.real, row.imaginary, count, maxSteps, convergence, row.results);
+            recorder.record(row.results, count);
+            recomputed.add(count);
+
+            for (int x = 0; x < width; x++) {
+                rowRoots[x] = (short) (rowSeeds[x] >> 16);
+                rowIterations[x] = (short) rowSeeds[x];
+            }
+            for (int i = 0; i < count; i++) {
+                int x = row.columns[i];
+                int rootIndex = NewtonKernel.rootIndex(row.results[i]);
+                int iterations = Math.min(NewtonKernel.iterations(row.results[i]), Short.MAX_VALUE);
+                if(seed(rootIndex, iterations) != rowSeeds[x]) {
+                    changed.add(y * width + x);
+                }
+                rowRoots[x] = (short) rootIndex;
+                rowIterations[x] = (short) (iterations | RootMap.MARK);
+            }
+            rootMap.setRow(y, rowRoots, rowIterations);
+        }
+
+        /**
+         * Finds the pixels within {@link #RERENDER_MARGIN} of changed pixels that have not been computed again yet, and marks them.
+         * @param changed the pixels whose result differs from their seed
+         * @return the pixels to compute again
+         */
+        IntList neighbours(IntList changed) {
+            IntList pixels = new IntList();
+            for (int i = 0; i < changed.size(); i++) {
+                int x = changed.get(i) % width, y = changed.get(i) / width;
+                for (int neighbourY = Math.max(y - RERENDER_MARGIN, 0); neighbourY <= Math.min(y + RERENDER_MARGIN, height - 1); neighbourY++) {
+                    for (int neighbourX = Math.max(x - RERENDER_MARGIN, 0); neighbourX <= Math.min(x + RERENDER_MARGIN, width - 1); neighbourX++) {
+                        if(!rootMap.marked(neighbourX, neighbourY)) {
+                            rootMap.mark(neighbourX, neighbourY);
+                            pixels.add(neighbourY * width + neighbourX);
+                        }
+                    }
+                }
+            }
+            return pixels;
+        }
+
+        /**
+         * Computes marked pixels again.
+         * @param pixels the pixels, as row times width plus column
+         * @param from the index of the first pixel in {@code pixels}
+         * @param to the index after the last pixel in {@code pixels}
+         * @return the pixels whose result differs from their seed
+         */
+        IntList seedPixels(IntList pixels, int from, int to, RenderMetrics.Tile recorder) {
+            int count = to - from;
+            double[] real = new double[count], imaginary = new double[count];
+            int[] results = new int[count];
+            for (int i = 0; i < count; i++) {
+                int pixel = pixels.get(from + i);
+                real[i] = viewport.real(pixel % width);
+                imaginary[i] = viewport.imaginary(pixel / width);
+            }
+            solver.solve(real, imaginary, count, maxSteps, convergence, results);
+            recorder.record(results, count);
+            recomputed.add(count);
+
+            IntList changed = new IntList();
+            for (int i = 0; i < count; i++) {
+                int pixel = pixels.get(from + i);
+                int x = pixel % width, y = pixel / width;
+                int rootIndex = NewtonKernel.rootIndex(results[i]);
+                int iterations = Math.min(NewtonKernel.iterations(results[i]), Short.MAX_VALUE);
+                if(seed(rootIndex, iterations) != seed(rootMap.rootIndex(x, y), rootMap.iterations(x, y))) {
+                    changed.add(pixel);
+                }
+                rootMap.set(x, y, rootIndex, iterations);
+                rootMap.mark(x, y);
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * The pixels of a row solved in one batch.
+     */
+    private static class Row {
+        final int[] columns;
+        final double[] real, imaginary;
+        final int[] results;
+
+        Row(int width) {
+            columns = new int[width];
+            real = new double[width];
+            imaginary = new double[width];
+            results = new int[width];
+        }
+    }
+
+
+    /**
+     * Renders one tile in {@link Mode#ADAPTIVE}, every pixel being computed at most once.
+     */
+    private static class Subdivision {
+        private final NewtonSolver solver;
+        private final int maxSteps;
+        private final NewtonKernel.Convergence convergence;
+        private final Viewport viewport;
+        private final RootMap rootMap;
+        private final int firstRow;
+        private final int[] tile;
+        private final LongAdder solvedPixels;
+        private final RenderMetrics.Tile recorder;
+
+        /**
+         * Whether a pixel of the tile has been computed or filled, row by row.
+         */
+        private final boolean[] done;
+
+        // The pixels solved in one batch
+        private final int[] columns, rows;
+        private final double[] real, imaginary;
+        private final int[] results;
+        private int count;
+
+        Subdivision(NewtonSolver solver, int maxSteps, NewtonKernel.Convergence convergence, Viewport viewport,
+                    RootMap rootMap, int firstRow, int[] tile, LongAdder solvedPixels, RenderMetrics.Tile recorder) {
+            this.solver = solver;
+            this.maxSteps = maxSteps;
+            this.convergence = convergence;
+            this.viewport = viewport;
+            this.rootMap = rootMap;
+            this.firstRow = firstRow;
+            this.tile = tile;
+            this.solvedPixels = solvedPixels;
+            this.recorder = recorder;
+
+            int width = tile[2] - tile[0], height = tile[3] - tile[1];
+            this.done = new boolean[width * height];
+            int batch = Math.max(2 * (width + height), ADAPTIVE_MIN_SIZE * ADAPTIVE_MIN_SIZE);
+            this.columns = new int[batch];
+            this.rows = new int[batch];
+            this.real = new double[batch];
+            this.imaginary = new double[batch];
+            this.results = new int[batch];
+        }
+
+        void render() {
+            subdivide(tile[0], tile[1], tile[2] - 1, tile[3] - 1);
+        }
+
+        /**
+         * Renders a rectangle whose bounds are all inclusive.
+         */
+        private void subdivide(int x0, int y0, int x1, int y1) {
+            // The border, leaving out the pixels shared with rectangles computed before
+            for (int x = x0; x <= x1; x++) {
+                add(x, y0);
+                add(x, y1);
+            }
+            for (int y = y0 + 1; y < y1; y++) {
+                add(x0, y);
+                add(x1, y);
+            }
+            solve();
+
+            if(x1 - x0 < 2 || y1 - y0 < 2) {
+                return;
+            }
+
+            // The pixels are shaded by their iterations, so the border has to agree on them as well as on the root
+            int root = rootIndex(x0, y0);
+            int iterations = iterations(x0, y0);
+            boolean uniform = root != NO_ROOT;
+            for (int x = x0; x <= x1 && uniform; x++) {
+                uniform = isUniform(x, y0, root, iterations) && isUniform(x, y1, root, iterations);
+            }
+            for (int y = y0 + 1; y < y1 && uniform; y++) {
+                uniform = isUniform(x0, y, root, iterations) && isUniform(x1, y, root, iterations);
+            }
+
+            if(uniform) {
+                for (int y = y0 + 1; y < y1; y++) {
+                    for (int x = x0 + 1; x < x1; x++) {
+                        rootMap.set(x, y - firstRow, root, iterations);
+                        done[index(x, y)] = true;
+                    }
+                }
+            }else if(x1 - x0 < ADAPTIVE_MIN_SIZE || y1 - y0 < ADAPTIVE_MIN_SIZE) {
+                for (int y = y0 + 1; y < y1; y++) {
+                    for (int x = x0 + 1; x < x1; x++) {
+                        add(x, y);
+                    }
+                }
+                solve();
+            }else if(x1 - x0 >= y1 - y0) {
+                // Both halves share the middle column
+                int middle = (x0 + x1) >>> 1;
+                subdivide(x0, y0, middle, y1);
+                subdivide(middle, y0, x1, y1);
+            }else {
+                int middle = (y0 + y1) >>> 1;
+                subdivide(x0, y0, x1, middle);
+                subdivide(x0, middle, x1, y1);
+            }
+        }
+
+        /**
+         * Adds a pixel to the batch if it has not been computed yet, solving the batch when it is full.
+         */
+        private void add(int x, int y) {
+            int index = index(x, y);
+            if(done[index]) {
+                return;
+            }
+            done[index] = true;
+
+            if(count == columns.length) {
+                solve();
+            }
+            columns[count] = x;
+            rows[count] = y;
+            real[count] = viewport.real(x);
+            imaginary[count] = viewport.imaginary(y);
+            count++;
+        }
+
+        private void solve() {
+            solver.solve(real, imaginary, count, maxSteps, convergence, results);
+            recorder.record(results, count);
+            for (int i = 0; i < count; i++) {
+                rootMap.set(columns[i], rows[i] - firstRow, NewtonKernel.rootIndex(results[i]), NewtonKernel.iterations(results[i]));
+            }
+            solvedPixels.add(count);
+            count = 0;
+        }
+
+        private int rootIndex(int x, int y) {
+            return rootMap.rootIndex(x, y - firstRow);
+        }
+
+        private boolean isUniform(int x, int y, int root, int iterations) {
+            return rootIndex(x, y) == root && iterations(x, y) == iterations;
+        }
+
+        private int iterations(int x, int y) {
+            return rootMap.iterations(x, y - firstRow);
+        }
+
+        private int index(int x, int y) {
+            return (y - tile[1]) * (tile[2] - tile[0]) + (x - tile[0]);
+        }
+    }
+
+
+    /**
+     * A growing list of pixel indices, without boxing them.
+     */
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if(size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(IntList list) {
+            for (int i = 0; i < list.size; i++) {
+                add(list.values[i]);
+            }
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+
+    /**
+     * Splits a range of tiles in halves until only a single tile is left,
+     * so that idle threads can steal the other half.
+     */
+    private static class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<int[]> tiles;
+        private final int from, to;
+        private final Consumer<int[]> renderTile;
+
+        TileTask(List<int[]> tiles, int from, int to, Consumer<int[]> renderTile) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.renderTile = renderTile;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= 1) {
+                if(to > from) {
+                    renderTile.accept(tiles.get(from));
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(tiles, from, middle, renderTile), new TileTask(tiles, middle, to, renderTile));
+        }
+    }
+}
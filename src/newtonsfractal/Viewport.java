@@ -0,0 +1,298 @@
+package newtonsfractal;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Maps the pixels of an image to the points of the complex plane they show.
+ * The real part grows from left to right and the imaginary part from top to bottom,
+ * every pixel covers the same distance in both directions.
+ * <p>
+ * Once the pixels are too close together for doubles to tell them apart, the viewport needs a higher {@link Precision}.
+ * Then the center is kept exactly and the pixels are given relative to it, see {@link #real(int)}.
+ * The newton's method may need a higher precision than the pixels, as its orbits run through the roots,
+ * where the doubles may lie further apart than around the viewport, see {@link #precision(List)}.
+ */
+public class Viewport {
+
+    /**
+     * How many ulps of the coordinates the pixels have to be apart at least to be rendered in a precision.
+     * Leaves some bits for the rounding errors of the newton's method.
+     */
+    public static final double PRECISION_MARGIN = 16;
+
+    /**
+     * The arithmetic the points of a viewport have to be computed in.
+     */
+    public enum Precision {
+        /**
+         * Plain doubles, the fast default.
+         */
+        DOUBLE,
+        /**
+         * {@link DoubleDouble}, for zooms up to about 10^26.
+         */
+        DOUBLE_DOUBLE,
+        /**
+         * {@link BigReal} with {@link #precisionDigits(List)} digits, for all deeper zooms.
+         */
+        BIG_DECIMAL
+    }
+
+
+    private final BigDecimal exactCenterReal;
+    private final BigDecimal exactCenterImaginary;
+
+    private final double centerReal;
+    private final double centerImaginary;
+    private final double range;
+
+    private final int width;
+    private final int height;
+
+    private final double minReal;
+    private final double minImaginary;
+    private final double stepSize;
+
+    /**
+     * How far the image reaches from the origin.
+     */
+    private final double extent;
+    private final Precision precision;
+
+
+    /**
+     * Constructs a {@code Viewport} centered on the origin which shows {@code Renderer.RANGE} in every direction.
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     */
+    public Viewport(int width, int height) {
+        this(0, 0, Renderer.RANGE, width, height);
+    }
+
+    /**
+     * Constructs a {@code Viewport}.
+     * @param centerReal the real part of the point in the center of the image
+     * @param centerImaginary the imaginary part of the point in the center of the image
+     * @param range how far the image reaches from the center to the left and right edge
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     */
+    public Viewport(double centerReal, double centerImaginary, double range, int width, int height) {
+        this(exact(centerReal), exact(centerImaginary), range, width, height);
+    }
+
+    /**
+     * Constructs a {@code Viewport} whose center has more digits than a double can hold, for deep zooms.
+     * @param centerReal the real part of the point in the center of the image
+     * @param centerImaginary the imaginary part of the point in the center of the image
+     * @param range how far the image reaches from the center to the left and right edge
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     */
+    public Viewport(BigDecimal centerReal, BigDecimal centerImaginary, double range, int width, int height) {
+        if(width < 1 || height < 1) {
+            throw new IllegalArgumentException("the image must at least be 1x1 pixels, was " + width + "x" + height);
+        }
+        if(!(range > 0) || !Double.isFinite(range)) {
+            throw new IllegalArgumentException("range must be positive, was " + range);
+        }
+        this.exactCenterReal = centerReal;
+        this.exactCenterImaginary = centerImaginary;
+        this.centerReal = centerReal.doubleValue();
+        this.centerImaginary = centerImaginary.doubleValue();
+        this.range = range;
+        this.width = width;
+        this.height = height;
+
+        this.stepSize = (2 * range) / width;
+
+        this.extent = Math.max(Math.abs(this.centerReal), Math.abs(this.centerImaginary)) + range * Math.max(1, (double) height / width);
+        this.precision = precision(extent);
+
+        if(precision == Precision.DOUBLE) {
+            this.minReal = this.centerReal - range;
+            this.minImaginary = this.centerImaginary - (range * height) / width;
+        }else {
+            this.minReal = -range;
+            this.minImaginary = -(range * height) / width;
+        }
+    }
+
+
+    /**
+     * @param magnitude the largest absolute value of the coordinates computed with
+     * @return the arithmetic in which points of that magnitude are this viewport's step size apart
+     */
+    private Precision precision(double magnitude) {
+        double resolution = PRECISION_MARGIN * Math.ulp(magnitude);
+        if(stepSize >= resolution) {
+            return Precision.DOUBLE;
+        }else if(stepSize >= resolution * 0x1p-48) {
+            return Precision.DOUBLE_DOUBLE;
+        }
+        return Precision.BIG_DECIMAL;
+    }
+
+    /**
+     * @param roots the roots of the polynomial
+     * @return the largest absolute value of the points the newton's method passes on its way from the pixels to the roots
+     */
+    private double magnitude(List<ComplexNumber> roots) {
+        double magnitude = extent;
+        for (ComplexNumber root : roots) {
+            double radius = Math.hypot(root.real(), root.imaginary());
+            // A root at infinity is never reached
+            if(Double.isFinite(radius)) {
+                magnitude = Math.max(magnitude, radius);
+            }
+        }
+        return magnitude;
+    }
+
+
+    private static BigDecimal exact(double value) {
+        if(!Double.isFinite(value)) {
+            throw new IllegalArgumentException("the center must be finite, was " + value);
+        }
+        return new BigDecimal(value);
+    }
+
+
+    /**
+     * @return the real part of the point in the center of the image, rounded to a double
+     */
+    public double centerReal() {
+        return centerReal;
+    }
+
+    /**
+     * @return the imaginary part of the point in the center of the image, rounded to a double
+     */
+    public double centerImaginary() {
+        return centerImaginary;
+    }
+
+    /**
+     * @return the real part of the point in the center of the image
+     */
+    public BigDecimal exactCenterReal() {
+        return exactCenterReal;
+    }
+
+    /**
+     * @return the imaginary part of the point in the center of the image
+     */
+    public BigDecimal exactCenterImaginary() {
+        return exactCenterImaginary;
+    }
+
+    /**
+     * @return how far the image reaches from the center to the left and right edge
+     */
+    public double range() {
+        return range;
+    }
+
+    /**
+     * @return the width of the image in pixels
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return the height of the image in pixels
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return the distance between two neighbouring pixels in the complex plane
+     */
+    public double stepSize() {
+        return stepSize;
+    }
+
+    /**
+     * @return the arithmetic the pixels of this viewport have to be given in to tell them apart,
+     *         if it is not {@link Precision#DOUBLE} they are given relative to the center
+     */
+    public Precision precision() {
+        return precision;
+    }
+
+    /**
+     * @param roots the roots of the polynomial whose newton's method is applied to the pixels
+     * @return the arithmetic the newton's method has to be applied in, at least {@link #precision()}
+     */
+    public Precision precision(List<ComplexNumber> roots) {
+        Precision orbits = precision(magnitude(roots));
+        return orbits.compareTo(precision) > 0 ? orbits : precision;
+    }
+
+    /**
+     * @param roots the roots of the polynomial whose newton's method is applied to the pixels
+     * @return the number of significant decimal digits needed for {@link Precision#BIG_DECIMAL}
+     */
+    public int precisionDigits(List<ComplexNumber> roots) {
+        // The digits of the coordinates, the digits telling the pixels apart and some for the rounding errors
+        return Math.max((int) Math.ceil(Math.log10(magnitude(roots) / stepSize)), 0) + 12;
+    }
+
+    /**
+     * @param roots the roots of the polynomial whose newton's method is applied to the pixels
+     * @return whether the pixels are far enough apart for floats, with the same margin as for the {@link Precision}
+     */
+    public boolean isFloatPrecise(List<ComplexNumber> roots) {
+        return stepSize >= PRECISION_MARGIN * Math.ulp((float) magnitude(roots));
+    }
+
+
+    /**
+     * @param x the column of a pixel
+     * @return the real part of the point the pixel shows, relative to the center if the precision is not {@link Precision#DOUBLE}
+     */
+    public double real(int x) {
+        return minReal + x * stepSize;
+    }
+
+    /**
+     * @param y the row of a pixel
+     * @return the imaginary part of the point the pixel shows, relative to the center if the precision is not {@link Precision#DOUBLE}
+     */
+    public double imaginary(int y) {
+        return minImaginary + y * stepSize;
+    }
+
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof Viewport){
+            Viewport viewport = (Viewport) obj;
+            return exactCenterReal.compareTo(viewport.exactCenterReal) == 0 && exactCenterImaginary.compareTo(viewport.exactCenterImaginary) == 0
+                && range == viewport.range && width == viewport.width && height == viewport.height;
+        }
+        return false;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int hash = exactCenterReal.stripTrailingZeros().hashCode();
+        hash = 31 * hash + exactCenterImaginary.stripTrailingZeros().hashCode();
+        hash = 31 * hash + Double.hashCode(range);
+        hash = 31 * hash + width;
+        return 31 * hash + height;
+    }
+
+
+    @Override
+    public String toString() {
+        String center = precision == Precision.DOUBLE ? centerReal + "," + centerImaginary
+                                                      : exactCenterReal.toString() + "," + exactCenterImaginary.toString();
+        return "center=" + center + ";range=" + range + ";size=" + width + "x" + height;
+    }
+}
@@ -0,0 +1,502 @@
+package newtonsfractal;
+
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shows the newton fractal of a polynomial and lets it be explored:
+ * dragging with the mouse pans the view, the mouse wheel zooms in and out around the mouse
+ * and pressing S renders the current view with {@link #IMAGE_WIDTH} x {@link #IMAGE_HEIGHT} pixels into {@code images/fractal.png}.
+ * Pressing C picks new colors and I switches shading by the number of iterations on and off,
+ * both only recolor the rendered tiles. A switches anti-aliasing of the saved images off and on.
+ * <p>
+ * The digit keys select the coefficient of x^0 to x^9, the up and down arrows change its real part
+ * and the left and right arrows its imaginary part by {@link #COEFFICIENT_STEP}, ten times as much with shift held.
+ * The rendered tiles of the view are then only rendered again where the fractal may have changed.
+ * <p>
+ * The view is put together from square tiles, rendered in the background with a coarse preview first.
+ * Rendered tiles are kept in a {@code TileCache}, so panning only renders the tiles that come into view.
+ * Whenever the view changes, rendering the tiles of the old view is cancelled.
+ */
+public class Window extends JPanel{
+    private static final long serialVersionUID = 1L;
+
+    private JFrame window;
+
+    public static final int IMAGE_WIDTH  = 2000;
+    public static final int IMAGE_HEIGHT = 2000;
+
+    public static final int WINDOW_WIDTH  = 1000;
+    public static final int WINDOW_HEIGHT = 1000;
+
+    /**
+     * The width and height of a tile of the view in pixels.
+     */
+    public static final int TILE_SIZE = 128;
+
+    /**
+     * The number of rendered tiles kept in the cache.
+     */
+    public static final int TILE_CACHE_SIZE = 512;
+
+    /**
+     * The deepest zoom level, down to which the pixels of points up to 2 * {@code Renderer.RANGE} away from the origin,
+     * counted from the origin, fit into a long. From about level 40 on the tiles are rendered in {@code DoubleDouble},
+     * the {@code BigDecimal} precision of deeper zooms is out of reach.
+     */
+    public static final int MAX_LEVEL = 52;
+
+    /**
+     * The distance between two pixels in the complex plane at zoom level 0, which shows {@code Renderer.RANGE} in every direction.
+     */
+    public static final double LEVEL_0_STEP_SIZE = (2 * Renderer.RANGE) / WINDOW_WIDTH;
+
+    /**
+     * How much a coefficient changes with one press of an arrow key.
+     */
+    public static final double COEFFICIENT_STEP = 0.01;
+
+
+    // The polynomial and its roots, only changed on the render executor
+    private volatile ComplexPolynomial polynomial = new ComplexPolynomial(1, -1, 1, 0, 0, 1);
+    private volatile List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+
+    /**
+     * The polynomial after the latest edit, which the render executor switches to before rendering the next view.
+     */
+    private volatile ComplexPolynomial editedPolynomial = polynomial;
+    private final int maxSteps = 25;
+
+    private volatile int[] palette = Renderer.generatePalette(roots.size());
+    private volatile boolean shadeIterations = true;
+    private volatile boolean antialiasImages = true;
+    private volatile Shading shading = shading();
+
+    private final TileRenderer tileRenderer = new TileRenderer(32, Runtime.getRuntime().availableProcessors());
+    private final TileCache<Tile> tileCache = new TileCache<>(TILE_CACHE_SIZE);
+
+    /**
+     * The tiles being rendered, with the preview of the last finished pass.
+     */
+    private final Map<TileCache.Key, Tile> pendingTiles = new ConcurrentHashMap<>();
+
+    /**
+     * Renders the tiles of the view one after another, every tile on all processors.
+     */
+    private final ExecutorService renderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Fractal renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> rendering;
+
+    /**
+     * Incremented with every change of the view, so that the renderer can tell that its view is outdated.
+     */
+    private volatile long viewVersion;
+
+    // The view, only changed on the event dispatch thread
+    private int level = 0;
+    private long left = -WINDOW_WIDTH / 2;
+    private long top = -WINDOW_HEIGHT / 2;
+
+    private Point dragStart;
+    private int selectedCoefficient = 0;
+
+
+    public Window() {
+        window = new JFrame("Newton Fractal");
+        window.setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
+        window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        window.setLayout(null);
+        setBounds(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
+        window.add(this);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if(dragStart != null) {
+                    left -= e.getX() - dragStart.x;
+                    top -= e.getY() - dragStart.y;
+                    dragStart = e.getPoint();
+                    viewChanged();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragStart = null;
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(e.getWheelRotation() < 0 ? 1 : -1, e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+
+        window.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if(e.getKeyCode() == KeyEvent.VK_S) {
+                    saveImage();
+                }else if(e.getKeyCode() == KeyEvent.VK_C) {
+                    palette = Renderer.generatePalette(roots.size());
+                    recolor();
+                }else if(e.getKeyCode() == KeyEvent.VK_I) {
+                    shadeIterations = !shadeIterations;
+                    recolor();
+                }else if(e.getKeyCode() == KeyEvent.VK_A) {
+                    antialiasImages = !antialiasImages;
+                    System.out.println("Saved images are " + (antialiasImages ? "" : "not ") + "anti-aliased");
+                }else if(e.getKeyCode() >= KeyEvent.VK_0 && e.getKeyCode() <= KeyEvent.VK_9) {
+                    selectedCoefficient = e.getKeyCode() - KeyEvent.VK_0;
+                    System.out.println("Editing the coefficient of x^" + selectedCoefficient);
+                }else if(e.getKeyCode() == KeyEvent.VK_UP || e.getKeyCode() == KeyEvent.VK_DOWN
+                         || e.getKeyCode() == KeyEvent.VK_RIGHT || e.getKeyCode() == KeyEvent.VK_LEFT) {
+                    double change = (e.isShiftDown() ? 10 : 1) * COEFFICIENT_STEP;
+                    boolean real = e.getKeyCode() == KeyEvent.VK_UP || e.getKeyCode() == KeyEvent.VK_DOWN;
+                    boolean down = e.getKeyCode() == KeyEvent.VK_DOWN || e.getKeyCode() == KeyEvent.VK_LEFT;
+                    editCoefficient(real ? (down ? -change : change) : 0, real ? 0 : (down ? -change : change));
+                }
+            }
+        });
+
+        window.setVisible(true);
+        viewChanged();
+    }
+
+
+    /**
+     * Zooms in or out by one level, keeping the point under the mouse in place.
+     * @param levels 1 to zoom in, -1 to zoom out
+     * @param x the column of the mouse in the panel
+     * @param y the row of the mouse in the panel
+     */
+    private void zoom(int levels, int x, int y) {
+        if(level + levels > MAX_LEVEL || level + levels < -MAX_LEVEL) {
+            return;
+        }
+        // The pixel under the mouse, counted from the origin of the complex plane
+        long mouseX = left + x, mouseY = top + y;
+        if(levels > 0) {
+            left = 2 * mouseX - x;
+            top = 2 * mouseY - y;
+        }else {
+            left = Math.floorDiv(mouseX, 2) - x;
+            top = Math.floorDiv(mouseY, 2) - y;
+        }
+        level += levels;
+        viewChanged();
+    }
+
+
+    /**
+     * @return the distance between two pixels in the complex plane at a zoom level
+     */
+    private static double stepSize(int level) {
+        return Math.scalb(LEVEL_0_STEP_SIZE, -level);
+    }
+
+    /**
+     * @return the part of the complex plane a tile shows
+     */
+    private static Viewport tileViewport(TileCache.Key key) {
+        double stepSize = stepSize(key.level());
+        double range = TILE_SIZE * stepSize / 2;
+        return new Viewport(coordinate(key.x() * TILE_SIZE + TILE_SIZE / 2, stepSize), coordinate(key.y() * TILE_SIZE + TILE_SIZE / 2, stepSize),
+                            range, TILE_SIZE, TILE_SIZE);
+    }
+
+    /**
+     * @return the exact coordinate of a pixel, whose digits a double can not hold on deep zoom levels
+     */
+    private static BigDecimal coordinate(long pixel, double stepSize) {
+        return new BigDecimal(pixel).multiply(new BigDecimal(stepSize));
+    }
+
+    /**
+     * @return the keys of the tiles of the current view, the tiles closest to its center first
+     */
+    private List<TileCache.Key> visibleTiles() {
+        long firstX = Math.floorDiv(left, TILE_SIZE), lastX = Math.floorDiv(left + getWidth() - 1, TILE_SIZE);
+        long firstY = Math.floorDiv(top, TILE_SIZE), lastY = Math.floorDiv(top + getHeight() - 1, TILE_SIZE);
+        double centerX = (left + getWidth() / 2.0) / TILE_SIZE - 0.5, centerY = (top + getHeight() / 2.0) / TILE_SIZE - 0.5;
+
+        List<TileCache.Key> keys = new ArrayList<>();
+        for (long y = firstY; y <= lastY; y++) {
+            for (long x = firstX; x <= lastX; x++) {
+                keys.add(new TileCache.Key(level, x, y));
+            }
+        }
+        keys.sort(Comparator.comparingDouble(key -> Math.hypot(key.x() - centerX, key.y() - centerY)));
+        return keys;
+    }
+
+
+    /**
+     * Repaints the view and restarts rendering for it, cancelling the rendering of the previous view.
+     */
+    private void viewChanged() {
+        long version = ++viewVersion;
+        List<TileCache.Key> keys = visibleTiles();
+
+        if(rendering != null) {
+            rendering.cancel(false);
+        }
+        rendering = renderExecutor.submit(() -> renderTiles(keys, version));
+        repaint();
+    }
+
+
+    /**
+     * Renders the tiles of a view in passes, every pass refining all tiles before the next pass starts.
+     * Switches to the latest edited polynomial first.
+     * Stops between two tiles as soon as the view has changed, finished passes of unfinished tiles are kept.
+     * @param keys the tiles of the view
+     * @param version the version of the view
+     */
+    private void renderTiles(List<TileCache.Key> keys, long version) {
+        // An edit whose own render was cancelled still has to be applied
+        ComplexPolynomial edited = editedPolynomial;
+        if(edited != polynomial) {
+            polynomialChanged(edited, keys);
+        }
+        pendingTiles.keySet().retainAll(keys);
+
+        for (int step : Renderer.PREVIEW_STEPS) {
+            for (TileCache.Key key : keys) {
+                if(viewVersion != version) {
+                    return;
+                }
+                if(tileCache.contains(key)) {
+                    continue;
+                }
+
+                Tile tile = pendingTiles.computeIfAbsent(key, k -> new Tile(new RootMap(TILE_SIZE, TILE_SIZE, roots.size())));
+                if(tile.step != 0 && tile.step <= step) {
+                    continue;
+                }
+
+                tileRenderer.renderPass(polynomial, roots, maxSteps, tileViewport(key), tile.rootMap, step, tile.step);
+
+                tile.step = step;
+                tile.colorize(shading);
+
+                if(step == 1) {
+                    tileCache.put(key, tile);
+                    pendingTiles.remove(key);
+                }
+                repaint();
+            }
+        }
+    }
+
+
+    /**
+     * Changes the selected coefficient and renders the rendered tiles of the view again where they may have changed.
+     * @param realChange the change of the real part
+     * @param imaginaryChange the change of the imaginary part
+     */
+    private void editCoefficient(double realChange, double imaginaryChange) {
+        double[] coefficients = editedPolynomial.coefficients();
+        double[] imaginaryCoefficients = editedPolynomial.imaginaryCoefficients();
+        if(selectedCoefficient >= coefficients.length) {
+            coefficients = Arrays.copyOf(coefficients, selectedCoefficient + 1);
+            imaginaryCoefficients = Arrays.copyOf(imaginaryCoefficients, selectedCoefficient + 1);
+        }
+        coefficients[selectedCoefficient] += realChange;
+        imaginaryCoefficients[selectedCoefficient] += imaginaryChange;
+        editedPolynomial = new ComplexPolynomial(coefficients, imaginaryCoefficients);
+        viewChanged();
+    }
+
+
+    /**
+     * Switches to another polynomial. If its roots can be followed from the old ones, the finished tiles of the view
+     * are rendered again only where they may have changed and keep their colors, otherwise all tiles are dropped.
+     * Tiles of other views are always dropped.
+     * @param edited the new polynomial
+     * @param keys the tiles of the view
+     */
+    private void polynomialChanged(ComplexPolynomial edited, List<TileCache.Key> keys) {
+        List<ComplexNumber> tracked = RootFinder.trackRoots(edited, roots);
+
+        Map<TileCache.Key, Tile> finished = new LinkedHashMap<>();
+        for (TileCache.Key key : keys) {
+            Tile tile = tileCache.get(key);
+            if(tile != null) {
+                finished.put(key, tile);
+            }
+        }
+        tileCache.clear();
+        pendingTiles.clear();
+        polynomial = edited;
+        System.out.println("Plotting polynomial: \n" + edited + "\n");
+
+        if(tracked == null) {
+            roots = RootFinder.findRoots(edited);
+            if(roots.size() != palette.length) {
+                palette = Renderer.generatePalette(roots.size());
+                shading = shading();
+            }
+            repaint();
+            return;
+        }
+        List<ComplexNumber> previousRoots = roots;
+        roots = tracked;
+
+        long start = System.nanoTime();
+        long recomputed = 0;
+        for (Map.Entry<TileCache.Key, Tile> entry : finished.entrySet()) {
+            Tile tile = entry.getValue();
+            recomputed += tileRenderer.rerender(edited, previousRoots, tracked, maxSteps, tileViewport(entry.getKey()), tile.rootMap, tile.rootMap);
+            tile.colorize(shading);
+            tileCache.put(entry.getKey(), tile);
+        }
+        System.out.printf("Rendered %d of %d pixels again in %d ms%n", recomputed, (long) finished.size() * TILE_SIZE * TILE_SIZE,
+                          (System.nanoTime() - start) / 1_000_000);
+        repaint();
+    }
+
+
+    /**
+     * @return the shading of the current palette, by the number of iterations or flat
+     */
+    private Shading shading() {
+        int background = Renderer.BACKGROUND_COLOR.getRGB();
+        return shadeIterations ? new Shading(palette, maxSteps, background) : Shading.flat(palette, background);
+    }
+
+    /**
+     * Colors all rendered tiles again with the current palette and shading, without rendering them again.
+     */
+    private void recolor() {
+        shading = shading();
+        renderExecutor.execute(() -> {
+            long start = System.nanoTime();
+            Shading current = shading;
+            tileCache.forEach(tile -> tile.colorize(current));
+            pendingTiles.values().forEach(tile -> tile.colorize(current));
+            System.out.printf("Recolored %d tiles in %.1f ms%n", tileCache.size() + pendingTiles.size(), (System.nanoTime() - start) / 1e6);
+            repaint();
+        });
+    }
+
+
+    /**
+     * Renders the current view with {@link #IMAGE_WIDTH} x {@link #IMAGE_HEIGHT} pixels into {@code images/fractal.png}.
+     */
+    private void saveImage() {
+        double stepSize = stepSize(level);
+        double range = getWidth() * stepSize / 2;
+        // The center of the view may lie between two pixels
+        Viewport viewport = new Viewport(coordinate(left, stepSize).add(coordinate(getWidth(), stepSize / 2)),
+                                         coordinate(top, stepSize).add(coordinate(getHeight(), stepSize / 2)), range,
+                                         IMAGE_WIDTH, IMAGE_WIDTH * getHeight() / getWidth());
+        // The file is shaded like the view, but in the colors every file gets
+        Shading.Style style = shadeIterations ? Shading.Style.ITERATIONS : Shading.Style.FLAT;
+        boolean antialias = antialiasImages;
+        renderExecutor.execute(() -> {
+            try {
+                Renderer.writeNewtonsFractal(Paths.get("images/fractal.png"), polynomial, maxSteps, viewport,
+                                             BatchRenderer.DEFAULT_BAND_HEIGHT, tileRenderer, antialias, style);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(Renderer.BACKGROUND_COLOR);
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        for (TileCache.Key key : visibleTiles()) {
+            int x = (int) (key.x() * TILE_SIZE - left);
+            int y = (int) (key.y() * TILE_SIZE - top);
+
+            Tile tile = tileCache.get(key);
+            if(tile == null) {
+                tile = pendingTiles.get(key);
+            }
+            if(tile != null && tile.image != null) {
+                g.drawImage(tile.image, x, y, null);
+                continue;
+            }
+
+            // Until the tile is rendered, the quarter of the tile on the level before is shown enlarged
+            Tile parent = tileCache.get(key.parent());
+            if(parent != null) {
+                int sourceX = Math.floorMod(key.x(), 2) * TILE_SIZE / 2;
+                int sourceY = Math.floorMod(key.y(), 2) * TILE_SIZE / 2;
+                g.drawImage(parent.image, x, y, x + TILE_SIZE, y + TILE_SIZE,
+                            sourceX, sourceY, sourceX + TILE_SIZE / 2, sourceY + TILE_SIZE / 2, null);
+            }
+        }
+    }
+
+
+    /**
+     * A tile of the view with the result of its pixels, so that it can be recolored.
+     */
+    private static class Tile {
+        private final RootMap rootMap;
+        /**
+         * The step of the last finished pass, 0 before the first pass.
+         */
+        private volatile int step;
+        private volatile BufferedImage image;
+
+        Tile(RootMap rootMap) {
+            this.rootMap = rootMap;
+        }
+
+        /**
+         * Colors the last finished pass into a new image, so that the image shown meanwhile does not change.
+         */
+        void colorize(Shading shading) {
+            BufferedImage colored = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) colored.getRaster().getDataBuffer()).getData();
+            rootMap.colorizeBlocks(shading, pixels, step);
+            image = colored;
+        }
+    }
+
+
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(Window::new);
+    }
+}
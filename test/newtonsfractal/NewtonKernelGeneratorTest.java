@@ -0,0 +1,76 @@
+package newtonsfractal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Compares the generated solvers with the scalar kernel point by point.
+ */
+class NewtonKernelGeneratorTest {
+
+    private static final int SIZE = 200;
+
+    /**
+     * Start points whose iterates overflow or are not finite to begin with.
+     */
+    private static final double[][] SPECIAL_POINTS = {
+        {1e300, 1e300}, {-1e300, 0}, {0, 1e200}, {1e154, -1e154},
+        {Double.POSITIVE_INFINITY, 0}, {0, Double.NEGATIVE_INFINITY}, {Double.NaN, 1}, {Double.MAX_VALUE, Double.MIN_VALUE},
+        {0, 0}, {-0.0, -0.0}, {Double.MIN_VALUE, -Double.MIN_VALUE}
+    };
+
+
+    @ParameterizedTest
+    @EnumSource(NewtonKernel.Convergence.class)
+    void solvesLikeTheScalarKernel(NewtonKernel.Convergence convergence) {
+        List<ComplexPolynomial> polynomials = new ArrayList<>(Arrays.asList(RenderPolynomials.polynomials()));
+        // Zero coefficients and zero imaginary parts, whose terms are left out
+        polynomials.add(new ComplexPolynomial(new double[] {0, 0, -2, 0, 0, 0, 1}, new double[] {1, 0, 0, 0.5, 0, 0, 0}));
+        polynomials.add(new ComplexPolynomial(new double[] {0, -1, 0, 1}, new double[] {-1, 0, 0, 0}));
+
+        Viewport viewport = new Viewport(SIZE, SIZE);
+        for (ComplexPolynomial polynomial : polynomials) {
+            List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+            NewtonKernel kernel = new NewtonKernel(polynomial, roots);
+            NewtonSolver generated = NewtonKernelGenerator.create(kernel);
+            assertFalse(generated instanceof NewtonKernel);
+
+            int count = SIZE * SIZE + SPECIAL_POINTS.length;
+            double[] real = new double[count], imaginary = new double[count];
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    real[y * SIZE + x] = viewport.real(x);
+                    imaginary[y * SIZE + x] = viewport.imaginary(y);
+                }
+            }
+            for (int i = 0; i < SPECIAL_POINTS.length; i++) {
+                real[SIZE * SIZE + i] = SPECIAL_POINTS[i][0];
+                imaginary[SIZE * SIZE + i] = SPECIAL_POINTS[i][1];
+            }
+            double[] expectedReal = real.clone(), expectedImaginary = imaginary.clone();
+            int[] expected = new int[count], actual = new int[count];
+            kernel.solve(expectedReal, expectedImaginary, count, 25, convergence, expected);
+            generated.solve(real, imaginary, count, 25, convergence, actual);
+
+            assertArrayEquals(expected, actual, polynomial.toString());
+            for (int i = 0; i < count; i++) {
+                // The end points may only differ in the sign of a zero
+                assertTrue(sameUpToSignOfZero(expectedReal[i], real[i]) && sameUpToSignOfZero(expectedImaginary[i], imaginary[i]),
+                           polynomial + ": end point " + i + " is " + real[i] + ", " + imaginary[i]
+                           + " instead of " + expectedReal[i] + ", " + expectedImaginary[i]);
+            }
+        }
+    }
+
+    private static boolean sameUpToSignOfZero(double expected, double actual) {
+        return expected == actual || Double.isNaN(expected) && Double.isNaN(actual);
+    }
+}
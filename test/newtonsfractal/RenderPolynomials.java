@@ -0,0 +1,55 @@
+package newtonsfractal;
+
+/**
+ * The polynomials of {@code Renderer.render}, which the backends and render modes are compared on.
+ */
+final class RenderPolynomials {
+
+    private RenderPolynomials() {
+    }
+
+
+    /**
+     * @return 1 - x + x^2 + x^5, -1 + x^3 and the polynomial of degree 10 that {@link ComplexPolynomial#GENERATE_RANDOM}
+     *         generates first, written out so that it does not depend on which test generated a polynomial before
+     */
+    static ComplexPolynomial[] polynomials() {
+        return new ComplexPolynomial[] {
+            new ComplexPolynomial(1, -1, 1, 0, 0, 1),
+            new ComplexPolynomial(-1, 0, 0, 1),
+            new ComplexPolynomial(0.7275636800328681, 3.0745056229193044, 1.3892375489969688, 1.246853205333615, 2.994970283075581,
+                                  4.065175191024802, 1.6595231103508754, 1.2408663124876607, 2.08644109114119, 3.523058004555161,
+                                  4.136975022909226)
+        };
+    }
+
+    /**
+     * @return the number of pixels whose root differs
+     */
+    static long rootMismatches(RootMap expected, RootMap actual) {
+        long mismatches = 0;
+        for (int y = 0; y < expected.height(); y++) {
+            for (int x = 0; x < expected.width(); x++) {
+                if(expected.rootIndex(x, y) != actual.rootIndex(x, y)) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * @return the number of pixels whose root or number of iterations differ
+     */
+    static long mismatches(RootMap expected, RootMap actual) {
+        long mismatches = 0;
+        for (int y = 0; y < expected.height(); y++) {
+            for (int x = 0; x < expected.width(); x++) {
+                if(expected.rootIndex(x, y) != actual.rootIndex(x, y) || expected.iterations(x, y) != actual.iterations(x, y)) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+}
@@ -0,0 +1,74 @@
+package newtonsfractal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the render modes of the {@code TileRenderer} with rendering every pixel.
+ */
+class TileRendererTest {
+
+    private static final int SIZE = 1000;
+
+
+    @Test
+    void adaptiveModeFindsTheRootOfEveryPixel() {
+        Viewport viewport = new Viewport(SIZE, SIZE);
+        for (ComplexPolynomial polynomial : RenderPolynomials.polynomials()) {
+            List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+            TileRenderer full = new TileRenderer(TileRenderer.DEFAULT_TILE_SIZE, 1, NewtonKernel.Convergence.EARLY_EXIT,
+                                                 NewtonSolver.Backend.SCALAR, TileRenderer.Mode.FULL);
+            TileRenderer adaptive = new TileRenderer(TileRenderer.DEFAULT_TILE_SIZE, 1, NewtonKernel.Convergence.EARLY_EXIT,
+                                                     NewtonSolver.Backend.SCALAR, TileRenderer.Mode.ADAPTIVE);
+            try {
+                RootMap expected = new RootMap(SIZE, SIZE, roots.size());
+                RootMap actual = new RootMap(SIZE, SIZE, roots.size());
+                full.renderRows(polynomial, roots, 25, viewport, expected, 0);
+                adaptive.renderRows(polynomial, roots, 25, viewport, actual, 0);
+
+                // Iteration bands completely inside a filled rectangle may be lost, basins are not
+                assertEquals(0, RenderPolynomials.rootMismatches(expected, actual), polynomial.toString());
+                assertTrue(adaptive.solvedPixels() < full.solvedPixels(),
+                           polynomial + ": " + adaptive.solvedPixels() + " of " + full.solvedPixels() + " pixels solved");
+            } finally {
+                full.shutdown();
+                adaptive.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void rerenderRendersTheSamePixelsAsRenderingTheChangedPolynomial() {
+        Viewport viewport = new Viewport(SIZE, SIZE);
+        TileRenderer renderer = new TileRenderer(TileRenderer.DEFAULT_TILE_SIZE, 1, NewtonKernel.Convergence.EARLY_EXIT,
+                                                 NewtonSolver.Backend.SCALAR, TileRenderer.Mode.FULL);
+        try {
+            for (ComplexPolynomial polynomial : RenderPolynomials.polynomials()) {
+                List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+                RootMap previous = new RootMap(SIZE, SIZE, roots.size());
+                renderer.renderRows(polynomial, roots, 25, viewport, previous, 0);
+
+                double[] coefficients = polynomial.coefficients();
+                coefficients[0] += 0.01;
+                ComplexPolynomial edited = new ComplexPolynomial(coefficients, polynomial.imaginaryCoefficients());
+                List<ComplexNumber> tracked = RootFinder.trackRoots(edited, roots);
+                assertNotNull(tracked, polynomial.toString());
+
+                RootMap expected = new RootMap(SIZE, SIZE, roots.size());
+                RootMap actual = new RootMap(SIZE, SIZE, roots.size());
+                renderer.renderRows(edited, tracked, 25, viewport, expected, 0);
+                long recomputed = renderer.rerender(edited, roots, tracked, 25, viewport, previous, actual);
+
+                assertEquals(0, RenderPolynomials.mismatches(expected, actual), edited.toString());
+                assertTrue(recomputed < (long) SIZE * SIZE, edited + ": " + recomputed + " pixels rendered again");
+            }
+        } finally {
+            renderer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package newtonsfractal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Compares the float backend with the scalar one pixel by pixel.
+ */
+class VectorFloatNewtonKernelTest {
+
+    private static final int SIZE = 500;
+
+    /**
+     * The largest share of the pixels that may be solved again in doubles.
+     */
+    private static final double MAX_RECOMPUTED = 0.1;
+
+
+    @ParameterizedTest
+    @EnumSource(NewtonKernel.Convergence.class)
+    void rendersTheSamePixelsAsTheScalarBackend(NewtonKernel.Convergence convergence) {
+        assertEquals(2 * VectorNewtonKernel.lanes(), VectorFloatNewtonKernel.lanes());
+
+        Viewport viewport = new Viewport(SIZE, SIZE);
+        for (ComplexPolynomial polynomial : RenderPolynomials.polynomials()) {
+            List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+            assertTrue(viewport.isFloatPrecise(roots));
+            NewtonKernel kernel = new NewtonKernel(polynomial, roots);
+            // Without the module the backend would fall back to the scalar kernel and compare it with itself
+            VectorFloatNewtonKernel floatKernel = assertInstanceOf(VectorFloatNewtonKernel.class, NewtonSolver.Backend.FLOAT.create(kernel));
+
+            RootMap expected = new RootMap(SIZE, SIZE, roots.size());
+            RootMap actual = new RootMap(SIZE, SIZE, roots.size());
+            solve(kernel, viewport, convergence, expected);
+            solve(floatKernel, viewport, convergence, actual);
+
+            long mismatches = RenderPolynomials.mismatches(expected, actual);
+            double recomputed = (double) floatKernel.recomputedPoints() / floatKernel.solvedPoints();
+            assertEquals(0, mismatches, polynomial + ": " + mismatches + " pixels differ");
+            assertTrue(recomputed < MAX_RECOMPUTED, polynomial + ": " + 100 * recomputed + " % of the pixels solved again in doubles");
+        }
+    }
+
+    private static void solve(NewtonSolver solver, Viewport viewport, NewtonKernel.Convergence convergence, RootMap rootMap) {
+        double[] real = new double[SIZE], imaginary = new double[SIZE];
+        int[] results = new int[SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                real[x] = viewport.real(x);
+                imaginary[x] = viewport.imaginary(y);
+            }
+            solver.solve(real, imaginary, SIZE, 25, convergence, results);
+            for (int x = 0; x < SIZE; x++) {
+                rootMap.set(x, y, NewtonKernel.rootIndex(results[x]), NewtonKernel.iterations(results[x]));
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package newtonsfractal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Compares the vector backend with the scalar one pixel by pixel.
+ */
+class VectorNewtonKernelTest {
+
+    private static final int SIZE = 500;
+
+
+    @ParameterizedTest
+    @EnumSource(NewtonKernel.Convergence.class)
+    void rendersTheSamePixelsAsTheScalarBackend(NewtonKernel.Convergence convergence) {
+        Viewport viewport = new Viewport(SIZE, SIZE);
+        TileRenderer scalar = new TileRenderer(TileRenderer.DEFAULT_TILE_SIZE, 1, convergence, NewtonSolver.Backend.SCALAR);
+        TileRenderer vector = new TileRenderer(TileRenderer.DEFAULT_TILE_SIZE, 1, convergence, NewtonSolver.Backend.VECTOR);
+        try {
+            for (ComplexPolynomial polynomial : RenderPolynomials.polynomials()) {
+                List<ComplexNumber> roots = RootFinder.findRoots(polynomial);
+                // Without the module the backend would fall back to the scalar kernel and compare it with itself
+                assertInstanceOf(VectorNewtonKernel.class, NewtonSolver.Backend.VECTOR.create(new NewtonKernel(polynomial, roots)));
+
+                RootMap expected = new RootMap(SIZE, SIZE, roots.size());
+                RootMap actual = new RootMap(SIZE, SIZE, roots.size());
+                scalar.renderRows(polynomial, roots, 25, viewport, expected, 0);
+                vector.renderRows(polynomial, roots, 25, viewport, actual, 0);
+
+                assertEquals(0, RenderPolynomials.mismatches(expected, actual), polynomial.toString());
+            }
+        } finally {
+            scalar.shutdown();
+            vector.shutdown();
+        }
+    }
+}